@@ -0,0 +1,100 @@
+package ru.bank.branchatmservice.catalog;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.event.AtmsChangedEvent;
+import ru.bank.branchatmservice.mapper.ATMMapper;
+import ru.bank.branchatmservice.model.ATM;
+import ru.bank.branchatmservice.repository.ATMRepository;
+import ru.bank.branchatmservice.util.WeekSchedule;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Каталог банкоматов в памяти вместе с пространственным индексом по координатам адресов.
+ * Снимок строится при старте приложения и атомарно заменяется после коммита
+ * транзакций, изменяющих банкоматы.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AtmCatalog {
+    private final ATMRepository atmRepository;
+    private final ATMMapper atmMapper;
+
+    private final AtomicReference<AtmCatalogSnapshot> snapshot =
+            new AtomicReference<>(AtmCatalogSnapshot.empty());
+
+    public AtmCatalogSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        refresh();
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized void refresh() {
+        Map<UUID, AtmCatalogEntry> entries = new LinkedHashMap<>();
+        for (ATM atm : atmRepository.findAll()) {
+            entries.put(atm.getId(), toEntry(atm));
+        }
+
+        AtmCatalogSnapshot updated = snapshot.get().withEntries(entries);
+        snapshot.set(updated);
+        log.info("Каталог банкоматов перестроен: версия {}, банкоматов {}, на карте {}",
+                updated.version(), entries.size(), updated.locations().size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onAtmsChanged(AtmsChangedEvent event) {
+        reload(event.atmIds());
+    }
+
+    private synchronized void reload(List<UUID> atmIds) {
+        if (atmIds == null || atmIds.isEmpty()) return;
+
+        AtmCatalogSnapshot current = snapshot.get();
+        Map<UUID, AtmCatalogEntry> entries = new LinkedHashMap<>(current.entries());
+        Map<UUID, AtmCatalogEntry> loaded = new LinkedHashMap<>();
+        for (ATM atm : atmRepository.findAllByIdIn(atmIds)) {
+            loaded.put(atm.getId(), toEntry(atm));
+        }
+        atmIds.stream()
+                .filter(id -> !loaded.containsKey(id))
+                .forEach(entries::remove);
+        entries.putAll(loaded);
+
+        AtmCatalogSnapshot updated = current.withEntries(entries);
+        snapshot.set(updated);
+        log.debug("Каталог банкоматов обновлен: версия {}, изменено банкоматов {}", updated.version(), atmIds.size());
+    }
+
+    private AtmCatalogEntry toEntry(ATM atm) {
+        return new AtmCatalogEntry(
+                atm.getId(),
+                atm.isClosed(),
+                atm.isHasCashDeposit(),
+                atm.isHasNfc(),
+                atmMapper.toAtmFilterResponseDto(atm),
+                GeoPoint.of(atm.getId(), EntityType.ATM, atm.getAddress()),
+                WeekSchedule.compile(atm.getWorkSchedule())
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package ru.bank.branchatmservice.catalog;
+
+import ru.bank.branchatmservice.dto.response.AtmFilterResponseDto;
+import ru.bank.branchatmservice.util.WeekSchedule;
+
+import java.util.UUID;
+
+/**
+ * Запись каталога банкоматов: признаки для фильтрации, готовый DTO, координаты (могут отсутствовать)
+ * и скомпилированный график работы.
+ */
+public record AtmCatalogEntry(
+        UUID id,
+        boolean closed,
+        boolean cashDeposit,
+        boolean nfc,
+        AtmFilterResponseDto atm,
+        GeoPoint location,
+        WeekSchedule workSchedule
+) {
+    public boolean isOpenAt(int weekSecond) {
+        return !closed && workSchedule.isOpenAt(weekSecond);
+    }
+}
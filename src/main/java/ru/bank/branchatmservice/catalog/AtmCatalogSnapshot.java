@@ -0,0 +1,39 @@
+package ru.bank.branchatmservice.catalog;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Неизменяемый версионированный снимок каталога банкоматов.
+ * Пространственный индекс содержит только действующие банкоматы с координатами.
+ */
+public record AtmCatalogSnapshot(
+        long version,
+        Map<UUID, AtmCatalogEntry> entries,
+        SpatialGrid locations
+) {
+
+    public static AtmCatalogSnapshot empty() {
+        return new AtmCatalogSnapshot(0, Map.of(), SpatialGrid.empty());
+    }
+
+    public Collection<AtmCatalogEntry> atms() {
+        return entries.values();
+    }
+
+    public AtmCatalogSnapshot withEntries(Map<UUID, AtmCatalogEntry> newEntries) {
+        return new AtmCatalogSnapshot(
+                version + 1,
+                Collections.unmodifiableMap(new LinkedHashMap<>(newEntries)),
+                SpatialGrid.of(newEntries.values().stream()
+                        .filter(entry -> !entry.closed())
+                        .map(AtmCatalogEntry::location)
+                        .filter(Objects::nonNull)
+                        .toList())
+        );
+    }
+}
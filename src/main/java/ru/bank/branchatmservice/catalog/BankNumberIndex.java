@@ -0,0 +1,52 @@
+package ru.bank.branchatmservice.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Отсортированный массив уникальных номеров отделений для автодополнения по префиксу.
+ * Поиск — бинарный поиск нижней границы префикса и последовательный просмотр совпадений.
+ */
+public final class BankNumberIndex {
+    private static final BankNumberIndex EMPTY = new BankNumberIndex(new String[0]);
+
+    private final String[] bankNumbers;
+
+    private BankNumberIndex(String[] bankNumbers) {
+        this.bankNumbers = bankNumbers;
+    }
+
+    public static BankNumberIndex empty() {
+        return EMPTY;
+    }
+
+    public static BankNumberIndex of(Collection<String> bankNumbers) {
+        String[] sorted = bankNumbers.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        return new BankNumberIndex(sorted);
+    }
+
+    public List<String> findByPrefix(String prefix, int limit) {
+        int position = Arrays.binarySearch(bankNumbers, prefix);
+        int from = position >= 0 ? position : -(position + 1);
+
+        List<String> result = new ArrayList<>();
+        for (int i = from; i < bankNumbers.length && result.size() < limit; i++) {
+            if (!bankNumbers[i].startsWith(prefix)) {
+                break;
+            }
+            result.add(bankNumbers[i]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return bankNumbers.length;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.bank.branchatmservice.catalog;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.event.BranchesChangedEvent;
+import ru.bank.branchatmservice.mapper.AddressMapper;
+import ru.bank.branchatmservice.mapper.BranchMapper;
+import ru.bank.branchatmservice.model.Branch;
+import ru.bank.branchatmservice.repository.BranchRepository;
+import ru.bank.branchatmservice.util.WeekSchedule;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Каталог отделений в памяти вместе с индексом отделов.
+ * Снимок строится один раз при старте приложения и атомарно заменяется после коммита
+ * транзакций, изменяющих отделения. Чтение не обращается к БД.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BranchCatalog {
+    private final BranchRepository branchRepository;
+    private final BranchMapper branchMapper;
+    private final AddressMapper addressMapper;
+
+    private final AtomicReference<BranchCatalogSnapshot> snapshot =
+            new AtomicReference<>(BranchCatalogSnapshot.empty());
+
+    public BranchCatalogSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        refresh();
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized void refresh() {
+        Map<UUID, BranchCatalogEntry> entries = new LinkedHashMap<>();
+        for (Branch branch : branchRepository.findAllWithAddress()) {
+            entries.put(branch.getId(), toEntry(branch));
+        }
+
+        DepartmentIndex departments = DepartmentIndex.of(branchRepository.findAllDepartmentLinks());
+
+        BranchCatalogSnapshot updated = snapshot.get().withEntries(entries).withDepartments(departments);
+        snapshot.set(updated);
+        log.info("Каталог отделений перестроен: версия {}, отделений {}, отделов {}",
+                updated.version(), entries.size(), departments.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onBranchesChanged(BranchesChangedEvent event) {
+        reload(event.branchIds());
+    }
+
+    private synchronized void reload(List<UUID> branchIds) {
+        if (branchIds == null || branchIds.isEmpty()) return;
+
+        BranchCatalogSnapshot current = snapshot.get();
+        Map<UUID, BranchCatalogEntry> entries = new LinkedHashMap<>(current.entries());
+        Map<UUID, BranchCatalogEntry> loaded = new LinkedHashMap<>();
+        for (Branch branch : branchRepository.findAllWithAddressByIds(branchIds)) {
+            loaded.put(branch.getId(), toEntry(branch));
+        }
+        branchIds.stream()
+                .filter(id -> !loaded.containsKey(id))
+                .forEach(entries::remove);
+        entries.putAll(loaded);
+
+        DepartmentIndex departments = current.departments()
+                .withBranches(branchIds, branchRepository.findDepartmentLinksByBranchIds(branchIds));
+
+        BranchCatalogSnapshot updated = current.withEntries(entries).withDepartments(departments);
+        snapshot.set(updated);
+        log.debug("Каталог отделений обновлен: версия {}, изменено отделений {}", updated.version(), branchIds.size());
+    }
+
+    private BranchCatalogEntry toEntry(Branch branch) {
+        return new BranchCatalogEntry(
+                branchMapper.toBranchDto(branch),
+                addressMapper.toAddressShortDto(branch.getAddress()),
+                GeoPoint.of(branch.getId(), EntityType.BRANCH, branch.getAddress()),
+                WeekSchedule.compile(branch.getWorkSchedule())
+        );
+    }
+}
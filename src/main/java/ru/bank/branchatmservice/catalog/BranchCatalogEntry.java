@@ -0,0 +1,20 @@
+package ru.bank.branchatmservice.catalog;
+
+import ru.bank.branchatmservice.dto.AddressShortDto;
+import ru.bank.branchatmservice.dto.BranchDto;
+import ru.bank.branchatmservice.util.WeekSchedule;
+
+/**
+ * Запись каталога отделений: готовые DTO отделения и адреса, координаты и скомпилированный график работы,
+ * по которому признак "открыто сейчас" вычисляется в момент запроса.
+ */
+public record BranchCatalogEntry(
+        BranchDto branch,
+        AddressShortDto address,
+        GeoPoint location,
+        WeekSchedule workSchedule
+) {
+    public boolean isOpenAt(int weekSecond) {
+        return !branch.isClosed() && workSchedule.isOpenAt(weekSecond);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.bank.branchatmservice.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Неизменяемый версионированный снимок каталога отделений.
+ * Пространственный индекс содержит только действующие отделения с координатами,
+ * идентификаторы отсортированы для постраничной выдачи по ключу. Индекс отделов строится
+ * по всем связям branch_department независимо от записей каталога.
+ */
+public record BranchCatalogSnapshot(
+        long version,
+        Map<UUID, BranchCatalogEntry> entries,
+        BankNumberIndex bankNumbers,
+        SpatialGrid locations,
+        UUID[] sortedIds,
+        DepartmentIndex departments
+) {
+
+    public static BranchCatalogSnapshot empty() {
+        return new BranchCatalogSnapshot(0, Map.of(), BankNumberIndex.empty(), SpatialGrid.empty(), new UUID[0],
+                DepartmentIndex.empty());
+    }
+
+    public Collection<BranchCatalogEntry> branches() {
+        return entries.values();
+    }
+
+    public BranchCatalogSnapshot withEntries(Map<UUID, BranchCatalogEntry> newEntries) {
+        return new BranchCatalogSnapshot(
+                version + 1,
+                Collections.unmodifiableMap(new LinkedHashMap<>(newEntries)),
+                BankNumberIndex.of(newEntries.values().stream()
+                        .map(entry -> entry.branch().bankNumber())
+                        .toList()),
+                SpatialGrid.of(newEntries.values().stream()
+                        .filter(entry -> !entry.branch().isClosed())
+                        .map(BranchCatalogEntry::location)
+                        .filter(Objects::nonNull)
+                        .toList()),
+                newEntries.keySet().stream().sorted().toArray(UUID[]::new),
+                departments
+        );
+    }
+
+    public BranchCatalogSnapshot withDepartments(DepartmentIndex newDepartments) {
+        return new BranchCatalogSnapshot(version, entries, bankNumbers, locations, sortedIds, newDepartments);
+    }
+
+    /**
+     * Страница отделений в порядке идентификаторов, начиная со следующего после {@code afterId}.
+     * Отделение курсора могло быть удалено из каталога, поэтому позиция ищется двоичным поиском.
+     */
+    public List<BranchCatalogEntry> page(UUID afterId, int limit) {
+        int from = 0;
+        if (afterId != null) {
+            int index = Arrays.binarySearch(sortedIds, afterId);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        int to = (int) Math.min(sortedIds.length, (long) from + limit);
+
+        List<BranchCatalogEntry> page = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            page.add(entries.get(sortedIds[i]));
+        }
+        return page;
+    }
+}
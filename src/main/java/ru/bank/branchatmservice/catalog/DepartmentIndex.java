@@ -0,0 +1,92 @@
+package ru.bank.branchatmservice.catalog;
+
+import ru.bank.branchatmservice.dto.BranchShortDto;
+import ru.bank.branchatmservice.dto.DepartmentBranchProjection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Неизменяемый мультииндекс "отдел -> отделения" по связям branch_department.
+ * Списки отделений отсортированы по названию; при изменении отделений
+ * заменяются только их связи, остальные списки переиспользуются.
+ */
+public final class DepartmentIndex {
+    private static final DepartmentIndex EMPTY = new DepartmentIndex(Map.of());
+    private static final Comparator<BranchShortDto> BY_NAME = Comparator
+            .comparing(BranchShortDto::bankBranchName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(BranchShortDto::bankBranchId);
+
+    private final Map<UUID, List<BranchShortDto>> branchesByDepartment;
+
+    private DepartmentIndex(Map<UUID, List<BranchShortDto>> branchesByDepartment) {
+        this.branchesByDepartment = branchesByDepartment;
+    }
+
+    public static DepartmentIndex empty() {
+        return EMPTY;
+    }
+
+    public static DepartmentIndex of(Collection<? extends DepartmentBranchProjection> links) {
+        return EMPTY.withBranches(Set.of(), links);
+    }
+
+    public List<BranchShortDto> findByDepartmentId(UUID departmentId) {
+        return branchesByDepartment.getOrDefault(departmentId, List.of());
+    }
+
+    public int size() {
+        return branchesByDepartment.size();
+    }
+
+    /**
+     * Новый индекс, в котором связи отделений {@code branchIds} заменены на {@code links}.
+     * Отделение без связей в {@code links} из индекса удаляется.
+     */
+    public DepartmentIndex withBranches(Collection<UUID> branchIds,
+                                        Collection<? extends DepartmentBranchProjection> links) {
+        Set<UUID> replaced = new HashSet<>(branchIds);
+        Map<UUID, List<BranchShortDto>> updated = new HashMap<>(branchesByDepartment);
+        Set<UUID> touched = new HashSet<>();
+
+        if (!replaced.isEmpty()) {
+            branchesByDepartment.forEach((departmentId, branches) -> {
+                if (branches.stream().anyMatch(branch -> replaced.contains(branch.bankBranchId()))) {
+                    List<BranchShortDto> kept = new ArrayList<>(branches);
+                    kept.removeIf(branch -> replaced.contains(branch.bankBranchId()));
+                    updated.put(departmentId, kept);
+                    touched.add(departmentId);
+                }
+            });
+        }
+
+        for (DepartmentBranchProjection link : links) {
+            List<BranchShortDto> branches = updated.get(link.getDepartmentId());
+            if (!touched.contains(link.getDepartmentId())) {
+                branches = branches == null ? new ArrayList<>() : new ArrayList<>(branches);
+                updated.put(link.getDepartmentId(), branches);
+                touched.add(link.getDepartmentId());
+            }
+            branches.add(new BranchShortDto(link.getBranchId(), link.getBranchName()));
+        }
+
+        for (UUID departmentId : touched) {
+            List<BranchShortDto> branches = updated.get(departmentId);
+            if (branches.isEmpty()) {
+                updated.remove(departmentId);
+            } else {
+                branches.sort(BY_NAME);
+                updated.put(departmentId, Collections.unmodifiableList(branches));
+            }
+        }
+        return new DepartmentIndex(updated);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.bank.branchatmservice.catalog;
+
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.model.Address;
+
+import java.util.UUID;
+
+/**
+ * Точка на карте: отделение или банкомат с координатами адреса.
+ */
+public record GeoPoint(UUID id, EntityType entityType, double latitude, double longitude) {
+    public static final double EARTH_RADIUS_METERS = 6_371_000;
+    public static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    public static GeoPoint of(UUID id, EntityType entityType, Address address) {
+        if (address == null || address.getLatitude() == null || address.getLongitude() == null) {
+            return null;
+        }
+        return new GeoPoint(id, entityType, address.getLatitude().doubleValue(), address.getLongitude().doubleValue());
+    }
+
+    /**
+     * Расстояние по дуге большого круга (формула гаверсинусов) в метрах.
+     */
+    public double distanceTo(double otherLatitude, double otherLongitude) {
+        double deltaLatitude = Math.toRadians(otherLatitude - latitude);
+        double deltaLongitude = Math.toRadians(otherLongitude - longitude);
+        double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(otherLatitude))
+                * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
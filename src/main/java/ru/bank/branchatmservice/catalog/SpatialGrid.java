@@ -0,0 +1,251 @@
+package ru.bank.branchatmservice.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Неизменяемый пространственный индекс: равномерная сетка по широте и долготе.
+ * Для прямоугольника просматриваются только ячейки, которые его пересекают;
+ * поиск ближайших точек обходит кольца ячеек вокруг заданной точки.
+ * Переход через 180-й меридиан не учитывается.
+ */
+public final class SpatialGrid {
+    public static final double CELL_SIZE = 0.05;
+
+    private static final SpatialGrid EMPTY = new SpatialGrid(Map.of(), 0, 0, 0, 0, 0);
+
+    private final Map<Long, List<GeoPoint>> cells;
+    private final int size;
+    private final int minRow;
+    private final int maxRow;
+    private final int minColumn;
+    private final int maxColumn;
+
+    private SpatialGrid(Map<Long, List<GeoPoint>> cells, int size,
+                        int minRow, int maxRow, int minColumn, int maxColumn) {
+        this.cells = cells;
+        this.size = size;
+        this.minRow = minRow;
+        this.maxRow = maxRow;
+        this.minColumn = minColumn;
+        this.maxColumn = maxColumn;
+    }
+
+    /**
+     * Точка и расстояние до нее в метрах.
+     */
+    public record Neighbor(GeoPoint point, double distance) {
+    }
+
+    public static SpatialGrid empty() {
+        return EMPTY;
+    }
+
+    public static SpatialGrid of(Collection<GeoPoint> points) {
+        if (points.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<Long, List<GeoPoint>> cells = new HashMap<>();
+        int minRow = Integer.MAX_VALUE;
+        int maxRow = Integer.MIN_VALUE;
+        int minColumn = Integer.MAX_VALUE;
+        int maxColumn = Integer.MIN_VALUE;
+        for (GeoPoint point : points) {
+            int row = row(point.latitude());
+            int column = column(point.longitude());
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minColumn = Math.min(minColumn, column);
+            maxColumn = Math.max(maxColumn, column);
+            cells.computeIfAbsent(cellKey(row, column), key -> new ArrayList<>()).add(point);
+        }
+        cells.replaceAll((key, cellPoints) -> List.copyOf(cellPoints));
+        return new SpatialGrid(Collections.unmodifiableMap(cells), points.size(),
+                minRow, maxRow, minColumn, maxColumn);
+    }
+
+    public void forEachInBox(double minLatitude, double minLongitude,
+                             double maxLatitude, double maxLongitude,
+                             Consumer<GeoPoint> consumer) {
+        scanBox(minLatitude, minLongitude, maxLatitude, maxLongitude, point -> {
+            consumer.accept(point);
+            return true;
+        });
+    }
+
+    /**
+     * Не более {@code limit} точек прямоугольника; обход ячеек прекращается, как только лимит набран.
+     */
+    public List<GeoPoint> findInBox(double minLatitude, double minLongitude,
+                                    double maxLatitude, double maxLongitude, int limit) {
+        List<GeoPoint> found = new ArrayList<>();
+        if (limit < 1) {
+            return found;
+        }
+        scanBox(minLatitude, minLongitude, maxLatitude, maxLongitude, point -> {
+            found.add(point);
+            return found.size() < limit;
+        });
+        return found;
+    }
+
+    /**
+     * Передает точки прямоугольника в {@code consumer}, пока он возвращает true.
+     */
+    private void scanBox(double minLatitude, double minLongitude,
+                         double maxLatitude, double maxLongitude,
+                         Predicate<GeoPoint> consumer) {
+        // прямоугольник обрезается по занятым ячейкам: границы цикла не доходят до пределов int
+        int fromRow = Math.max(row(minLatitude), minRow);
+        int toRow = Math.min(row(maxLatitude), maxRow);
+        int fromColumn = Math.max(column(minLongitude), minColumn);
+        int toColumn = Math.min(column(maxLongitude), maxColumn);
+        if (cells.isEmpty() || fromRow > toRow || fromColumn > toColumn) {
+            return;
+        }
+
+        long cellsInBox = ((long) toRow - fromRow + 1) * ((long) toColumn - fromColumn + 1);
+        if (cellsInBox > cells.size()) {
+            for (Map.Entry<Long, List<GeoPoint>> cell : cells.entrySet()) {
+                int row = (int) (cell.getKey() >> 32);
+                int column = (int) (long) cell.getKey();
+                if (row >= fromRow && row <= toRow && column >= fromColumn && column <= toColumn
+                        && !acceptInBox(cell.getValue(), minLatitude, minLongitude, maxLatitude, maxLongitude, consumer)) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                List<GeoPoint> cellPoints = cells.get(cellKey(row, column));
+                if (cellPoints != null
+                        && !acceptInBox(cellPoints, minLatitude, minLongitude, maxLatitude, maxLongitude, consumer)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает не более {@code limit} ближайших к точке объектов, удовлетворяющих фильтру,
+     * в порядке возрастания расстояния. Кольца ячеек обходятся, пока расстояние до следующего кольца
+     * не превысит расстояние до самой дальней из уже найденных точек.
+     */
+    public List<Neighbor> nearest(double latitude, double longitude, int limit, Predicate<GeoPoint> filter) {
+        if (limit < 1 || cells.isEmpty()) {
+            return List.of();
+        }
+
+        PriorityQueue<Neighbor> best = new PriorityQueue<>(
+                limit, Comparator.comparingDouble(Neighbor::distance).reversed());
+        Consumer<GeoPoint> collector = point -> {
+            if (!filter.test(point)) return;
+            double distance = point.distanceTo(latitude, longitude);
+            if (best.size() < limit) {
+                best.add(new Neighbor(point, distance));
+            } else if (distance < best.peek().distance()) {
+                best.poll();
+                best.add(new Neighbor(point, distance));
+            }
+        };
+
+        int centerRow = row(latitude);
+        int centerColumn = column(longitude);
+        int maxRing = Math.max(
+                Math.max(Math.abs(centerRow - minRow), Math.abs(maxRow - centerRow)),
+                Math.max(Math.abs(centerColumn - minColumn), Math.abs(maxColumn - centerColumn)));
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (best.size() == limit && best.peek().distance() <= ringDistanceLowerBound(latitude, ring)) {
+                break;
+            }
+            if (8L * ring > cells.size()) {
+                // кольцо больше числа занятых ячеек: дешевле досмотреть оставшиеся ячейки целиком
+                int fromRing = ring;
+                cells.forEach((key, cellPoints) -> {
+                    int distance = Math.max(Math.abs((int) (key >> 32) - centerRow),
+                            Math.abs((int) (long) key - centerColumn));
+                    if (distance >= fromRing) {
+                        cellPoints.forEach(collector);
+                    }
+                });
+                break;
+            }
+            forEachInRing(centerRow, centerColumn, ring, collector);
+        }
+
+        List<Neighbor> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Neighbor::distance));
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_SIZE);
+    }
+
+    static int column(double longitude) {
+        return (int) Math.floor(longitude / CELL_SIZE);
+    }
+
+    static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private void forEachInRing(int centerRow, int centerColumn, int ring, Consumer<GeoPoint> consumer) {
+        for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+            boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+            int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+            for (int column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                List<GeoPoint> cellPoints = cells.get(cellKey(row, column));
+                if (cellPoints != null) {
+                    cellPoints.forEach(consumer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Нижняя оценка расстояния в метрах от точки до любой точки в кольце {@code ring} и дальше:
+     * такие точки отстоят от ячейки центра минимум на {@code ring - 1} ячеек по широте или долготе.
+     */
+    private static double ringDistanceLowerBound(double latitude, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double degrees = (ring - 1) * CELL_SIZE;
+        double maxLatitude = Math.min(90, Math.abs(latitude) + degrees);
+        return degrees * GeoPoint.METERS_PER_DEGREE * Math.cos(Math.toRadians(maxLatitude));
+    }
+
+    /**
+     * @return false, если {@code consumer} попросил остановить обход
+     */
+    private static boolean acceptInBox(List<GeoPoint> points,
+                                       double minLatitude, double minLongitude,
+                                       double maxLatitude, double maxLongitude,
+                                       Predicate<GeoPoint> consumer) {
+        for (GeoPoint point : points) {
+            if (point.latitude() >= minLatitude && point.latitude() <= maxLatitude
+                    && point.longitude() >= minLongitude && point.longitude() <= maxLongitude
+                    && !consumer.test(point)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
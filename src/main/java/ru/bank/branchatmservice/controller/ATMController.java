@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,19 +19,30 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.bank.branchatmservice.dto.ATMFullDto;
 import ru.bank.branchatmservice.dto.InfoAtmDto;
 import ru.bank.branchatmservice.dto.request.AtmFilterDto;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
 import ru.bank.branchatmservice.dto.request.UpdateAtmInfoRequest;
+import ru.bank.branchatmservice.dto.response.AtmBatchResponse;
 import ru.bank.branchatmservice.dto.response.AtmFilterResponseDto;
+import ru.bank.branchatmservice.dto.response.AtmImportResponse;
+import ru.bank.branchatmservice.dto.response.CursorPageResponse;
+import ru.bank.branchatmservice.dto.response.FilterPageResponse;
 import ru.bank.branchatmservice.dto.response.InfoDeletionArchivingAtmResponse;
 import ru.bank.branchatmservice.dto.request.AtmCreateDto;
 import ru.bank.branchatmservice.dto.response.MessageResponseDto;
+import ru.bank.branchatmservice.dto.response.NearestAtmResponseDto;
+import ru.bank.branchatmservice.enums.ExportFormat;
 import ru.bank.branchatmservice.service.ATMService;
+import ru.bank.branchatmservice.service.AtmImportService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -44,6 +56,7 @@ import java.util.UUID;
 public class ATMController {
 
     private final ATMService atmService;
+    private final AtmImportService atmImportService;
 
     @Operation(
             summary = "Просмотр информации о конкретном банкомате по UUID",
@@ -97,9 +110,46 @@ public class ATMController {
         return atmService.getATMById(atmId);
     }
 
+    @Operation(
+            summary = "Просмотр информации о банкоматах по списку UUID",
+            description = "Возвращает информацию о банкоматах (до " + ATMService.MAX_ATM_BATCH
+                    + " UUID) за один запрос. Не найденные банкоматы перечисляются в notFound и не приводят к ошибке.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Успешное получение информации",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = AtmBatchResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Пустой список или превышен размер пакета",
+                            content = @Content(schema = @Schema(hidden = true))
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Сервер временно недоступен по техническим причинам. Попробуйте позже.",
+                            content = @Content(schema = @Schema(hidden = true))
+                    ),
+            }
+    )
+    @PostMapping("/batch")
+    public AtmBatchResponse getATMsByIds(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Список UUID банкоматов",
+                    required = true,
+                    content = @Content(array = @ArraySchema(schema = @Schema(type = "string", format = "uuid")))
+            )
+            @RequestBody List<UUID> atmIds) {
+        return atmService.getATMsByIds(atmIds);
+    }
+
     @Operation(
             summary = "Поиск списка банкоматов по фильтру",
-            description = "Выполняет поиск списка банкоматов по фильтру. Возвращает список банкоматов удовлетворяющих фильтру."
+            description = "Выполняет поиск списка банкоматов по фильтру. Возвращает страницу банкоматов, "
+                    + "удовлетворяющих фильтру, с сортировкой по городу, улице, номеру или расстоянию."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -107,14 +157,53 @@ public class ATMController {
                     description = "Банкоматы успешно найдены",
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                            array = @ArraySchema(schema = @Schema(implementation = AtmFilterResponseDto.class))
+                            schema = @Schema(implementation = FilterPageResponse.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректные параметры страницы или сортировки",
+                    content = @Content(schema = @Schema(hidden = true))
             )
     })
     @GetMapping("/filter")
-    public List<AtmFilterResponseDto> getAtmsByFilter(
+    public FilterPageResponse<AtmFilterResponseDto> getAtmsByFilter(
+            @ParameterObject AtmFilterDto filters,
+            @ParameterObject FilterPageRequest pageRequest) {
+        return atmService.getAtmListByFilter(filters, pageRequest);
+    }
+
+    @Operation(
+            summary = "Поиск ближайших банкоматов",
+            description = "Возвращает ближайшие к заданной точке банкоматы в порядке возрастания расстояния. "
+                    + "Поддерживает фильтры nfc, cashDeposit, hour24 (круглосуточно все дни недели) "
+                    + "и workingNow (работает в текущий момент по графику)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Банкоматы успешно найдены",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = NearestAtmResponseDto.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректные координаты или количество банкоматов",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @GetMapping("/nearest")
+    public List<NearestAtmResponseDto> findNearestAtms(
+            @Parameter(description = "Широта точки поиска", required = true, example = "55.7558")
+            @RequestParam Double latitude,
+            @Parameter(description = "Долгота точки поиска", required = true, example = "37.6173")
+            @RequestParam Double longitude,
+            @Parameter(description = "Количество банкоматов (по умолчанию 10, максимум 100)", example = "10")
+            @RequestParam(required = false) Integer limit,
             @ParameterObject AtmFilterDto filters) {
-        return atmService.getAtmListByFilter(filters);
+        return atmService.findNearestAtms(latitude, longitude, limit, filters);
     }
 
     @Operation(
@@ -271,9 +360,39 @@ public class ATMController {
         return new ResponseEntity<>(atmService.createATM(atmCreateDto), HttpStatus.CREATED);
     }
 
+    @Operation(
+            summary = "Пакетная загрузка банкоматов",
+            description = "Тело запроса — NDJSON (Content-Type: application/x-ndjson, объект как в POST /atms на строку) "
+                    + "или CSV (Content-Type: text/csv) с заголовком: number, inventoryNumber, installationLocation, "
+                    + "construction, hasCashDeposit, hasNfc, city, streetType, street, house, latitude, longitude, "
+                    + "metroStation, bankNumber, workSchedule (\"1 09:00-18:00;2 09:00-18:00\"). Файл обрабатывается "
+                    + "порциями; строки с ошибками пропускаются и перечисляются в ответе, остальные добавляются."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Файл обработан",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = AtmImportResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Неподдерживаемый тип содержимого или неверный заголовок CSV",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public AtmImportResponse importAtms(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        InputStream body) throws IOException {
+        return atmImportService.importAtms(ExportFormat.fromContentType(contentType), body);
+    }
+
     @Operation(
             summary = "Просмотр списка банкоматов",
-            description = "Возвращает список банкоматов"
+            description = "Возвращает страницу банкоматов в порядке идентификаторов. "
+                    + "Для получения следующей страницы передайте nextCursor из предыдущего ответа."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -281,14 +400,22 @@ public class ATMController {
                     description = "Данные успешно получены",
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                            array = @ArraySchema(
-                                    schema = @Schema(implementation = AtmFilterResponseDto.class))
+                            schema = @Schema(implementation = CursorPageResponse.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректный курсор или размер страницы",
+                    content = @Content(schema = @Schema(hidden = true))
             )
     })
     @GetMapping
-    public List<AtmFilterResponseDto> findAtms() {
-        return atmService.getAllAtmList();
+    public CursorPageResponse<AtmFilterResponseDto> findAtms(
+            @Parameter(description = "Курсор следующей страницы из предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (по умолчанию 50, максимум 500)", example = "50")
+            @RequestParam(required = false) Integer limit) {
+        return atmService.getAtmPage(cursor, limit);
     }
 
     @Operation(
@@ -11,13 +11,18 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.bank.branchatmservice.dto.BranchIdListDto;
 import ru.bank.branchatmservice.dto.BranchShortDto;
 import ru.bank.branchatmservice.dto.response.BranchNameResponse;
+import ru.bank.branchatmservice.dto.response.BranchNamesResponse;
 import ru.bank.branchatmservice.service.BranchService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -75,6 +80,38 @@ public class BranchATMController {
         return branchService.findBranchesByDepartmentId(departmentId);
     }
 
+    @Operation(
+            summary = "Находит отделения нескольких отделов",
+            description = "Принимает до " + BranchService.MAX_DEPARTMENTS_BATCH + " UUID отделов и возвращает "
+                    + "отделения каждого из них. Для отдела без отделений возвращается пустой список.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Успешное получение информации",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Пустой список или превышен размер пакета",
+                            content = @Content(schema = @Schema(hidden = true))
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Сервис временно недоступен. Повторите попытку позже."
+                    ),
+            }
+    )
+    @PostMapping("/branch")
+    public Map<UUID, List<BranchShortDto>> findBranchesByDepartmentIds(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Список UUID отделов",
+                    required = true,
+                    content = @Content(array = @ArraySchema(schema = @Schema(type = "string", format = "uuid")))
+            )
+            @RequestBody List<UUID> departmentIds) {
+        return branchService.findBranchesByDepartmentIds(departmentIds);
+    }
+
     @Operation(
             summary = "Получение имени отделения по UUID отделения",
             responses = {
@@ -131,4 +168,34 @@ public class BranchATMController {
             @PathVariable("bankBranchId") UUID bankBranchId) {
         return branchService.getBranchNameByBranchId(bankBranchId);
     }
+
+    @Operation(
+            summary = "Получение названий отделений по списку UUID",
+            description = "Возвращает названия за один запрос (до " + BranchService.MAX_BRANCH_NAMES_BATCH
+                    + " UUID). Не найденные отделения перечисляются в notFound и не приводят к ошибке.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Успешное получение информации",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = BranchNamesResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Пустой список или превышен размер пакета",
+                            content = @Content(schema = @Schema(hidden = true))
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Сервер временно недоступен по техническим причинам. Попробуйте позже.",
+                            content = @Content(schema = @Schema(hidden = true))
+                    ),
+            }
+    )
+    @PostMapping("/branchNames")
+    public BranchNamesResponse getBranchNamesByIds(@RequestBody BranchIdListDto request) {
+        return branchService.getBranchNamesByIds(request.branchIds());
+    }
 }
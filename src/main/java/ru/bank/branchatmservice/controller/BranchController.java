@@ -16,8 +16,10 @@ import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.bank.branchatmservice.dto.BranchIdListDto;
 import ru.bank.branchatmservice.dto.request.BranchSearchRequest;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
 import ru.bank.branchatmservice.dto.response.ArchiveBranchResponse;
 import ru.bank.branchatmservice.dto.response.BranchSearchResponseDto;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -30,14 +32,19 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.bank.branchatmservice.dto.BranchCreateDto;
 import ru.bank.branchatmservice.dto.request.BranchAndAddressInfoRequest;
+import ru.bank.branchatmservice.dto.request.BranchBatchCreateRequest;
 import ru.bank.branchatmservice.dto.request.BranchUpdateRequestDto;
 import ru.bank.branchatmservice.dto.response.BranchAndAddressInfoResponse;
 import ru.bank.branchatmservice.dto.response.BranchBankNumberDTO;
+import ru.bank.branchatmservice.dto.response.BranchBatchCreateResponse;
 import ru.bank.branchatmservice.dto.response.BranchListResponse;
 import ru.bank.branchatmservice.dto.response.BranchUnionDto;
+import ru.bank.branchatmservice.dto.response.CursorPageResponse;
+import ru.bank.branchatmservice.dto.response.FilterPageResponse;
 import ru.bank.branchatmservice.dto.response.MessageDto;
 import ru.bank.branchatmservice.dto.response.MessageResponseDto;
 import ru.bank.branchatmservice.handler.ErrorResponseDto;
+import ru.bank.branchatmservice.service.BranchBulkService;
 import ru.bank.branchatmservice.service.BranchService;
 
 import java.util.List;
@@ -52,6 +59,7 @@ import java.util.UUID;
 @RequestMapping("/api/v1/branches")
 public class BranchController {
     private final BranchService branchService;
+    private final BranchBulkService branchBulkService;
 
     @Operation(
             summary = "Поиск отделений по фильтру",
@@ -66,6 +74,11 @@ public class BranchController {
                     - По статусу работы (открыто/закрыто)
                     - По адресу: город, тип улицы, улица, дом
                     - Комбинированные фильтры
+                    
+                    ### Постраничная выдача:
+                    - page, size - номер и размер страницы
+                    - sort (CITY, STREET, NUMBER, DISTANCE) и direction - сортировка
+                    - withCount - посчитать общее количество найденных отделений
                     """,
             responses = {
                     @ApiResponse(
@@ -73,7 +86,7 @@ public class BranchController {
                             description = "Успешный поиск отделений",
                             content = @Content(
                                     mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                    array = @ArraySchema(schema = @Schema(implementation = BranchSearchResponseDto.class))
+                                    schema = @Schema(implementation = FilterPageResponse.class)
                             )
                     ),
                     @ApiResponse(
@@ -139,8 +152,10 @@ public class BranchController {
             )
     )
     @GetMapping("/filter")
-    public List<BranchSearchResponseDto> searchBranchByFilter(@Valid @RequestBody BranchSearchRequest searchRequest) {
-        return branchService.searchBranchesByFilter(searchRequest);
+    public FilterPageResponse<BranchSearchResponseDto> searchBranchByFilter(
+            @Valid @RequestBody BranchSearchRequest searchRequest,
+            @ParameterObject FilterPageRequest pageRequest) {
+        return branchService.searchBranchesByFilter(searchRequest, pageRequest);
     }
 
     @Operation(
@@ -231,13 +246,19 @@ public class BranchController {
 
     @Operation(
             summary = "Получение списка отделений",
+            description = "Возвращает страницу отделений в порядке идентификаторов. "
+                    + "Для получения следующей страницы передайте nextCursor из предыдущего ответа.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Успешное получение информации",
                             content = @Content(
                                     mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                    array = @ArraySchema(schema = @Schema(implementation = BranchListResponse.class)))
+                                    schema = @Schema(implementation = CursorPageResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Некорректный курсор или размер страницы"
                     ),
                     @ApiResponse(
                             responseCode = "401",
@@ -254,8 +275,12 @@ public class BranchController {
             }
     )
     @GetMapping()
-    public List<BranchListResponse> getBranches() {
-        return branchService.getBranches();
+    public CursorPageResponse<BranchListResponse> getBranches(
+            @Parameter(description = "Курсор следующей страницы из предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (по умолчанию 50, максимум 500)", example = "50")
+            @RequestParam(required = false) Integer limit) {
+        return branchService.getBranches(cursor, limit);
     }
 
     @Operation(
@@ -315,6 +340,34 @@ public class BranchController {
         return branchService.createBranch(newBranch);
     }
 
+    @Operation(
+            summary = "Пакетное добавление отделений",
+            description = "Добавляет до 500 отделений за запрос. Уникальность имени, номера и телефона проверяется "
+                    + "для всего пакета сразу; отделения с ошибками пропускаются, результат возвращается по каждому элементу."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Пакет обработан",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = BranchBatchCreateResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Пустой пакет или более 500 отделений",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/batch")
+    public BranchBatchCreateResponse createBranches(@RequestBody @Valid BranchBatchCreateRequest request) {
+        return branchBulkService.createBranches(request.branches());
+    }
+
     @Operation(
             summary = "Получение номеров отделений банка по номеру банка",
             description = "Возвращает список номеров отделений банка, соответствующих указанному номеру банка"
@@ -345,8 +398,11 @@ public class BranchController {
             schema = @Schema(type = "string", minLength = 1)
     )
     @GetMapping("/similar-numbers")
-    public List<BranchBankNumberDTO> getBranchBankNumberListByBankNumber(@RequestParam String bankNumber) {
-        return branchService.getBranchBankNumberByBankNumber(bankNumber);
+    public List<BranchBankNumberDTO> getBranchBankNumberListByBankNumber(
+            @RequestParam String bankNumber,
+            @Parameter(description = "Максимальное количество номеров в ответе", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        return branchService.getBranchBankNumberByBankNumber(bankNumber, limit);
     }
 
     @Operation(
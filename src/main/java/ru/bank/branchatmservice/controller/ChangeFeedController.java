@@ -0,0 +1,57 @@
+package ru.bank.branchatmservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.bank.branchatmservice.dto.response.ChangeFeedResponse;
+import ru.bank.branchatmservice.service.ChangeFeedService;
+
+/**
+ * Контроллер инкрементальной синхронизации отделений и банкоматов.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v1/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @Operation(
+            summary = "Изменения после версии",
+            description = "Возвращает отделения и банкоматы, измененные после версии since (вместе с адресом "
+                    + "и графиком работы), и идентификаторы закрытых за это время. Полученную версию нужно "
+                    + "передать в следующем запросе; при hasMore = true изменения выгружены не полностью."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Данные успешно получены",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ChangeFeedResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Неверная версия или размер выборки",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @GetMapping
+    public ChangeFeedResponse getChanges(
+            @Parameter(description = "Последняя полученная версия (0 или отсутствует — выгрузить все)", example = "18342")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Максимум объектов каждого типа (по умолчанию 50, максимум 500)", example = "50")
+            @RequestParam(required = false) Integer limit) {
+        return changeFeedService.getChanges(since, limit);
+    }
+}
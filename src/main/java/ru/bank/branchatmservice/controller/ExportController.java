@@ -0,0 +1,88 @@
+package ru.bank.branchatmservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.bank.branchatmservice.enums.ExportFormat;
+import ru.bank.branchatmservice.service.ExportService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Контроллер выгрузки всей сети отделений и банкоматов.
+ * Данные пишутся прямо в ответ по мере чтения из БД, без сборки списка в памяти.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v1/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @Operation(
+            summary = "Выгрузка отделений",
+            description = "Все отделения с адресами и графиками работы в формате NDJSON (по объекту на строку) или CSV. "
+                    + "В CSV график передается строкой вида \"1 09:00-18:00;2 09:00-18:00\" (1 — пн, 7 — вс)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка сформирована"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Неизвестный формат выгрузки",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @GetMapping("/branches")
+    public void exportBranches(
+            @Parameter(description = "Формат: ndjson (по умолчанию) или csv", example = "csv")
+            @RequestParam(required = false) String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        prepare(response, exportFormat, "branches");
+        exportService.exportBranches(exportFormat, response.getOutputStream());
+    }
+
+    @Operation(
+            summary = "Выгрузка банкоматов",
+            description = "Все банкоматы с адресами и графиками работы в формате NDJSON (по объекту на строку) или CSV. "
+                    + "В CSV график передается строкой вида \"1 09:00-18:00;2 09:00-18:00\" (1 — пн, 7 — вс)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка сформирована"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Неизвестный формат выгрузки",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @GetMapping("/atms")
+    public void exportAtms(
+            @Parameter(description = "Формат: ndjson (по умолчанию) или csv", example = "csv")
+            @RequestParam(required = false) String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        prepare(response, exportFormat, "atms");
+        exportService.exportAtms(exportFormat, response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build()
+                .toString());
+    }
+}
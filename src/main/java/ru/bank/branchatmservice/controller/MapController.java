@@ -0,0 +1,53 @@
+package ru.bank.branchatmservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.bank.branchatmservice.dto.request.MapViewportRequest;
+import ru.bank.branchatmservice.dto.response.MapViewportResponse;
+import ru.bank.branchatmservice.service.MapService;
+
+/**
+ * Контроллер карты отделений и банкоматов.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v1/map")
+public class MapController {
+
+    private final MapService mapService;
+
+    @Operation(
+            summary = "Объекты карты в области просмотра",
+            description = "Возвращает отделения и банкоматы в заданной области. На мелком масштабе объекты "
+                    + "объединяются в кластеры (количество и центр), на крупном возвращаются отдельные точки; "
+                    + "если точек больше лимита, возвращается часть с признаком truncated."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Данные успешно получены",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = MapViewportResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Неверные границы области просмотра или масштаб",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @GetMapping
+    public MapViewportResponse getMapClusters(@ParameterObject MapViewportRequest viewport) {
+        return mapService.getMapClusters(viewport);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.bank.branchatmservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.bank.branchatmservice.dto.response.StatusEventDto;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.stream.StatusEventBus;
+
+/**
+ * Контроллер потока событий об изменении статуса отделений и банкоматов (Server-Sent Events).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v1/status")
+public class StatusStreamController {
+
+    private final StatusEventBus statusEventBus;
+
+    @Operation(
+            summary = "Поток изменений статуса",
+            description = "Server-Sent Events: создание, изменение и архивация отделений и банкоматов, "
+                    + "а также открытие и закрытие по графику работы. Имя события совпадает с видом изменения "
+                    + "(created, updated, archived, opened, closed). Медленный клиент отключается при переполнении "
+                    + "буфера; после переподключения пропущенное можно получить через api/v1/changes. "
+                    + "Раз в heartbeat-interval приходит SSE-комментарий, по которому обнаруживаются оборванные соединения."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Подписка оформлена",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = StatusEventDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Достигнуто максимальное число подписчиков",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusChanges(
+            @Parameter(description = "Тип объектов (BRANCH или ATM); по умолчанию все", example = "ATM")
+            @RequestParam(required = false) EntityType entityType) {
+        return statusEventBus.subscribe(entityType);
+    }
+}
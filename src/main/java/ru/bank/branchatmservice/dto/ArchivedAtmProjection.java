@@ -0,0 +1,17 @@
+package ru.bank.branchatmservice.dto;
+
+import java.util.UUID;
+
+public interface ArchivedAtmProjection {
+    UUID getId();
+
+    String getInventoryNumber();
+
+    String getCityName();
+
+    String getStreetType();
+
+    String getStreet();
+
+    String getHouse();
+}
@@ -0,0 +1,22 @@
+package ru.bank.branchatmservice.dto;
+
+import java.util.UUID;
+
+public interface ArchivedBranchProjection {
+    UUID getBranchId();
+
+    /**
+     * false — отделение уже было в архиве и не изменялось.
+     */
+    Boolean getArchived();
+
+    String getName();
+
+    String getCityName();
+
+    String getStreetType();
+
+    String getStreet();
+
+    String getHouse();
+}
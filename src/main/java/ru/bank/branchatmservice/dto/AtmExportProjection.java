@@ -0,0 +1,47 @@
+package ru.bank.branchatmservice.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface AtmExportProjection {
+    UUID getId();
+
+    String getNumber();
+
+    String getInventoryNumber();
+
+    UUID getBranchId();
+
+    String getInstallationLocation();
+
+    String getConstruction();
+
+    Boolean getHasCashDeposit();
+
+    Boolean getHasNfc();
+
+    Boolean getIsClosed();
+
+    Boolean getIs24h();
+
+    String getCity();
+
+    String getStreetType();
+
+    String getStreet();
+
+    String getHouse();
+
+    String getFullAddress();
+
+    BigDecimal getLatitude();
+
+    BigDecimal getLongitude();
+
+    String getMetroStation();
+
+    /**
+     * График в виде "1 09:00-18:00;2 09:00-18:00", день недели 1 — пн, 7 — вс.
+     */
+    String getWorkSchedule();
+}
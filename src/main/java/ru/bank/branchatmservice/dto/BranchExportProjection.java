@@ -0,0 +1,43 @@
+package ru.bank.branchatmservice.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface BranchExportProjection {
+    UUID getId();
+
+    String getName();
+
+    String getBankNumber();
+
+    String getType();
+
+    String getPhoneNumber();
+
+    Boolean getHasCurrencyExchange();
+
+    Boolean getHasPandus();
+
+    Boolean getIsClosed();
+
+    String getCity();
+
+    String getStreetType();
+
+    String getStreet();
+
+    String getHouse();
+
+    String getFullAddress();
+
+    BigDecimal getLatitude();
+
+    BigDecimal getLongitude();
+
+    String getMetroStation();
+
+    /**
+     * График в виде "1 09:00-18:00;2 09:00-18:00", день недели 1 — пн, 7 — вс.
+     */
+    String getWorkSchedule();
+}
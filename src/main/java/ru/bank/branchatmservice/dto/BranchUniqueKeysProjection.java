@@ -0,0 +1,9 @@
+package ru.bank.branchatmservice.dto;
+
+public interface BranchUniqueKeysProjection {
+    String getName();
+
+    String getBankNumber();
+
+    String getPhoneNumber();
+}
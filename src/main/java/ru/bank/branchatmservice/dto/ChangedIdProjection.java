@@ -0,0 +1,9 @@
+package ru.bank.branchatmservice.dto;
+
+import java.util.UUID;
+
+public interface ChangedIdProjection {
+    UUID getId();
+
+    long getChangeVersion();
+}
@@ -0,0 +1,11 @@
+package ru.bank.branchatmservice.dto;
+
+import java.util.UUID;
+
+public interface DepartmentBranchProjection {
+    UUID getDepartmentId();
+
+    UUID getBranchId();
+
+    String getBranchName();
+}
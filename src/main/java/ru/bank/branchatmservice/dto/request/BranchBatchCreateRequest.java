@@ -0,0 +1,19 @@
+package ru.bank.branchatmservice.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import ru.bank.branchatmservice.dto.BranchCreateDto;
+
+import java.util.List;
+
+/**
+ * Элементы не валидируются через @Valid: ошибки полей возвращаются по каждому элементу в ответе.
+ */
+public record BranchBatchCreateRequest(
+        @NotEmpty(message = "Branches are required.")
+        @Size(max = 500, message = "No more than 500 branches per request.")
+        @Schema(description = "Отделения для добавления (не более 500)")
+        List<BranchCreateDto> branches
+) {
+}
@@ -0,0 +1,124 @@
+package ru.bank.branchatmservice.dto.request;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Sort;
+import ru.bank.branchatmservice.enums.FilterSortField;
+
+public record FilterPageRequest(
+        @Parameter(
+                name = "page",
+                in = ParameterIn.QUERY,
+                description = "Номер страницы, начиная с 0",
+                example = "0",
+                schema = @Schema(type = "integer")
+        )
+        Integer page,
+
+        @Parameter(
+                name = "size",
+                in = ParameterIn.QUERY,
+                description = "Размер страницы (по умолчанию 50, максимум 500)",
+                example = "50",
+                schema = @Schema(type = "integer")
+        )
+        Integer size,
+
+        @Parameter(
+                name = "sort",
+                in = ParameterIn.QUERY,
+                description = "Поле сортировки. Для DISTANCE обязательны latitude и longitude",
+                example = "CITY",
+                schema = @Schema(type = "string", allowableValues = {"CITY", "STREET", "NUMBER", "DISTANCE"})
+        )
+        FilterSortField sort,
+
+        @Parameter(
+                name = "direction",
+                in = ParameterIn.QUERY,
+                description = "Направление сортировки",
+                example = "ASC",
+                schema = @Schema(type = "string", allowableValues = {"ASC", "DESC"})
+        )
+        Sort.Direction direction,
+
+        @Parameter(
+                name = "latitude",
+                in = ParameterIn.QUERY,
+                description = "Широта точки для сортировки по расстоянию",
+                example = "55.7558",
+                schema = @Schema(type = "number")
+        )
+        Double latitude,
+
+        @Parameter(
+                name = "longitude",
+                in = ParameterIn.QUERY,
+                description = "Долгота точки для сортировки по расстоянию",
+                example = "37.6173",
+                schema = @Schema(type = "number")
+        )
+        Double longitude,
+
+        @Parameter(
+                name = "withCount",
+                in = ParameterIn.QUERY,
+                description = "Посчитать общее количество найденных записей (отдельный запрос)",
+                example = "false",
+                schema = @Schema(type = "boolean")
+        )
+        Boolean withCount
+) {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+    /**
+     * Дальше этого смещения БД пришлось бы пропускать слишком много строк: такие выборки нужно сужать фильтрами.
+     */
+    public static final int MAX_OFFSET = 100_000;
+
+    public static FilterPageRequest firstPage() {
+        return new FilterPageRequest(null, null, null, null, null, null, null);
+    }
+
+    public int pageNumber() {
+        if (page == null) return 0;
+        if (page < 0) {
+            throw new IllegalArgumentException("Номер страницы не может быть отрицательным");
+        }
+        return page;
+    }
+
+    public int pageSize() {
+        if (size == null) return DEFAULT_SIZE;
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть в диапазоне от 1 до " + MAX_SIZE);
+        }
+        return size;
+    }
+
+    /**
+     * Смещение первой записи страницы; страницы дальше {@link #MAX_OFFSET} не выдаются.
+     */
+    public int offset() {
+        long offset = (long) pageNumber() * pageSize();
+        if (offset > MAX_OFFSET) {
+            throw new IllegalArgumentException("Смещение страницы не может превышать " + MAX_OFFSET + " записей");
+        }
+        return (int) offset;
+    }
+
+    public boolean isDescending() {
+        return direction == Sort.Direction.DESC;
+    }
+
+    public boolean isCountRequested() {
+        return Boolean.TRUE.equals(withCount);
+    }
+
+    public void validateSort() {
+        if (sort == FilterSortField.DISTANCE && (latitude == null || longitude == null)) {
+            throw new IllegalArgumentException("Для сортировки по расстоянию необходимо указать latitude и longitude");
+        }
+    }
+}
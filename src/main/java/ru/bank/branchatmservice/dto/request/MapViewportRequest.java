@@ -0,0 +1,67 @@
+package ru.bank.branchatmservice.dto.request;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Schema;
+import ru.bank.branchatmservice.enums.EntityType;
+
+public record MapViewportRequest(
+        @Parameter(
+                name = "minLatitude",
+                in = ParameterIn.QUERY,
+                description = "Южная граница области просмотра",
+                required = true,
+                example = "55.70",
+                schema = @Schema(type = "number")
+        )
+        Double minLatitude,
+
+        @Parameter(
+                name = "minLongitude",
+                in = ParameterIn.QUERY,
+                description = "Западная граница области просмотра",
+                required = true,
+                example = "37.50",
+                schema = @Schema(type = "number")
+        )
+        Double minLongitude,
+
+        @Parameter(
+                name = "maxLatitude",
+                in = ParameterIn.QUERY,
+                description = "Северная граница области просмотра",
+                required = true,
+                example = "55.80",
+                schema = @Schema(type = "number")
+        )
+        Double maxLatitude,
+
+        @Parameter(
+                name = "maxLongitude",
+                in = ParameterIn.QUERY,
+                description = "Восточная граница области просмотра",
+                required = true,
+                example = "37.70",
+                schema = @Schema(type = "number")
+        )
+        Double maxLongitude,
+
+        @Parameter(
+                name = "zoom",
+                in = ParameterIn.QUERY,
+                description = "Масштаб карты (0 - 22)",
+                required = true,
+                example = "12",
+                schema = @Schema(type = "integer")
+        )
+        Integer zoom,
+
+        @Parameter(
+                name = "entityType",
+                in = ParameterIn.QUERY,
+                description = "Тип объектов на карте. Если не задан, возвращаются отделения и банкоматы",
+                example = "ATM",
+                schema = @Schema(type = "string", allowableValues = {"BRANCH", "ATM"})
+        )
+        EntityType entityType
+) {}
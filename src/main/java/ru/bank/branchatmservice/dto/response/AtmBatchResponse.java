@@ -0,0 +1,18 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import ru.bank.branchatmservice.dto.ATMFullDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Schema(description = "Информация о банкоматах по списку UUID")
+public record AtmBatchResponse(
+        @Schema(description = "Информация о найденных банкоматах по UUID в порядке запроса")
+        Map<UUID, ATMFullDto> atms,
+
+        @Schema(description = "UUID, для которых банкомат не найден")
+        List<UUID> notFound
+) {
+}
@@ -0,0 +1,34 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record AtmImportResponse(
+        @Schema(description = "Обработано строк с данными", example = "1200")
+        long processed,
+
+        @Schema(description = "Добавлено банкоматов", example = "1195")
+        long imported,
+
+        @Schema(description = "Строк с ошибками", example = "5")
+        long failed,
+
+        @Schema(description = "Ошибки по строкам файла")
+        List<RowError> errors,
+
+        @Schema(description = "Список ошибок неполный: показаны только первые", example = "false")
+        boolean errorsTruncated
+) {
+    public record RowError(
+            @Schema(description = "Номер строки файла", example = "17")
+            long line,
+
+            @Schema(description = "Номер банкомата из строки, если удалось прочитать", example = "1111")
+            String number,
+
+            @Schema(description = "Причина", example = "Отделение с номером 999 не найдено")
+            String message
+    ) {
+    }
+}
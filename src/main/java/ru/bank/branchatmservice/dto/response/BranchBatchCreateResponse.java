@@ -0,0 +1,30 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Результат пакетного добавления отделений")
+public record BranchBatchCreateResponse(
+        @Schema(description = "Добавлено отделений", example = "48")
+        int created,
+
+        @Schema(description = "Отклонено отделений", example = "2")
+        int failed,
+
+        @Schema(description = "Результаты в порядке запроса")
+        List<ItemResult> results
+) {
+    public record ItemResult(
+            @Schema(description = "Позиция отделения в запросе, с нуля", example = "0")
+            int index,
+
+            @Schema(description = "Идентификатор добавленного отделения; null, если отделение отклонено")
+            UUID branchId,
+
+            @Schema(description = "Причины отказа; пусто, если отделение добавлено")
+            List<String> errors
+    ) {
+    }
+}
@@ -0,0 +1,18 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Schema(description = "Названия отделений по списку UUID")
+public record BranchNamesResponse(
+        @Schema(description = "Названия найденных отделений по UUID",
+                example = "{\"bb2f1a60-6b13-45d8-b10a-316782389b3e\": \"ДО «ГУМ»\"}")
+        Map<UUID, String> branchNames,
+
+        @Schema(description = "UUID, для которых отделение не найдено")
+        List<UUID> notFound
+) {
+}
@@ -0,0 +1,45 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ChangeFeedResponse(
+        @Schema(description = "Версия, которую нужно передать в since при следующем запросе", example = "18342")
+        long version,
+
+        @Schema(description = "Есть ли еще изменения после возвращенной версии", example = "false")
+        boolean hasMore,
+
+        @Schema(description = "Измененные и добавленные отделения")
+        List<BranchChange> branches,
+
+        @Schema(description = "Измененные и добавленные банкоматы")
+        List<AtmChange> atms,
+
+        @Schema(description = "Идентификаторы отделений, закрытых (архивированных) после версии since")
+        List<UUID> archivedBranchIds,
+
+        @Schema(description = "Идентификаторы банкоматов, закрытых (удаленных) после версии since")
+        List<UUID> archivedAtmIds
+) {
+    public record BranchChange(
+            @Schema(description = "Версия изменения", example = "18301")
+            long version,
+
+            BranchListResponse branch
+    ) {
+    }
+
+    public record AtmChange(
+            @Schema(description = "UUID банкомата", example = "fc14fc78-c515-4256-84ac-924047d41211")
+            UUID id,
+
+            @Schema(description = "Версия изменения", example = "18342")
+            long version,
+
+            AtmFilterResponseDto atm
+    ) {
+    }
+}
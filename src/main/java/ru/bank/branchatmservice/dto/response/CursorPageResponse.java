@@ -0,0 +1,15 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+        @Schema(description = "Элементы страницы")
+        List<T> items,
+
+        @Schema(description = "Курсор следующей страницы; отсутствует на последней странице",
+                example = "3mE5p1wGQaK2Yx0V8nZs4A")
+        String nextCursor
+) {
+}
@@ -0,0 +1,23 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record FilterPageResponse<T>(
+        @Schema(description = "Элементы страницы")
+        List<T> items,
+
+        @Schema(description = "Номер страницы", example = "0")
+        int page,
+
+        @Schema(description = "Размер страницы", example = "50")
+        int size,
+
+        @Schema(description = "Есть ли следующая страница", example = "true")
+        boolean hasNext,
+
+        @Schema(description = "Общее количество найденных записей; заполняется, если запрошено withCount", example = "124")
+        Long totalElements
+) {
+}
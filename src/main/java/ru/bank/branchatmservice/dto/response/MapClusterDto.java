@@ -0,0 +1,32 @@
+package ru.bank.branchatmservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import ru.bank.branchatmservice.enums.EntityType;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MapClusterDto(
+        @Schema(description = "Широта точки или центра кластера", example = "55.7558")
+        double latitude,
+
+        @Schema(description = "Долгота точки или центра кластера", example = "37.6173")
+        double longitude,
+
+        @Schema(description = "Количество объектов в кластере", example = "12")
+        int count,
+
+        @Schema(description = "Количество банкоматов в кластере", example = "9")
+        int atmCount,
+
+        @Schema(description = "Количество отделений в кластере", example = "3")
+        int branchCount,
+
+        @Schema(description = "UUID объекта, если кластер состоит из одной точки",
+                example = "fc14fc78-c515-4256-84ac-924047d41211")
+        UUID id,
+
+        @Schema(description = "Тип объекта, если кластер состоит из одной точки", example = "ATM")
+        EntityType entityType
+) {}
@@ -0,0 +1,15 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record MapViewportResponse(
+        @Schema(description = "Кластеры или отдельные точки в области просмотра")
+        List<MapClusterDto> items,
+
+        @Schema(description = "Точек в области больше лимита и возвращена только часть: нужно увеличить масштаб",
+                example = "false")
+        boolean truncated
+) {
+}
@@ -0,0 +1,24 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+public record NearestAtmResponseDto(
+        @Schema(description = "UUID банкомата", example = "fc14fc78-c515-4256-84ac-924047d41211")
+        UUID id,
+
+        @Schema(description = "Широта", example = "55.7558")
+        double latitude,
+
+        @Schema(description = "Долгота", example = "37.6173")
+        double longitude,
+
+        @Schema(description = "Расстояние до банкомата в метрах", example = "350")
+        long distance,
+
+        @Schema(description = "Работает ли банкомат в текущий момент", example = "true")
+        boolean isOpen,
+
+        AtmFilterResponseDto atm
+) {}
@@ -0,0 +1,23 @@
+package ru.bank.branchatmservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import ru.bank.branchatmservice.enums.ChangeType;
+import ru.bank.branchatmservice.enums.EntityType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record StatusEventDto(
+        @Schema(description = "Тип объекта", example = "ATM")
+        EntityType entityType,
+
+        @Schema(description = "UUID отделения или банкомата", example = "fc14fc78-c515-4256-84ac-924047d41211")
+        UUID id,
+
+        @Schema(description = "Вид изменения", example = "CLOSED")
+        ChangeType type,
+
+        @Schema(description = "Время события", example = "2025-03-01T18:00:00")
+        LocalDateTime occurredAt
+) {
+}
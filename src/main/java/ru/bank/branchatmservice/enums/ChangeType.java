@@ -0,0 +1,13 @@
+package ru.bank.branchatmservice.enums;
+
+/**
+ * Вид изменения отделения или банкомата.
+ * OPENED и CLOSED — переход через границу графика работы, их формирует только наблюдатель за графиками.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    ARCHIVED,
+    OPENED,
+    CLOSED
+}
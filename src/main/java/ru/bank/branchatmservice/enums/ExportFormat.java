@@ -0,0 +1,46 @@
+package ru.bank.branchatmservice.enums;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+@Getter
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Неизвестный формат выгрузки: " + value + ". Допустимо: ndjson, csv");
+        }
+    }
+
+    /**
+     * Формат загружаемого файла по заголовку Content-Type (параметры вроде charset не учитываются).
+     */
+    public static ExportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+            for (ExportFormat format : values()) {
+                if (format.contentType.equals(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Неподдерживаемый тип содержимого: " + contentType
+                + ". Допустимо: application/x-ndjson, text/csv");
+    }
+}
@@ -0,0 +1,11 @@
+package ru.bank.branchatmservice.enums;
+
+/**
+ * Поле сортировки результатов поиска отделений и банкоматов по фильтру.
+ */
+public enum FilterSortField {
+    CITY,
+    STREET,
+    NUMBER,
+    DISTANCE
+}
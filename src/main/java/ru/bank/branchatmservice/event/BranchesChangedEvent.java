@@ -0,0 +1,13 @@
+package ru.bank.branchatmservice.event;
+
+import ru.bank.branchatmservice.enums.ChangeType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Событие об изменении отделений (создание, редактирование, архивация).
+ * Публикуется сервисами после записи и обрабатывается после коммита транзакции.
+ */
+public record BranchesChangedEvent(List<UUID> branchIds, ChangeType changeType) {
+}
@@ -0,0 +1,7 @@
+package ru.bank.branchatmservice.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.bank.branchatmservice.exception.BranchNotFoundException;
 import ru.bank.branchatmservice.exception.CityNotFoundException;
 import ru.bank.branchatmservice.exception.NotFoundException;
+import ru.bank.branchatmservice.exception.ServiceUnavailableException;
 
 import java.time.DateTimeException;
 import java.util.stream.Collectors;
@@ -69,7 +70,7 @@ public class GlobalExceptionHandler {
             CityNotFoundException.class
     })
     public ErrorResponseDto handleBadRequestsException(Exception e) {
-        log.error("Entity not found error: {}", e.getMessage(), e);
+        log.warn("Entity not found error: {}", e.getMessage());
         return new ErrorResponseDto("404 NOT FOUND", e.getMessage());
     }
 
@@ -79,4 +80,11 @@ public class GlobalExceptionHandler {
         log.warn(e.getMessage(), e);
         return new ErrorResponseDto("409 CONFLICT", e.getMessage());
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponseDto handleServiceUnavailableException(ServiceUnavailableException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponseDto("503 SERVICE UNAVAILABLE", e.getMessage());
+    }
 }
\ No newline at end of file
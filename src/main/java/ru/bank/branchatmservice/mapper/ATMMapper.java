@@ -5,6 +5,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import ru.bank.branchatmservice.dto.ATMFullDto;
+import ru.bank.branchatmservice.dto.ArchivedAtmProjection;
 import ru.bank.branchatmservice.dto.InfoAtmDto;
 import ru.bank.branchatmservice.dto.request.UpdateAtmInfoRequest;
 import ru.bank.branchatmservice.dto.request.AtmCreateDto;
@@ -31,11 +32,7 @@ public interface ATMMapper {
     @Mapping(target = "atmInfo.nfc",  source = "atm.hasNfc")
     ATMFullDto ofATMBranchAndWorkSchedule(ATM atm, Branch branchInfo, List<WorkSchedule> schedule);
 
-    @Mapping(target = "cityName", source = "address.city.name")
-    @Mapping(target = "streetType", source = "address.streetType")
-    @Mapping(target = "street", source = "address.street")
-    @Mapping(target = "house", source = "address.house")
-    InfoAtmDto toInfoAtmDto(ATM atm);
+    InfoAtmDto toInfoAtmDto(ArchivedAtmProjection atm);
 
     @Mapping(target = "atmInfo.inventoryNumber",  source = "atm.inventoryNumber")
     @Mapping(target = "atmInfo.construction",  source = "atm.construction")
@@ -60,6 +57,9 @@ public interface ATMMapper {
     @Mapping(target = "branch", ignore = true)
     @Mapping(target = "isClosed", ignore = true)
     @Mapping(target = "workSchedule", ignore = true)
+    @Mapping(target = "alwaysOpen", ignore = true)
+    @Mapping(target = "openDays", ignore = true)
+    @Mapping(target = "changeVersion", ignore = true)
     ATM toATM(AtmCreateDto atmCreateDto);
 
     @Mapping(target = "inventoryNumber", source = "atmInfo.inventoryNumber")
@@ -75,6 +75,9 @@ public interface ATMMapper {
     @Mapping(target = "address.longitude", source = "addressInfo.longitude")
     @Mapping(target = "address.metroStation", source = "addressInfo.metroStation")
     @Mapping(target = "branch.bankNumber", source = "branchInfo.bankNumber")
+    @Mapping(target = "alwaysOpen", ignore = true)
+    @Mapping(target = "openDays", ignore = true)
+    @Mapping(target = "changeVersion", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = IGNORE)
     ATM toATM(UpdateAtmInfoRequest atmDto, @MappingTarget ATM atm);
 }
@@ -2,6 +2,7 @@ package ru.bank.branchatmservice.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import ru.bank.branchatmservice.dto.ArchivedBranchProjection;
 import ru.bank.branchatmservice.dto.BranchCreateInfoDto;
 import ru.bank.branchatmservice.dto.BranchDto;
 import ru.bank.branchatmservice.dto.BranchFullDto;
@@ -40,6 +41,7 @@ public interface BranchMapper {
     BranchDtoView toBranchDtoView(Branch branch);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "changeVersion", ignore = true)
     @Mapping(target = "address", source = "address", qualifiedByName = "toAddressFromAddressFullInfoDto")
     Branch ofBranchCreateDto(BranchCreateInfoDto branch, AddressFullInfoDto address, Boolean isClosed);
 
@@ -50,6 +52,9 @@ public interface BranchMapper {
     List<BranchListResponse> ofBranches(List<Branch> branches);
 
 
-    @Mapping(target = "branchId", source = "id")
-    ArchiveBranchResponse.ArchiveBranchesDto toArchiveBranchResponse(Branch branch);
+    @Mapping(target = "address.cityName", source = "cityName", qualifiedByName = "cityPrefix")
+    @Mapping(target = "address.streetType", source = "streetType")
+    @Mapping(target = "address.street", source = "street")
+    @Mapping(target = "address.house", source = "house", qualifiedByName = "housePrefix")
+    ArchiveBranchResponse.ArchiveBranchesDto toArchiveBranchResponse(ArchivedBranchProjection branch);
 }
\ No newline at end of file
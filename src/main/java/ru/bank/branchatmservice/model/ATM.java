@@ -17,6 +17,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLRestriction;
 
 import java.util.List;
@@ -65,8 +68,20 @@ public class ATM {
     @Column(name = "is_closed")
     private boolean isClosed;
 
-    @OneToMany(fetch = FetchType.EAGER)
+    @Column(name = "is_24h")
+    private boolean alwaysOpen;
+
+    @Column(name = "open_days")
+    private short openDays;
+
+    @Column(name = "change_version", insertable = false, updatable = false)
+    private long changeVersion;
+
+    @OneToMany(fetch = FetchType.LAZY)
     @JoinColumn(name = "entity_id", updatable = false, insertable = false)
     @SQLRestriction("entity_type = 'ATM'")
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "atm.workSchedule")
+    @ToString.Exclude
     private List<WorkSchedule> workSchedule;
 }
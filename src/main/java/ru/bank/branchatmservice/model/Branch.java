@@ -18,6 +18,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLRestriction;
 import ru.bank.branchatmservice.enums.BranchType;
 
@@ -63,8 +66,14 @@ public class Branch {
     @Column(name = "type", nullable = false)
     private BranchType type;
 
-    @OneToMany(fetch = FetchType.EAGER)
+    @Column(name = "change_version", insertable = false, updatable = false)
+    private long changeVersion;
+
+    @OneToMany(fetch = FetchType.LAZY)
     @JoinColumn(name = "entity_id", updatable = false, insertable = false)
     @SQLRestriction("entity_type = 'BRANCH'")
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "branch.workSchedule")
+    @ToString.Exclude
     private List<WorkSchedule> workSchedule;
 }
\ No newline at end of file
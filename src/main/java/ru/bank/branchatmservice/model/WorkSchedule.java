@@ -1,5 +1,6 @@
 package ru.bank.branchatmservice.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -14,6 +15,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.bank.branchatmservice.enums.EntityType;
 import ru.bank.branchatmservice.enums.WeekDay;
 
@@ -21,6 +24,8 @@ import java.time.LocalTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "workSchedule")
 @Setter
 @Getter
 @ToString
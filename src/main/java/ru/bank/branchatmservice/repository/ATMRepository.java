@@ -1,34 +1,73 @@
 package ru.bank.branchatmservice.repository;
 
 import jakarta.annotation.Nonnull;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.bank.branchatmservice.dto.ArchivedAtmProjection;
+import ru.bank.branchatmservice.dto.AtmExportProjection;
+import ru.bank.branchatmservice.dto.ChangedIdProjection;
 import ru.bank.branchatmservice.model.ATM;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ATMRepository extends JpaRepository<ATM, UUID>, JpaSpecificationExecutor<ATM> {
 
-    @Modifying
+    /**
+     * Архивирует банкоматы и одним запросом возвращает данные для ответа: UPDATE в CTE,
+     * адрес и город присоединяются в том же SELECT, сущности не загружаются.
+     * Запрос читает результат, поэтому без @Modifying; транзакция на запись нужна явно.
+     */
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "atm"))
     @Query(value = """
-            UPDATE atm SET is_closed = true 
-            WHERE id IN (:ids) 
-            RETURNING *
+            WITH archived AS (
+                UPDATE atm SET is_closed = true
+                WHERE id IN (:ids)
+                RETURNING id, inventory_number, address_id
+            )
+            SELECT
+                a.id AS "id",
+                a.inventory_number AS "inventoryNumber",
+                c.name AS "cityName",
+                ad.street_type AS "streetType",
+                ad.street AS "street",
+                ad.house AS "house"
+            FROM archived a
+            LEFT JOIN address ad ON ad.id = a.address_id
+            LEFT JOIN city c ON c.id = ad.city_id
             """,
             nativeQuery = true)
-    List<ATM> softDeleteByAtmIds(@Param("ids") List<UUID> ids);
+    List<ArchivedAtmProjection> softDeleteByAtmIds(@Param("ids") List<UUID> ids);
+
+    @EntityGraph(attributePaths = {"branch", "address", "address.city", "workSchedule"})
+    Optional<ATM> findWithWorkScheduleById(UUID id);
+
+    @EntityGraph(attributePaths = {"branch", "branch.address", "branch.address.city", "address", "address.city"})
+    List<ATM> findAllWithBranchByIdIn(Collection<UUID> ids);
 
     Optional<ATM> findByIdAndIsClosedFalse(UUID id);
 
     boolean existsByNumber(String number);
 
+    @Query("SELECT a.number FROM ATM a WHERE a.number IN (:numbers)")
+    List<String> findNumbersIn(@Param("numbers") Collection<String> numbers);
+
+    @Query("SELECT a.inventoryNumber FROM ATM a WHERE a.inventoryNumber IN (:inventoryNumbers)")
+    List<String> findInventoryNumbersIn(@Param("inventoryNumbers") Collection<String> inventoryNumbers);
+
     @Nonnull
     @EntityGraph(attributePaths = {"address", "address.city", "workSchedule"})
     List<ATM> findAll();
@@ -36,4 +75,60 @@ public interface ATMRepository extends JpaRepository<ATM, UUID>, JpaSpecificatio
     @Nonnull
     @EntityGraph(attributePaths = {"address", "address.city", "workSchedule"})
     List<ATM> findAll(@Nonnull Specification<ATM> spec);
+
+    @EntityGraph(attributePaths = {"address", "address.city", "workSchedule"})
+    List<ATM> findAllByIdIn(Collection<UUID> ids);
+
+    @Query("SELECT a.id FROM ATM a ORDER BY a.id")
+    List<UUID> findPageIds(Limit limit);
+
+    @Query("SELECT a.id FROM ATM a WHERE a.id > :afterId ORDER BY a.id")
+    List<UUID> findPageIdsAfter(@Param("afterId") UUID afterId, Limit limit);
+
+    @Query("""
+            SELECT a.id AS id, a.changeVersion AS changeVersion
+            FROM ATM a
+            WHERE a.changeVersion > :since AND a.changeVersion < :horizon
+            ORDER BY a.changeVersion, a.id
+            """)
+    List<ChangedIdProjection> findIdsChangedSince(@Param("since") long since, @Param("horizon") long horizon, Limit limit);
+
+    @Query("SELECT a.id FROM ATM a WHERE a.changeVersion = :version ORDER BY a.id")
+    List<UUID> findIdsWithChangeVersion(@Param("version") long version);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = """
+            SELECT
+                a.id AS "id",
+                a.number AS "number",
+                a.inventory_number AS "inventoryNumber",
+                a.branch_id AS "branchId",
+                a.installation_location AS "installationLocation",
+                a.construction AS "construction",
+                a.has_cash_deposit AS "hasCashDeposit",
+                a.has_nfc AS "hasNfc",
+                a.is_closed AS "isClosed",
+                a.is_24h AS "is24h",
+                c.name AS "city",
+                ad.street_type AS "streetType",
+                ad.street AS "street",
+                ad.house AS "house",
+                ad.full_address AS "fullAddress",
+                ad.latitude AS "latitude",
+                ad.longitude AS "longitude",
+                ad.metro_station AS "metroStation",
+                (SELECT string_agg(ws.week_day || ' ' || to_char(ws.opening_time, 'HH24:MI')
+                                       || '-' || to_char(ws.closing_time, 'HH24:MI'),
+                                   ';' ORDER BY ws.week_day, ws.opening_time)
+                 FROM work_schedule ws
+                 WHERE ws.entity_type = 'ATM' AND ws.entity_id = a.id) AS "workSchedule"
+            FROM atm a
+            LEFT JOIN address ad ON ad.id = a.address_id
+            LEFT JOIN city c ON c.id = ad.city_id
+            ORDER BY a.id
+            """, nativeQuery = true)
+    Stream<AtmExportProjection> streamAllForExport();
 }
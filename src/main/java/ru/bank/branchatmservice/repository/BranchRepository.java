@@ -1,21 +1,31 @@
 package ru.bank.branchatmservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.bank.branchatmservice.dto.ArchivedBranchProjection;
+import ru.bank.branchatmservice.dto.BranchExportProjection;
 import ru.bank.branchatmservice.dto.BranchShortDtoProjection;
-import ru.bank.branchatmservice.dto.response.BranchBankNumberDTO;
+import ru.bank.branchatmservice.dto.BranchUniqueKeysProjection;
+import ru.bank.branchatmservice.dto.ChangedIdProjection;
+import ru.bank.branchatmservice.dto.DepartmentBranchProjection;
 import ru.bank.branchatmservice.dto.response.BranchNameResponse;
 import ru.bank.branchatmservice.model.Branch;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BranchRepository extends JpaRepository<Branch, UUID>, JpaSpecificationExecutor<Branch> {
@@ -25,15 +35,29 @@ public interface BranchRepository extends JpaRepository<Branch, UUID>, JpaSpecif
             "WHERE b.bankNumber = :bankNumber")
     Optional<Branch> findByBankNumber(@Param("bankNumber") String bankNumber);
 
+    @EntityGraph(attributePaths = {"address", "address.city", "workSchedule"})
+    Optional<Branch> findWithWorkScheduleById(UUID id);
+
+    @Query(value = """
+            SELECT
+                bd.department_id AS "departmentId",
+                b.id AS "branchId",
+                b.name AS "branchName"
+            FROM branch b
+            INNER JOIN branch_department bd ON b.id = bd.branch_id
+            """, nativeQuery = true)
+    List<DepartmentBranchProjection> findAllDepartmentLinks();
+
     @Query(value = """
             SELECT
-                b.id AS id,
-                b.name AS name
+                bd.department_id AS "departmentId",
+                b.id AS "branchId",
+                b.name AS "branchName"
             FROM branch b
             INNER JOIN branch_department bd ON b.id = bd.branch_id
-            WHERE bd.department_id = :departmentId
+            WHERE b.id IN (:branchIds)
             """, nativeQuery = true)
-    List<BranchShortDtoProjection> findBranchesByDepartmentId(@Param("departmentId") UUID departmentId);
+    List<DepartmentBranchProjection> findDepartmentLinksByBranchIds(@Param("branchIds") List<UUID> branchIds);
 
     @Query(value = """
             SELECT new ru.bank.branchatmservice.dto.response.BranchNameResponse(b.name)
@@ -42,14 +66,83 @@ public interface BranchRepository extends JpaRepository<Branch, UUID>, JpaSpecif
             """)
     Optional<BranchNameResponse> getBranchNameByBranchId(UUID bankBranchId);
 
-    @Query("SELECT new ru.bank.branchatmservice.dto.response.BranchBankNumberDTO(b.bankNumber) FROM Branch b WHERE b.bankNumber LIKE :bankNumber%")
-    List<BranchBankNumberDTO> findBankNumberDTOsByPrefix(@Param("bankNumber") String bankNumber);
+    @Query("SELECT b.id AS id, b.name AS name FROM Branch b WHERE b.id IN (:branchIds)")
+    List<BranchShortDtoProjection> findNamesByIdIn(@Param("branchIds") Collection<UUID> branchIds);
 
-    boolean existsByPhoneNumber(String phoneNumber);
+    @Query("""
+            SELECT b.id AS id, b.changeVersion AS changeVersion
+            FROM Branch b
+            WHERE b.changeVersion > :since AND b.changeVersion < :horizon
+            ORDER BY b.changeVersion, b.id
+            """)
+    List<ChangedIdProjection> findIdsChangedSince(@Param("since") long since, @Param("horizon") long horizon, Limit limit);
 
-    boolean existsByBankNumber(String bankNumber);
+    @Query("SELECT b.id FROM Branch b WHERE b.changeVersion = :version ORDER BY b.id")
+    List<UUID> findIdsWithChangeVersion(@Param("version") long version);
 
-    boolean existsByName(String name);
+    /**
+     * Горизонт ленты изменений: транзакции с версией ниже него уже завершены.
+     */
+    @Query(value = "SELECT change_version_horizon()", nativeQuery = true)
+    long findChangeVersionHorizon();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = """
+            SELECT
+                b.id AS "id",
+                b.name AS "name",
+                b.bank_number AS "bankNumber",
+                b.type AS "type",
+                b.phone_number AS "phoneNumber",
+                b.has_currency_exchange AS "hasCurrencyExchange",
+                b.has_pandus AS "hasPandus",
+                b.is_closed AS "isClosed",
+                c.name AS "city",
+                ad.street_type AS "streetType",
+                ad.street AS "street",
+                ad.house AS "house",
+                ad.full_address AS "fullAddress",
+                ad.latitude AS "latitude",
+                ad.longitude AS "longitude",
+                ad.metro_station AS "metroStation",
+                (SELECT string_agg(ws.week_day || ' ' || to_char(ws.opening_time, 'HH24:MI')
+                                       || '-' || to_char(ws.closing_time, 'HH24:MI'),
+                                   ';' ORDER BY ws.week_day, ws.opening_time)
+                 FROM work_schedule ws
+                 WHERE ws.entity_type = 'BRANCH' AND ws.entity_id = b.id) AS "workSchedule"
+            FROM branch b
+            LEFT JOIN address ad ON ad.id = b.address_id
+            LEFT JOIN city c ON c.id = ad.city_id
+            ORDER BY b.id
+            """, nativeQuery = true)
+    Stream<BranchExportProjection> streamAllForExport();
+
+    /**
+     * Отделения, совпадающие с одним из значений по имени, номеру или телефону, одним запросом.
+     * {@code excludedBranchId} — изменяемое отделение, которое не учитывается; null при создании.
+     */
+    @Query("""
+            SELECT b.name AS name, b.bankNumber AS bankNumber, b.phoneNumber AS phoneNumber
+            FROM Branch b
+            WHERE (b.name = :name OR b.bankNumber = :bankNumber OR b.phoneNumber = :phoneNumber)
+              AND (:excludedBranchId IS NULL OR b.id <> :excludedBranchId)
+            """)
+    List<BranchUniqueKeysProjection> findConflicting(@Param("excludedBranchId") UUID excludedBranchId,
+                                                     @Param("name") String name,
+                                                     @Param("bankNumber") String bankNumber,
+                                                     @Param("phoneNumber") String phoneNumber);
+
+    @Query("""
+            SELECT b.name AS name, b.bankNumber AS bankNumber, b.phoneNumber AS phoneNumber
+            FROM Branch b
+            WHERE b.name IN (:names) OR b.bankNumber IN (:bankNumbers) OR b.phoneNumber IN (:phoneNumbers)
+            """)
+    List<BranchUniqueKeysProjection> findConflicting(@Param("names") Collection<String> names,
+                                                     @Param("bankNumbers") Collection<String> bankNumbers,
+                                                     @Param("phoneNumbers") Collection<String> phoneNumbers);
 
     @Query("""
         SELECT b FROM Branch b
@@ -60,18 +153,50 @@ public interface BranchRepository extends JpaRepository<Branch, UUID>, JpaSpecif
         """)
     List<Branch> findAllWithAddress();
 
-    @Query(value = """ 
-            SELECT b FROM Branch b
-            JOIN FETCH b.address a
-            JOIN FETCH a.city c
-            WHERE b.id IN (:bankBranchIds)
-            """)
-    Optional<List<Branch>> findAllByBranchId(@Param("bankBranchIds") List<UUID> bankBranchIds);
+    @Query("""
+        SELECT b FROM Branch b
+        JOIN FETCH b.address a
+        JOIN FETCH a.city c
+        JOIN FETCH c.location
+        LEFT JOIN FETCH b.workSchedule ws
+        WHERE b.id IN (:branchIds)
+        """)
+    List<Branch> findAllWithAddressByIds(@Param("branchIds") List<UUID> branchIds);
+
+    /**
+     * Архивирует открытые отделения из списка одним UPDATE и в том же запросе возвращает строку
+     * по каждому существующему id: archived = false у отделений, которые уже были в архиве.
+     * Внешний SELECT видит снимок до UPDATE, поэтому имя и адрес есть у обоих вариантов.
+     * Id, для которых строки нет, не существуют.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "branch"))
+    @Query(value = """
+            WITH archived AS (
+                UPDATE branch SET is_closed = true
+                WHERE id IN (:branchIds) AND NOT is_closed
+                RETURNING id
+            )
+            SELECT
+                b.id AS "branchId",
+                a.id IS NOT NULL AS "archived",
+                b.name AS "name",
+                c.name AS "cityName",
+                ad.street_type AS "streetType",
+                ad.street AS "street",
+                ad.house AS "house"
+            FROM branch b
+            LEFT JOIN archived a ON a.id = b.id
+            LEFT JOIN address ad ON ad.id = b.address_id
+            LEFT JOIN city c ON c.id = ad.city_id
+            WHERE b.id IN (:branchIds)
+            """, nativeQuery = true)
+    List<ArchivedBranchProjection> archiveByIds(@Param("branchIds") Collection<UUID> branchIds);
 
     @EntityGraph(attributePaths = {"address", "address.city", "workSchedule"})
     List<Branch> findAll(Specification<Branch> spec);
 
     @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "branch_department"))
     @Query(value = """
                 INSERT INTO branch_department (branch_id, department_id)
                 VALUES (:branchId, :departmentId)
@@ -1,11 +1,30 @@
 package ru.bank.branchatmservice.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.bank.branchatmservice.model.City;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Справочник городов меняется редко. Сами города кэшируются только регионом второго уровня Hibernate "city"
+ * (findById), а кэш Spring (Caffeine, см. spring.cache) хранит неизменяемое соответствие имени и id:
+ * общий для потоков экземпляр изменяемой сущности в нем не хранится. Отсутствующий город тоже кэшируется
+ * (null до истечения TTL); сбросить кэш после правки справочника в обход приложения — DELETE /actuator/caches.
+ */
 public interface CityRepository extends JpaRepository<City, UUID> {
+    String CITY_IDS_BY_NAME_CACHE = "cityIdsByName";
+
     Optional<City> findByName(String name);
+
+    @Cacheable(CITY_IDS_BY_NAME_CACHE)
+    @Query("SELECT c.id FROM City c WHERE c.name = :name")
+    Optional<UUID> findIdByName(@Param("name") String name);
+
+    List<City> findByNameIn(Collection<String> names);
 }
@@ -0,0 +1,84 @@
+package ru.bank.branchatmservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Выборка идентификаторов страницы результатов поиска по спецификации.
+ * В запросе нет fetch join коллекций, поэтому сортировка, OFFSET и LIMIT выполняются в БД,
+ * а сущности со связями загружаются отдельным запросом только для идентификаторов страницы.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FilterPageQuery {
+    private final EntityManager entityManager;
+
+    /**
+     * @param numberAttribute атрибут сущности, по которому сортирует {@code NUMBER}
+     */
+    public <T> List<UUID> findIds(Class<T> entityType, Specification<T> spec, FilterPageRequest pageRequest,
+                                  String numberAttribute, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<T> root = query.from(entityType);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id"));
+        query.orderBy(toOrders(root, cb, pageRequest, numberAttribute));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private <T> List<Order> toOrders(Root<T> root, CriteriaBuilder cb,
+                                     FilterPageRequest pageRequest, String numberAttribute) {
+        List<Order> orders = new ArrayList<>(2);
+        if (pageRequest.sort() != null) {
+            Expression<?> key = switch (pageRequest.sort()) {
+                case CITY -> root.join("address", JoinType.LEFT).join("city", JoinType.LEFT).get("name");
+                case STREET -> root.join("address", JoinType.LEFT).get("street");
+                case NUMBER -> root.get(numberAttribute);
+                case DISTANCE -> distance(root.join("address", JoinType.LEFT), cb,
+                        pageRequest.latitude(), pageRequest.longitude());
+            };
+            orders.add(pageRequest.isDescending() ? cb.desc(key) : cb.asc(key));
+        }
+        // уникальный ключ в конце делает порядок страниц детерминированным
+        orders.add(cb.asc(root.get("id")));
+        return orders;
+    }
+
+    /**
+     * Квадрат расстояния в градусах в равнопромежуточной проекции: для сортировки на масштабах города
+     * порядок совпадает с порядком по расстоянию на сфере, а выражение не требует PostGIS.
+     */
+    private Expression<Double> distance(Join<?, ?> address, CriteriaBuilder cb, double latitude, double longitude) {
+        Expression<Double> deltaLatitude = cb.diff(address.get("latitude").as(Double.class), latitude);
+        Expression<Double> deltaLongitude = cb.diff(address.get("longitude").as(Double.class), longitude);
+        double longitudeScale = Math.pow(Math.cos(Math.toRadians(latitude)), 2);
+        return cb.sum(
+                cb.prod(deltaLatitude, deltaLatitude),
+                cb.prod(cb.prod(deltaLongitude, deltaLongitude), longitudeScale)
+        );
+    }
+}
@@ -0,0 +1,111 @@
+package ru.bank.branchatmservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.bank.branchatmservice.model.ATM;
+import ru.bank.branchatmservice.model.Address;
+import ru.bank.branchatmservice.model.Branch;
+import ru.bank.branchatmservice.model.WorkSchedule;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Пакетная вставка отделений, банкоматов, адресов и графиков через JDBC batch, минуя контекст персистентности.
+ * Идентификаторы должны быть заполнены заранее; change_version выставляют триггеры БД.
+ * Кэш второго уровня не затрагивается: новые строки в нем еще не закэшированы.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcBatchWriter {
+    static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAddresses(List<Address> addresses) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO address (id, city_id, street_type, street, house, latitude, longitude,
+                                             metro_station, full_address)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                addresses, BATCH_SIZE, (ps, address) -> {
+                    ps.setObject(1, address.getId());
+                    ps.setObject(2, address.getCity().getId());
+                    ps.setString(3, address.getStreetType());
+                    ps.setString(4, address.getStreet());
+                    ps.setString(5, address.getHouse());
+                    ps.setBigDecimal(6, address.getLatitude());
+                    ps.setBigDecimal(7, address.getLongitude());
+                    ps.setString(8, address.getMetroStation());
+                    ps.setString(9, address.getFullAddress());
+                });
+    }
+
+    public void insertAtms(List<ATM> atms) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO atm (id, branch_id, address_id, number, inventory_number, installation_location,
+                                         construction, has_cash_deposit, has_nfc, is_closed, is_24h, open_days)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                atms, BATCH_SIZE, (ps, atm) -> {
+                    ps.setObject(1, atm.getId());
+                    ps.setObject(2, atm.getBranch().getId());
+                    ps.setObject(3, atm.getAddress().getId());
+                    ps.setString(4, atm.getNumber());
+                    ps.setString(5, atm.getInventoryNumber());
+                    ps.setString(6, atm.getInstallationLocation());
+                    ps.setString(7, atm.getConstruction());
+                    ps.setBoolean(8, atm.isHasCashDeposit());
+                    ps.setBoolean(9, atm.isHasNfc());
+                    ps.setBoolean(10, atm.isClosed());
+                    ps.setBoolean(11, atm.isAlwaysOpen());
+                    ps.setShort(12, atm.getOpenDays());
+                });
+    }
+
+    public void insertBranches(List<Branch> branches) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO branch (id, name, bank_number, address_id, has_currency_exchange, phone_number,
+                                            has_pandus, is_closed, type)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                branches, BATCH_SIZE, (ps, branch) -> {
+                    ps.setObject(1, branch.getId());
+                    ps.setString(2, branch.getName());
+                    ps.setString(3, branch.getBankNumber());
+                    ps.setObject(4, branch.getAddress().getId());
+                    ps.setBoolean(5, branch.isHasCurrencyExchange());
+                    ps.setString(6, branch.getPhoneNumber());
+                    ps.setBoolean(7, branch.isHasPandus());
+                    ps.setBoolean(8, branch.isClosed());
+                    ps.setString(9, branch.getType().name());
+                });
+    }
+
+    /**
+     * Связи отделение — отдел; {@code links} — пары {branchId, departmentId}.
+     */
+    public void insertBranchDepartments(List<UUID[]> links) {
+        jdbcTemplate.batchUpdate("INSERT INTO branch_department (branch_id, department_id) VALUES (?, ?)",
+                links, BATCH_SIZE, (ps, link) -> {
+                    ps.setObject(1, link[0]);
+                    ps.setObject(2, link[1]);
+                });
+    }
+
+    public void insertWorkSchedules(List<WorkSchedule> schedules) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO work_schedule (id, entity_type, entity_id, week_day, opening_time, closing_time)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        """,
+                schedules, BATCH_SIZE, (ps, schedule) -> {
+                    ps.setObject(1, schedule.getId());
+                    ps.setString(2, schedule.getEntityType().name());
+                    ps.setObject(3, schedule.getEntityId());
+                    ps.setInt(4, schedule.getWeekDay().getDayNumber());
+                    ps.setObject(5, schedule.getOpeningTime());
+                    ps.setObject(6, schedule.getClosingTime());
+                });
+    }
+}
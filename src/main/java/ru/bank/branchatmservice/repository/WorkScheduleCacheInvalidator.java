@@ -0,0 +1,54 @@
+package ru.bank.branchatmservice.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.bank.branchatmservice.event.AtmsChangedEvent;
+import ru.bank.branchatmservice.event.BranchesChangedEvent;
+import ru.bank.branchatmservice.model.ATM;
+import ru.bank.branchatmservice.model.Branch;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Сброс кэшированных коллекций workSchedule после коммита изменений.
+ * Графики пишутся напрямую через WorkScheduleRepository, владелец коллекции при этом не меняется,
+ * поэтому Hibernate сам не инвалидирует регионы branch.workSchedule и atm.workSchedule.
+ * Выполняется раньше перезагрузки каталогов, чтобы они читали уже свежие графики
+ * (порядок слушателей-методов задается аннотацией на методе, а не на классе).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkScheduleCacheInvalidator {
+    static final String BRANCH_SCHEDULE_ROLE = Branch.class.getName() + ".workSchedule";
+    static final String ATM_SCHEDULE_ROLE = ATM.class.getName() + ".workSchedule";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onBranchesChanged(BranchesChangedEvent event) {
+        evict(BRANCH_SCHEDULE_ROLE, event.branchIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onAtmsChanged(AtmsChangedEvent event) {
+        evict(ATM_SCHEDULE_ROLE, event.atmIds());
+    }
+
+    private void evict(String role, List<UUID> ownerIds) {
+        if (ownerIds == null || ownerIds.isEmpty()) return;
+
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        ownerIds.forEach(id -> cache.evictCollectionData(role, id));
+        log.debug("Сброшен кэш графиков {} для {} владельцев", role, ownerIds.size());
+    }
+}
@@ -1,15 +1,85 @@
 package ru.bank.branchatmservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.bank.branchatmservice.enums.EntityType;
 import ru.bank.branchatmservice.model.WorkSchedule;
 
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface WorkScheduleRepository extends JpaRepository<WorkSchedule, UUID>, JpaSpecificationExecutor<WorkSchedule> {
     List<WorkSchedule> findAllByEntityIdAndEntityType(UUID entityId, EntityType entityType);
 
-    void deleteAllByEntityIdAndEntityType(UUID atmId, EntityType entityType);
+    /**
+     * Вставка или изменение интервала дня по ключу (entity_type, entity_id, week_day).
+     * У существующей строки id сохраняется; если время не изменилось, строка не трогается.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "work_schedule"))
+    @Query(value = """
+            INSERT INTO work_schedule (id, entity_type, entity_id, week_day, opening_time, closing_time)
+            VALUES (:id, :entityType, :entityId, :weekDay, :openingTime, :closingTime)
+            ON CONFLICT (entity_type, entity_id, week_day) DO UPDATE
+            SET opening_time = EXCLUDED.opening_time,
+                closing_time = EXCLUDED.closing_time
+            WHERE (work_schedule.opening_time, work_schedule.closing_time)
+                IS DISTINCT FROM (EXCLUDED.opening_time, EXCLUDED.closing_time)
+            """, nativeQuery = true)
+    void upsertDay(@Param("id") UUID id,
+                   @Param("entityType") String entityType,
+                   @Param("entityId") UUID entityId,
+                   @Param("weekDay") int weekDay,
+                   @Param("openingTime") LocalTime openingTime,
+                   @Param("closingTime") LocalTime closingTime);
+
+    /**
+     * Приводит график владельца к переданному одним запросом. {@code days} — JSON-массив
+     * {@code [{"weekDay":1,"openingTime":"09:00","closingTime":"18:00"}, ...]} с полным итоговым графиком:
+     * дни, которых в нем нет, удаляются, остальные вставляются или обновляются по (entity_type, entity_id, week_day).
+     * Неизмененные строки не переписываются, id существующих строк сохраняются.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "work_schedule"))
+    @Query(value = """
+            WITH days AS (
+                SELECT d."weekDay" AS week_day, d."openingTime" AS opening_time, d."closingTime" AS closing_time
+                FROM jsonb_to_recordset(CAST(:days AS jsonb))
+                    AS d("weekDay" SMALLINT, "openingTime" TIME, "closingTime" TIME)
+            ),
+            removed AS (
+                DELETE FROM work_schedule ws
+                WHERE ws.entity_type = :entityType AND ws.entity_id = :entityId
+                  AND NOT EXISTS (SELECT 1 FROM days WHERE days.week_day = ws.week_day)
+            )
+            INSERT INTO work_schedule (id, entity_type, entity_id, week_day, opening_time, closing_time)
+            SELECT gen_random_uuid(), :entityType, :entityId, days.week_day, days.opening_time, days.closing_time
+            FROM days
+            ON CONFLICT (entity_type, entity_id, week_day) DO UPDATE
+            SET opening_time = EXCLUDED.opening_time,
+                closing_time = EXCLUDED.closing_time
+            WHERE (work_schedule.opening_time, work_schedule.closing_time)
+                IS DISTINCT FROM (EXCLUDED.opening_time, EXCLUDED.closing_time)
+            """, nativeQuery = true)
+    void mergeDays(@Param("entityType") String entityType,
+                   @Param("entityId") UUID entityId,
+                   @Param("days") String days);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "work_schedule"))
+    @Query(value = """
+            DELETE FROM work_schedule
+            WHERE entity_type = :entityType AND entity_id = :entityId AND week_day IN (:weekDays)
+            """, nativeQuery = true)
+    void deleteDays(@Param("entityType") String entityType,
+                    @Param("entityId") UUID entityId,
+                    @Param("weekDays") Collection<Integer> weekDays);
 }
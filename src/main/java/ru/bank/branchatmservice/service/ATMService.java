@@ -3,17 +3,33 @@ package ru.bank.branchatmservice.service;
 import jakarta.persistence.EntityExistsException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.bank.branchatmservice.catalog.AtmCatalog;
+import ru.bank.branchatmservice.catalog.AtmCatalogEntry;
+import ru.bank.branchatmservice.catalog.AtmCatalogSnapshot;
+import ru.bank.branchatmservice.catalog.SpatialGrid;
 import ru.bank.branchatmservice.dto.ATMFullDto;
+import ru.bank.branchatmservice.dto.ArchivedAtmProjection;
 import ru.bank.branchatmservice.dto.InfoAtmDto;
 import ru.bank.branchatmservice.dto.request.AtmFilterDto;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
 import ru.bank.branchatmservice.dto.request.UpdateAtmInfoRequest;
+import ru.bank.branchatmservice.dto.response.AtmBatchResponse;
 import ru.bank.branchatmservice.dto.response.AtmFilterResponseDto;
+import ru.bank.branchatmservice.dto.response.CursorPageResponse;
+import ru.bank.branchatmservice.dto.response.FilterPageResponse;
+import ru.bank.branchatmservice.enums.ChangeType;
 import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.enums.WeekDay;
 import ru.bank.branchatmservice.dto.response.InfoDeletionArchivingAtmResponse;
+import ru.bank.branchatmservice.dto.response.NearestAtmResponseDto;
 import ru.bank.branchatmservice.dto.request.AtmCreateDto;
 import ru.bank.branchatmservice.dto.response.MessageResponseDto;
+import ru.bank.branchatmservice.event.AtmsChangedEvent;
 import ru.bank.branchatmservice.exception.NotFoundException;
 import ru.bank.branchatmservice.mapper.ATMMapper;
 import ru.bank.branchatmservice.mapper.WorkScheduleMapper;
@@ -22,50 +38,185 @@ import ru.bank.branchatmservice.model.Branch;
 import ru.bank.branchatmservice.model.City;
 import ru.bank.branchatmservice.model.WorkSchedule;
 import ru.bank.branchatmservice.repository.ATMRepository;
+import ru.bank.branchatmservice.repository.FilterPageQuery;
 import ru.bank.branchatmservice.repository.WorkScheduleRepository;
 import ru.bank.branchatmservice.specification.ATMSpecifications;
+import ru.bank.branchatmservice.specification.WorkScheduleSpecifications;
+import ru.bank.branchatmservice.util.KeysetCursor;
+import ru.bank.branchatmservice.util.WeekSchedule;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ATMService {
+    private static final int DEFAULT_NEAREST_LIMIT = 10;
+    private static final int MAX_NEAREST_LIMIT = 100;
+    public static final int MAX_ATM_BATCH = 500;
+
     private final ATMRepository atmRepository;
     private final WorkScheduleRepository workScheduleRepository;
     private final ATMMapper atmMapper;
     private final WorkScheduleMapper workScheduleMapper;
     private final BranchService branchService;
     private final CityService cityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtmCatalog atmCatalog;
+    private final WorkScheduleService workScheduleService;
+    private final FilterPageQuery filterPageQuery;
 
     public ATMFullDto getATMById(UUID atmId) {
-        ATM atm = atmRepository.findById(atmId).orElseThrow(() -> new NotFoundException("Данные не найдены"));
+        ATM atm = atmRepository.findWithWorkScheduleById(atmId)
+                .orElseThrow(() -> new NotFoundException("Данные не найдены"));
         return atmMapper.ofATMBranchAndWorkSchedule(atm, atm.getBranch(), atm.getWorkSchedule());
     }
 
+    /**
+     * Информация о банкоматах по списку UUID за два запроса: банкоматы с отделениями и адресами,
+     * затем графики всех найденных банкоматов. Не найденные UUID возвращаются в notFound.
+     */
+    @Transactional(readOnly = true)
+    public AtmBatchResponse getATMsByIds(List<UUID> atmIds) {
+        if (atmIds == null || atmIds.isEmpty()) {
+            throw new IllegalArgumentException("Список UUID банкоматов не должен быть пустым");
+        }
+        if (atmIds.size() > MAX_ATM_BATCH) {
+            throw new IllegalArgumentException(
+                    "За один запрос можно получить не более " + MAX_ATM_BATCH + " банкоматов");
+        }
+
+        List<UUID> ids = atmIds.stream().distinct().toList();
+        Map<UUID, ATM> atmsById = atmRepository.findAllWithBranchByIdIn(ids).stream()
+                .collect(Collectors.toMap(ATM::getId, Function.identity()));
+        Map<UUID, List<WorkSchedule>> schedulesByAtmId = atmsById.isEmpty()
+                ? Map.of()
+                : workScheduleRepository.findAll(
+                                WorkScheduleSpecifications.entityIdsAre(List.copyOf(atmsById.keySet()), EntityType.ATM))
+                        .stream()
+                        .sorted(Comparator.comparing(WorkSchedule::getWeekDay))
+                        .collect(Collectors.groupingBy(WorkSchedule::getEntityId));
+
+        Map<UUID, ATMFullDto> atms = new LinkedHashMap<>();
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID id : ids) {
+            ATM atm = atmsById.get(id);
+            if (atm == null) {
+                notFound.add(id);
+                continue;
+            }
+            atms.put(id, atmMapper.ofATMBranchAndWorkSchedule(
+                    atm, atm.getBranch(), schedulesByAtmId.getOrDefault(id, List.of())));
+        }
+        log.debug("Банкоматы по списку: найдено {}, не найдено {}", atms.size(), notFound.size());
+        return new AtmBatchResponse(atms, notFound);
+    }
+
     public List<InfoAtmDto> softDeleteATMByIds(List<UUID> atmIds) {
         log.info("softDeleteATMByIds {}", atmIds);
-        List<ATM> atms = atmRepository.softDeleteByAtmIds(atmIds);
+        List<ArchivedAtmProjection> atms = atmRepository.softDeleteByAtmIds(atmIds);
         if (atms.isEmpty()) {
             throw new NotFoundException("Запрашиваемы данные не найдены");
         }
         log.debug("кол-во архивированных атмов: {}", atms.size());
+        eventPublisher.publishEvent(new AtmsChangedEvent(
+                atms.stream().map(ArchivedAtmProjection::getId).toList(), ChangeType.ARCHIVED));
         return atms.stream()
                 .map(atmMapper::toInfoAtmDto)
                 .toList();
     }
 
+    /**
+     * Страница банкоматов по фильтру. Идентификаторы страницы выбираются с сортировкой и LIMIT в БД,
+     * затем загружаются только эти банкоматы; общее количество считается отдельным запросом по запросу клиента.
+     */
     @Transactional(readOnly = true)
-    public List<AtmFilterResponseDto> getAtmListByFilter(AtmFilterDto filters) {
-        List<ATM> atms = atmRepository.findAll(ATMSpecifications.byAtmFilterDto(filters));
-        log.debug("Кол-во найденных банкоматов {} по фильтру {}", atms.size(), filters);
+    public FilterPageResponse<AtmFilterResponseDto> getAtmListByFilter(AtmFilterDto filters,
+                                                                       FilterPageRequest pageRequest) {
+        int page = pageRequest.pageNumber();
+        int size = pageRequest.pageSize();
+        pageRequest.validateSort();
 
-        if (atms.isEmpty()) return List.of();
-        return atms.stream().map(atmMapper::toAtmFilterResponseDto).toList();
+        Specification<ATM> spec = ATMSpecifications.byAtmFilterDto(filters);
+        List<UUID> ids = filterPageQuery.findIds(ATM.class, spec, pageRequest, "number", pageRequest.offset(), size + 1);
+        boolean hasNext = ids.size() > size;
+        List<UUID> pageIds = hasNext ? ids.subList(0, size) : ids;
+        log.debug("Кол-во найденных банкоматов на странице {}: {} по фильтру {}", page, pageIds.size(), filters);
+
+        List<AtmFilterResponseDto> items = pageIds.isEmpty() ? List.of() : loadInOrder(pageIds);
+        Long total = pageRequest.isCountRequested() ? atmRepository.count(spec) : null;
+        return new FilterPageResponse<>(items, page, size, hasNext, total);
+    }
+
+    private List<AtmFilterResponseDto> loadInOrder(List<UUID> ids) {
+        Map<UUID, ATM> atmsById = atmRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(ATM::getId, Function.identity()));
+        return ids.stream()
+                .map(atmsById::get)
+                .filter(Objects::nonNull)
+                .map(atmMapper::toAtmFilterResponseDto)
+                .toList();
+    }
+
+    /**
+     * Ближайшие к точке банкоматы из каталога в памяти с учетом фильтров
+     * наличия NFC, внесения наличных, круглосуточной работы и работы в текущий момент.
+     */
+    public List<NearestAtmResponseDto> findNearestAtms(Double latitude, Double longitude,
+                                                       Integer limit, AtmFilterDto filters) {
+        // сравнение через <= отсекает и NaN
+        if (latitude == null || longitude == null
+                || !(Math.abs(latitude) <= 90) || !(Math.abs(longitude) <= 180)) {
+            throw new IllegalArgumentException("Некорректные координаты точки поиска");
+        }
+        int resultLimit = limit == null ? DEFAULT_NEAREST_LIMIT : limit;
+        if (resultLimit < 1 || resultLimit > MAX_NEAREST_LIMIT) {
+            throw new IllegalArgumentException(
+                    "Количество банкоматов должно быть в диапазоне от 1 до " + MAX_NEAREST_LIMIT);
+        }
+
+        AtmCatalogSnapshot snapshot = atmCatalog.getSnapshot();
+        int now = workScheduleService.currentWeekSecond();
+        List<SpatialGrid.Neighbor> neighbors = snapshot.locations().nearest(latitude, longitude, resultLimit,
+                point -> matchesFilter(snapshot.entries().get(point.id()), filters, now));
+        log.debug("Найдено ближайших банкоматов {} для точки ({}, {}) по фильтру {}",
+                neighbors.size(), latitude, longitude, filters);
+
+        return neighbors.stream()
+                .map(neighbor -> {
+                    AtmCatalogEntry entry = snapshot.entries().get(neighbor.point().id());
+                    return new NearestAtmResponseDto(
+                            entry.id(),
+                            neighbor.point().latitude(),
+                            neighbor.point().longitude(),
+                            Math.round(neighbor.distance()),
+                            entry.isOpenAt(now),
+                            entry.atm()
+                    );
+                })
+                .toList();
+    }
+
+    private boolean matchesFilter(AtmCatalogEntry entry, AtmFilterDto filters, int now) {
+        if (entry == null) return false;
+        if (filters == null) return true;
+        return (filters.nfc() == null || entry.nfc() == filters.nfc())
+                && (filters.cashDeposit() == null || entry.cashDeposit() == filters.cashDeposit())
+                && (filters.hour24() == null || entry.workSchedule().isAlwaysOpen() == filters.hour24())
+                && (filters.workingNow() == null || entry.isOpenAt(now) == filters.workingNow());
     }
 
     @Transactional
@@ -84,15 +235,17 @@ public class ATMService {
 
         atm.setBranch(branch);
         atm.getAddress().setCity(city);
+        List<WorkSchedule> workScheduleList = workScheduleMapper.toListWorkSchedules(atmCreateDto.scheduleArray());
+        applyScheduleSummary(atm, workScheduleList);
         atmRepository.saveAndFlush(atm);
 
-        List<WorkSchedule> workScheduleList = workScheduleMapper.toListWorkSchedules(atmCreateDto.scheduleArray());
         workScheduleList.forEach(ws -> {
             ws.setEntityId(atm.getId());
             ws.setEntityType(EntityType.ATM);
         });
 
         workScheduleRepository.saveAll(workScheduleList);
+        eventPublisher.publishEvent(new AtmsChangedEvent(List.of(atm.getId()), ChangeType.CREATED));
 
         return new MessageResponseDto(
                 "Банкомат успешно добавлен",
@@ -108,6 +261,7 @@ public class ATMService {
 
         atm.setClosed(true);
         ATM savedAtm = atmRepository.saveAndFlush(atm);
+        eventPublisher.publishEvent(new AtmsChangedEvent(List.of(atmId), ChangeType.ARCHIVED));
 
         return createArchiveResponse(savedAtm);
     }
@@ -122,27 +276,92 @@ public class ATMService {
                 .build();
     }
 
-    public List<AtmFilterResponseDto> getAllAtmList() {
-        List<ATM> atms = atmRepository.findAll();
+    /**
+     * Страница банкоматов в порядке идентификаторов. Сначала выбираются только идентификаторы
+     * страницы (limit + 1, чтобы понять, есть ли следующая), затем по ним загружаются банкоматы
+     * с адресами и графиками: при fetch join коллекции Hibernate не может ограничить выборку в БД.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AtmFilterResponseDto> getAtmPage(String cursor, Integer limit) {
+        int pageSize = KeysetCursor.resolveLimit(limit);
+        UUID afterId = KeysetCursor.decode(cursor);
+
+        List<UUID> ids = afterId == null
+                ? atmRepository.findPageIds(Limit.of(pageSize + 1))
+                : atmRepository.findPageIdsAfter(afterId, Limit.of(pageSize + 1));
+        boolean hasNext = ids.size() > pageSize;
+        List<UUID> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new CursorPageResponse<>(List.of(), null);
+        }
 
-        return atms.stream().map(atmMapper::toAtmFilterResponseDto).toList();
+        List<AtmFilterResponseDto> items = loadInOrder(pageIds);
+        String nextCursor = hasNext ? KeysetCursor.encode(pageIds.get(pageIds.size() - 1)) : null;
+        return new CursorPageResponse<>(items, nextCursor);
     }
 
     @Transactional
     public void updateATM(UUID atmId, UpdateAtmInfoRequest request) {
         ATM atm = atmRepository.findById(atmId)
                 .orElseThrow(() -> new NotFoundException("Данные не найдены."));
-        workScheduleRepository.deleteAllByEntityIdAndEntityType(atmId, EntityType.ATM);
 
         atmMapper.toATM(request, atm);
-        atmRepository.save(atm);
-
         List<WorkSchedule> updatedSchedules = new ArrayList<>();
         workScheduleMapper.ofWorkScheduleDtoList(request.getSchedules(), updatedSchedules);
-        for (WorkSchedule workSchedule : updatedSchedules) {
-            workSchedule.setEntityId(atmId);
-            workSchedule.setEntityType(EntityType.ATM);
+        applyScheduleSummary(atm, updatedSchedules);
+        atmRepository.save(atm);
+
+        applyScheduleDiff(atmId, updatedSchedules);
+        eventPublisher.publishEvent(new AtmsChangedEvent(List.of(atmId), ChangeType.UPDATED));
+    }
+
+    /**
+     * Записывает только отличия графика от сохраненного: новые и измененные дни — upsert по
+     * (entity_type, entity_id, week_day) с сохранением id строки, удаляются только убранные дни.
+     * Неизмененные строки не переписываются.
+     */
+    private void applyScheduleDiff(UUID atmId, List<WorkSchedule> schedules) {
+        Map<WeekDay, WorkSchedule> current = new EnumMap<>(WeekDay.class);
+        for (WorkSchedule schedule : workScheduleRepository.findAllByEntityIdAndEntityType(atmId, EntityType.ATM)) {
+            current.putIfAbsent(schedule.getWeekDay(), schedule);
+        }
+
+        Set<WeekDay> requestedDays = EnumSet.noneOf(WeekDay.class);
+        for (WorkSchedule schedule : schedules) {
+            if (!requestedDays.add(schedule.getWeekDay())) {
+                throw new IllegalArgumentException(
+                        String.format("День недели %d указан в графике несколько раз", schedule.getWeekDay().getDayNumber()));
+            }
+        }
+
+        for (WorkSchedule schedule : schedules) {
+            WorkSchedule existing = current.remove(schedule.getWeekDay());
+            if (existing != null
+                    && existing.getOpeningTime().equals(schedule.getOpeningTime())
+                    && existing.getClosingTime().equals(schedule.getClosingTime())) {
+                continue;
+            }
+            workScheduleRepository.upsertDay(
+                    existing != null ? existing.getId() : UUID.randomUUID(),
+                    EntityType.ATM.name(),
+                    atmId,
+                    schedule.getWeekDay().getDayNumber(),
+                    schedule.getOpeningTime(),
+                    schedule.getClosingTime());
+        }
+
+        if (!current.isEmpty()) {
+            workScheduleRepository.deleteDays(EntityType.ATM.name(), atmId,
+                    current.keySet().stream().map(WeekDay::getDayNumber).toList());
         }
-        workScheduleRepository.saveAll(updatedSchedules);
+    }
+
+    /**
+     * Сводка графика хранится в самом банкомате, чтобы фильтр hour24 был индексируемым условием,
+     * а не подзапросом по work_schedule. Пересчитывается при каждой записи графика.
+     */
+    static void applyScheduleSummary(ATM atm, List<WorkSchedule> schedules) {
+        atm.setAlwaysOpen(WeekSchedule.compile(schedules).isAlwaysOpen());
+        atm.setOpenDays(WeekSchedule.openDaysMask(schedules));
     }
 }
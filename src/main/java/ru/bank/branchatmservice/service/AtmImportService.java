@@ -0,0 +1,412 @@
+package ru.bank.branchatmservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.bank.branchatmservice.catalog.BranchCatalog;
+import ru.bank.branchatmservice.catalog.BranchCatalogEntry;
+import ru.bank.branchatmservice.dto.BranchDto;
+import ru.bank.branchatmservice.dto.ScheduleDto;
+import ru.bank.branchatmservice.dto.request.AddressFullInfoDto;
+import ru.bank.branchatmservice.dto.request.AtmCreateDto;
+import ru.bank.branchatmservice.dto.request.AtmInfoCreateDto;
+import ru.bank.branchatmservice.dto.request.BranchShortInfo;
+import ru.bank.branchatmservice.dto.response.AtmImportResponse;
+import ru.bank.branchatmservice.dto.response.AtmImportResponse.RowError;
+import ru.bank.branchatmservice.enums.ChangeType;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.enums.ExportFormat;
+import ru.bank.branchatmservice.event.AtmsChangedEvent;
+import ru.bank.branchatmservice.mapper.ATMMapper;
+import ru.bank.branchatmservice.mapper.WorkScheduleMapper;
+import ru.bank.branchatmservice.model.ATM;
+import ru.bank.branchatmservice.model.Branch;
+import ru.bank.branchatmservice.model.City;
+import ru.bank.branchatmservice.model.WorkSchedule;
+import ru.bank.branchatmservice.repository.ATMRepository;
+import ru.bank.branchatmservice.repository.CityRepository;
+import ru.bank.branchatmservice.repository.JdbcBatchWriter;
+import ru.bank.branchatmservice.util.CsvFormat;
+import ru.bank.branchatmservice.util.ScheduleText;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетная загрузка банкоматов из NDJSON (объект {@link AtmCreateDto} на строку) или CSV.
+ * Файл читается потоково и обрабатывается порциями: проверки полей, поиск городов и отделений
+ * по словарям в памяти, один запрос на проверку дублей номеров в БД и JDBC batch на запись.
+ * Каждая порция пишется в своей транзакции; строки с ошибками пропускаются и попадают в отчет,
+ * в том числе строки, отклоненные ограничениями БД при записи.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AtmImportService {
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    static final String NUMBER_CONSTRAINT = "atm_number_key";
+    static final String INVENTORY_NUMBER_CONSTRAINT = "atm_inventory_number_key";
+
+    static final List<String> CSV_REQUIRED_COLUMNS = List.of(
+            "number", "inventoryNumber", "installationLocation", "construction",
+            "city", "streetType", "street", "house", "bankNumber");
+
+    private final ATMRepository atmRepository;
+    private final CityRepository cityRepository;
+    private final BranchCatalog branchCatalog;
+    private final JdbcBatchWriter batchWriter;
+    private final ATMMapper atmMapper;
+    private final WorkScheduleMapper workScheduleMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AtmImportResponse importAtms(ExportFormat format, InputStream in) throws IOException {
+        ImportContext context = new ImportContext(citiesByName(), branchIdsByBankNumber());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RowSource source = format == ExportFormat.CSV ? csvSource(reader) : ndjsonSource(reader);
+
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        ImportRow row;
+        while ((row = source.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, context);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, context);
+        }
+
+        log.info("Загрузка банкоматов ({}): обработано {}, добавлено {}, с ошибками {}",
+                format, context.processed, context.imported, context.failed);
+        return new AtmImportResponse(context.processed, context.imported, context.failed,
+                context.errors, context.failed > context.errors.size());
+    }
+
+    private void importChunk(List<ImportRow> rows, ImportContext context) {
+        List<PreparedAtm> prepared = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            context.processed++;
+            if (row.error() != null) {
+                context.fail(row.line(), null, row.error());
+                continue;
+            }
+            String number = row.dto().atmInfoCreateDto() != null ? row.dto().atmInfoCreateDto().ATMNumber() : null;
+            String error = validate(row.dto(), context);
+            if (error != null) {
+                context.fail(row.line(), number, error);
+                continue;
+            }
+            prepared.add(prepare(row, context));
+        }
+        if (prepared.isEmpty()) return;
+
+        Set<String> existingNumbers = new HashSet<>(atmRepository.findNumbersIn(
+                prepared.stream().map(p -> p.atm().getNumber()).toList()));
+        Set<String> existingInventoryNumbers = new HashSet<>(atmRepository.findInventoryNumbersIn(
+                prepared.stream().map(p -> p.atm().getInventoryNumber()).toList()));
+        List<PreparedAtm> toInsert = new ArrayList<>(prepared.size());
+        for (PreparedAtm atm : prepared) {
+            if (existingNumbers.contains(atm.atm().getNumber())) {
+                context.fail(atm.line(), atm.atm().getNumber(),
+                        String.format("ATM с номером %s уже существует", atm.atm().getNumber()));
+            } else if (existingInventoryNumbers.contains(atm.atm().getInventoryNumber())) {
+                context.fail(atm.line(), atm.atm().getNumber(),
+                        String.format("ATM с инвентарным номером %s уже существует", atm.atm().getInventoryNumber()));
+            } else {
+                toInsert.add(atm);
+            }
+        }
+        if (toInsert.isEmpty()) return;
+
+        write(toInsert, context);
+    }
+
+    /**
+     * Запись порции одной транзакцией. Если строка нарушает ограничение БД (например, номер занят параллельной
+     * загрузкой), порция делится пополам и половины пишутся отдельно, пока не останутся только строки с ошибкой:
+     * одна строка не отклоняет всю порцию, а число повторных записей растет как логарифм размера порции.
+     */
+    private void write(List<PreparedAtm> toInsert, ImportContext context) {
+        List<ATM> atms = toInsert.stream().map(PreparedAtm::atm).toList();
+        List<WorkSchedule> schedules = toInsert.stream().flatMap(p -> p.schedules().stream()).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batchWriter.insertAddresses(atms.stream().map(ATM::getAddress).toList());
+                batchWriter.insertAtms(atms);
+                batchWriter.insertWorkSchedules(schedules);
+                eventPublisher.publishEvent(
+                        new AtmsChangedEvent(atms.stream().map(ATM::getId).toList(), ChangeType.CREATED));
+            });
+            context.imported += atms.size();
+        } catch (DataIntegrityViolationException e) {
+            if (toInsert.size() > 1) {
+                int middle = toInsert.size() / 2;
+                write(toInsert.subList(0, middle), context);
+                write(toInsert.subList(middle, toInsert.size()), context);
+                return;
+            }
+            PreparedAtm atm = toInsert.get(0);
+            log.warn("Банкомат {} из строки {} не записан: {}", atm.atm().getNumber(), atm.line(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            context.fail(atm.line(), atm.atm().getNumber(), rejected(e, atm.atm()));
+        } catch (DataAccessException e) {
+            log.warn("Порция из {} банкоматов не записана: {}", atms.size(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            toInsert.forEach(atm -> context.fail(atm.line(), atm.atm().getNumber(),
+                    "Банкомат не записан: ошибка записи в БД, повторите загрузку"));
+        }
+    }
+
+    private static String rejected(DataIntegrityViolationException e, ATM atm) {
+        String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (cause != null && cause.contains(INVENTORY_NUMBER_CONSTRAINT)) {
+            return String.format("ATM с инвентарным номером %s уже существует", atm.getInventoryNumber());
+        }
+        if (cause != null && cause.contains(NUMBER_CONSTRAINT)) {
+            return String.format("ATM с номером %s уже существует", atm.getNumber());
+        }
+        return "Банкомат не записан: данные нарушают ограничения БД";
+    }
+
+    private String validate(AtmCreateDto dto, ImportContext context) {
+        AtmInfoCreateDto info = dto.atmInfoCreateDto();
+        AddressFullInfoDto address = dto.addressFullInfoDto();
+        BranchShortInfo branch = dto.branchShortInfo();
+        if (info == null || address == null || branch == null) {
+            return "Не заполнены данные банкомата, адреса или отделения";
+        }
+
+        List<String> problems = new ArrayList<>();
+        requireText(problems, "number", info.ATMNumber(), 4);
+        requireText(problems, "inventoryNumber", info.inventoryNumber(), 10);
+        requireText(problems, "installationLocation", info.installationLocation(), 64);
+        requireText(problems, "construction", info.construction(), 11);
+        validator.validate(address).forEach(violation -> problems.add(describe(violation)));
+        if (dto.scheduleArray() != null) {
+            Set<Integer> days = new HashSet<>();
+            for (ScheduleDto schedule : dto.scheduleArray()) {
+                validator.validate(schedule).forEach(violation -> problems.add(describe(violation)));
+                if (schedule.weekDay() != null && !days.add(schedule.weekDay())) {
+                    problems.add(String.format("День недели %d указан в графике несколько раз", schedule.weekDay()));
+                }
+            }
+        }
+        if (!problems.isEmpty()) {
+            return String.join("; ", problems);
+        }
+
+        if (!context.citiesByName.containsKey(address.cityName())) {
+            return String.format("Город с наименованием %s не найден", address.cityName());
+        }
+        if (!context.branchIdsByBankNumber.containsKey(branch.bankNumber())) {
+            return String.format("Отделение с номером %s не найдено", branch.bankNumber());
+        }
+        Long numberLine = context.seenNumbers.get(info.ATMNumber());
+        if (numberLine != null) {
+            return String.format("Номер %s уже встречался в строке %d", info.ATMNumber(), numberLine);
+        }
+        Long inventoryLine = context.seenInventoryNumbers.get(info.inventoryNumber());
+        if (inventoryLine != null) {
+            return String.format("Инвентарный номер %s уже встречался в строке %d", info.inventoryNumber(), inventoryLine);
+        }
+        return null;
+    }
+
+    private PreparedAtm prepare(ImportRow row, ImportContext context) {
+        AtmCreateDto dto = row.dto();
+        context.seenNumbers.put(dto.atmInfoCreateDto().ATMNumber(), row.line());
+        context.seenInventoryNumbers.put(dto.atmInfoCreateDto().inventoryNumber(), row.line());
+
+        ATM atm = atmMapper.toATM(dto);
+        atm.setId(UUID.randomUUID());
+        atm.getAddress().setId(UUID.randomUUID());
+        atm.getAddress().setCity(context.citiesByName.get(dto.addressFullInfoDto().cityName()));
+        atm.setBranch(Branch.builder().id(context.branchIdsByBankNumber.get(dto.branchShortInfo().bankNumber())).build());
+
+        List<WorkSchedule> schedules = dto.scheduleArray() == null
+                ? List.of()
+                : workScheduleMapper.toListWorkSchedules(dto.scheduleArray());
+        schedules.forEach(schedule -> {
+            schedule.setId(UUID.randomUUID());
+            schedule.setEntityId(atm.getId());
+            schedule.setEntityType(EntityType.ATM);
+        });
+        ATMService.applyScheduleSummary(atm, schedules);
+        return new PreparedAtm(row.line(), atm, schedules);
+    }
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) continue;
+                try {
+                    return new ImportRow(lineNumber[0], objectMapper.readValue(line, AtmCreateDto.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRow(lineNumber[0], null, "Некорректный JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private RowSource csvSource(BufferedReader reader) throws IOException {
+        CsvFormat.RecordReader records = new CsvFormat.RecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            throw new IllegalArgumentException("Файл пуст: ожидается строка заголовка");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        List<String> missing = CSV_REQUIRED_COLUMNS.stream().filter(name -> !columns.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("В заголовке CSV нет колонок: " + String.join(", ", missing));
+        }
+
+        return () -> {
+            while (true) {
+                List<String> values;
+                try {
+                    values = records.next();
+                } catch (IllegalArgumentException e) {
+                    return new ImportRow(records.recordLine(), null, e.getMessage());
+                }
+                if (values == null) return null;
+                if (values.size() == 1 && values.get(0).isBlank()) continue;
+                if (values.size() != header.size()) {
+                    return new ImportRow(records.recordLine(), null,
+                            String.format("Ожидалось значений: %d, получено: %d", header.size(), values.size()));
+                }
+                try {
+                    return new ImportRow(records.recordLine(), toCreateDto(columns, values), null);
+                } catch (IllegalArgumentException e) {
+                    return new ImportRow(records.recordLine(), null, e.getMessage());
+                }
+            }
+        };
+    }
+
+    private static AtmCreateDto toCreateDto(Map<String, Integer> columns, List<String> values) {
+        return new AtmCreateDto(
+                new AtmInfoCreateDto(
+                        value(columns, values, "number"),
+                        value(columns, values, "inventoryNumber"),
+                        value(columns, values, "installationLocation"),
+                        value(columns, values, "construction"),
+                        flag(columns, values, "hasCashDeposit"),
+                        flag(columns, values, "hasNfc")),
+                new AddressFullInfoDto(
+                        value(columns, values, "city"),
+                        value(columns, values, "streetType"),
+                        value(columns, values, "street"),
+                        value(columns, values, "house"),
+                        value(columns, values, "latitude"),
+                        value(columns, values, "longitude"),
+                        value(columns, values, "metroStation")),
+                new BranchShortInfo(value(columns, values, "bankNumber")),
+                ScheduleText.parse(value(columns, values, "workSchedule")));
+    }
+
+    /**
+     * Значение колонки; отсутствующая колонка и пустая строка — null.
+     */
+    private static String value(Map<String, Integer> columns, List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null) return null;
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Boolean flag(Map<String, Integer> columns, List<String> values, String column) {
+        String value = value(columns, values, column);
+        if (value == null || value.equalsIgnoreCase("false")) return false;
+        if (value.equalsIgnoreCase("true")) return true;
+        throw new IllegalArgumentException(String.format("Колонка %s: ожидается true или false, получено %s", column, value));
+    }
+
+    private static void requireText(List<String> problems, String field, String value, int maxLength) {
+        if (value == null || value.isBlank()) {
+            problems.add(field + ": обязательное поле");
+        } else if (value.length() > maxLength) {
+            problems.add(String.format("%s: не более %d символов", field, maxLength));
+        }
+    }
+
+    private static String describe(ConstraintViolation<?> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private Map<String, City> citiesByName() {
+        return cityRepository.findAll().stream()
+                .collect(Collectors.toMap(City::getName, city -> city, (first, second) -> first));
+    }
+
+    private Map<String, UUID> branchIdsByBankNumber() {
+        return branchCatalog.getSnapshot().entries().values().stream()
+                .map(BranchCatalogEntry::branch)
+                .collect(Collectors.toMap(BranchDto::bankNumber, BranchDto::id, (first, second) -> first));
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    private record ImportRow(long line, AtmCreateDto dto, String error) {
+    }
+
+    private record PreparedAtm(long line, ATM atm, List<WorkSchedule> schedules) {
+    }
+
+    private static final class ImportContext {
+        private final Map<String, City> citiesByName;
+        private final Map<String, UUID> branchIdsByBankNumber;
+        private final Map<String, Long> seenNumbers = new HashMap<>();
+        private final Map<String, Long> seenInventoryNumbers = new HashMap<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private ImportContext(Map<String, City> citiesByName, Map<String, UUID> branchIdsByBankNumber) {
+            this.citiesByName = citiesByName;
+            this.branchIdsByBankNumber = branchIdsByBankNumber;
+        }
+
+        private void fail(long line, String number, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, number, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package ru.bank.branchatmservice.service;
+
+import jakarta.persistence.EntityExistsException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.bank.branchatmservice.dto.BranchCreateDto;
+import ru.bank.branchatmservice.dto.BranchCreateInfoDto;
+import ru.bank.branchatmservice.dto.BranchUniqueKeysProjection;
+import ru.bank.branchatmservice.dto.ScheduleDto;
+import ru.bank.branchatmservice.dto.response.BranchBatchCreateResponse;
+import ru.bank.branchatmservice.dto.response.BranchBatchCreateResponse.ItemResult;
+import ru.bank.branchatmservice.enums.ChangeType;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.event.BranchesChangedEvent;
+import ru.bank.branchatmservice.mapper.BranchMapper;
+import ru.bank.branchatmservice.mapper.WorkScheduleMapper;
+import ru.bank.branchatmservice.model.Branch;
+import ru.bank.branchatmservice.model.City;
+import ru.bank.branchatmservice.model.WorkSchedule;
+import ru.bank.branchatmservice.repository.BranchRepository;
+import ru.bank.branchatmservice.repository.CityRepository;
+import ru.bank.branchatmservice.repository.JdbcBatchWriter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетное добавление отделений. Вместо запросов на каждое отделение (три exists, поиск города, вставки)
+ * уникальность имени, номера и телефона проверяется одним запросом на весь пакет, города ищутся одним
+ * запросом, а отделения, адреса, связи с отделами и графики пишутся JDBC batch в одной транзакции.
+ * Отделения с ошибками, в том числе отклоненные ограничениями БД при записи, пропускаются;
+ * результат возвращается по каждому элементу запроса.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BranchBulkService {
+    static final int MAX_BATCH_SIZE = 500;
+
+    private final BranchRepository branchRepository;
+    private final CityRepository cityRepository;
+    private final JdbcBatchWriter batchWriter;
+    private final BranchMapper branchMapper;
+    private final WorkScheduleMapper workScheduleMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BranchBatchCreateResponse createBranches(List<BranchCreateDto> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Список отделений пуст");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("За один запрос можно добавить не более %d отделений", MAX_BATCH_SIZE));
+        }
+
+        List<List<String>> errors = new ArrayList<>(items.size());
+        for (BranchCreateDto item : items) {
+            errors.add(item == null ? new ArrayList<>(List.of("Пустой элемент")) : validate(item));
+        }
+        markDuplicatesInBatch(items, errors);
+        markExisting(items, errors);
+        Map<String, City> cities = markUnknownCities(items, errors);
+
+        List<PreparedBranch> prepared = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (!errors.get(i).isEmpty()) continue;
+            BranchCreateDto item = items.get(i);
+
+            Branch branch = branchMapper.ofBranchCreateDto(item.branchInfo(), item.addressInfo(), false);
+            branch.setId(UUID.randomUUID());
+            branch.getAddress().setId(UUID.randomUUID());
+            branch.getAddress().setCity(cities.get(item.addressInfo().cityName()));
+
+            List<UUID[]> departmentLinks = item.departmentIds().stream()
+                    .map(departmentId -> new UUID[]{branch.getId(), departmentId})
+                    .toList();
+            List<WorkSchedule> schedules = workScheduleMapper.toListWorkSchedules(item.scheduleArray());
+            schedules.forEach(schedule -> {
+                schedule.setId(UUID.randomUUID());
+                schedule.setEntityId(branch.getId());
+                schedule.setEntityType(EntityType.BRANCH);
+            });
+            prepared.add(new PreparedBranch(i, branch, departmentLinks, schedules));
+        }
+
+        UUID[] branchIds = new UUID[items.size()];
+        if (!prepared.isEmpty()) {
+            write(prepared, errors, branchIds);
+        }
+
+        List<ItemResult> results = new ArrayList<>(items.size());
+        int created = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (branchIds[i] != null) created++;
+            results.add(new ItemResult(i, branchIds[i], errors.get(i)));
+        }
+        log.info("Пакетное добавление отделений: добавлено {}, отклонено {}", created, items.size() - created);
+        return new BranchBatchCreateResponse(created, items.size() - created, results);
+    }
+
+    /**
+     * Запись отделений одной транзакцией. Если отделение нарушает ограничение БД (например, номер занят
+     * параллельным запросом), отделения делятся пополам и половины пишутся отдельно, пока не останутся
+     * только отделения с ошибкой: одно отделение не отклоняет весь пакет.
+     */
+    private void write(List<PreparedBranch> prepared, List<List<String>> errors, UUID[] branchIds) {
+        List<Branch> branches = prepared.stream().map(PreparedBranch::branch).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batchWriter.insertAddresses(branches.stream().map(Branch::getAddress).toList());
+                batchWriter.insertBranches(branches);
+                batchWriter.insertBranchDepartments(
+                        prepared.stream().flatMap(p -> p.departmentLinks().stream()).toList());
+                batchWriter.insertWorkSchedules(prepared.stream().flatMap(p -> p.schedules().stream()).toList());
+                eventPublisher.publishEvent(
+                        new BranchesChangedEvent(branches.stream().map(Branch::getId).toList(), ChangeType.CREATED));
+            });
+            prepared.forEach(p -> branchIds[p.index()] = p.branch().getId());
+        } catch (DataIntegrityViolationException e) {
+            if (prepared.size() > 1) {
+                int middle = prepared.size() / 2;
+                write(prepared.subList(0, middle), errors, branchIds);
+                write(prepared.subList(middle, prepared.size()), errors, branchIds);
+                return;
+            }
+            PreparedBranch item = prepared.get(0);
+            log.warn("Отделение в позиции {} не записано: {}", item.index(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            errors.get(item.index()).add(rejected(e, item.branch()));
+        } catch (DataAccessException e) {
+            log.warn("Пакет из {} отделений не записан: {}", prepared.size(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            prepared.forEach(p -> errors.get(p.index()).add("Отделение не записано: ошибка записи в БД, повторите запрос"));
+        }
+    }
+
+    private static String rejected(DataIntegrityViolationException e, Branch branch) {
+        RuntimeException translated =
+                BranchUniqueness.translate(e, branch.getName(), branch.getBankNumber(), branch.getPhoneNumber());
+        return translated instanceof EntityExistsException
+                ? translated.getMessage()
+                : "Отделение не записано: данные нарушают ограничения БД";
+    }
+
+    private List<String> validate(BranchCreateDto item) {
+        List<String> problems = new ArrayList<>();
+        validator.validate(item).forEach(violation -> problems.add(describe(violation)));
+        if (item.scheduleArray() != null) {
+            Set<Integer> days = new HashSet<>();
+            for (ScheduleDto schedule : item.scheduleArray()) {
+                if (schedule != null && schedule.weekDay() != null && !days.add(schedule.weekDay())) {
+                    problems.add(String.format("День недели %d указан в графике несколько раз", schedule.weekDay()));
+                }
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Повтор имени, номера или телефона внутри пакета: первое вхождение остается, следующие отклоняются.
+     */
+    private static void markDuplicatesInBatch(List<BranchCreateDto> items, List<List<String>> errors) {
+        Map<String, Integer> names = new HashMap<>();
+        Map<String, Integer> bankNumbers = new HashMap<>();
+        Map<String, Integer> phoneNumbers = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (!errors.get(i).isEmpty()) continue;
+            BranchCreateInfoDto info = items.get(i).branchInfo();
+            List<String> problems = errors.get(i);
+            Integer first = bankNumbers.putIfAbsent(info.bankNumber(), i);
+            if (first != null) {
+                problems.add(String.format("Номер %s уже встречался в позиции %d", info.bankNumber(), first));
+            }
+            first = phoneNumbers.putIfAbsent(info.phoneNumber(), i);
+            if (first != null) {
+                problems.add(String.format("Номер телефона %s уже встречался в позиции %d", info.phoneNumber(), first));
+            }
+            first = names.putIfAbsent(info.name(), i);
+            if (first != null) {
+                problems.add(String.format("Имя %s уже встречалось в позиции %d", info.name(), first));
+            }
+        }
+    }
+
+    private void markExisting(List<BranchCreateDto> items, List<List<String>> errors) {
+        Set<String> names = new HashSet<>();
+        Set<String> bankNumbers = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (!errors.get(i).isEmpty()) continue;
+            names.add(items.get(i).branchInfo().name());
+            bankNumbers.add(items.get(i).branchInfo().bankNumber());
+            phoneNumbers.add(items.get(i).branchInfo().phoneNumber());
+        }
+        if (names.isEmpty()) return;
+
+        Set<String> existingNames = new HashSet<>();
+        Set<String> existingBankNumbers = new HashSet<>();
+        Set<String> existingPhoneNumbers = new HashSet<>();
+        for (BranchUniqueKeysProjection existing : branchRepository.findConflicting(names, bankNumbers, phoneNumbers)) {
+            existingNames.add(existing.getName());
+            existingBankNumbers.add(existing.getBankNumber());
+            existingPhoneNumbers.add(existing.getPhoneNumber());
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            if (!errors.get(i).isEmpty()) continue;
+            BranchCreateInfoDto info = items.get(i).branchInfo();
+            List<String> problems = errors.get(i);
+            if (existingBankNumbers.contains(info.bankNumber())) {
+                problems.add(BranchUniqueness.bankNumberTaken(info.bankNumber()));
+            }
+            if (existingPhoneNumbers.contains(info.phoneNumber())) {
+                problems.add(BranchUniqueness.phoneNumberTaken(info.phoneNumber()));
+            }
+            if (existingNames.contains(info.name())) {
+                problems.add(BranchUniqueness.nameTaken(info.name()));
+            }
+        }
+    }
+
+    private Map<String, City> markUnknownCities(List<BranchCreateDto> items, List<List<String>> errors) {
+        Set<String> cityNames = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (errors.get(i).isEmpty()) {
+                cityNames.add(items.get(i).addressInfo().cityName());
+            }
+        }
+        if (cityNames.isEmpty()) return Map.of();
+
+        Map<String, City> cities = cityRepository.findByNameIn(cityNames).stream()
+                .collect(Collectors.toMap(City::getName, city -> city, (first, second) -> first));
+        for (int i = 0; i < items.size(); i++) {
+            if (!errors.get(i).isEmpty()) continue;
+            String cityName = items.get(i).addressInfo().cityName();
+            if (!cities.containsKey(cityName)) {
+                errors.get(i).add(String.format("Город с наименованием %s не найден", cityName));
+            }
+        }
+        return cities;
+    }
+
+    private static String describe(ConstraintViolation<?> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private record PreparedBranch(int index, Branch branch, List<UUID[]> departmentLinks, List<WorkSchedule> schedules) {
+    }
+}
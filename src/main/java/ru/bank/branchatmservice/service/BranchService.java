@@ -4,10 +4,17 @@ import jakarta.persistence.EntityExistsException;
 import org.apache.coyote.BadRequestException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.bank.branchatmservice.catalog.BranchCatalog;
+import ru.bank.branchatmservice.catalog.BranchCatalogEntry;
+import ru.bank.branchatmservice.catalog.BranchCatalogSnapshot;
+import ru.bank.branchatmservice.catalog.DepartmentIndex;
 import ru.bank.branchatmservice.dto.AddressShortDto;
+import ru.bank.branchatmservice.dto.ArchivedBranchProjection;
 import ru.bank.branchatmservice.dto.BranchCreateDto;
 import ru.bank.branchatmservice.dto.BranchDto;
 import ru.bank.branchatmservice.dto.BranchFullDto;
@@ -17,16 +24,22 @@ import ru.bank.branchatmservice.dto.ScheduleDto;
 import ru.bank.branchatmservice.dto.request.BranchAndAddressInfoRequest;
 import ru.bank.branchatmservice.dto.request.BranchSearchRequest;
 import ru.bank.branchatmservice.dto.request.BranchUpdateRequestDto;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
 import ru.bank.branchatmservice.dto.response.BranchAndAddressInfoResponse;
 import ru.bank.branchatmservice.dto.response.ArchiveBranchResponse;
 import ru.bank.branchatmservice.dto.response.BranchBankNumberDTO;
 import ru.bank.branchatmservice.dto.response.BranchDtoView;
 import ru.bank.branchatmservice.dto.response.BranchListResponse;
 import ru.bank.branchatmservice.dto.response.BranchNameResponse;
+import ru.bank.branchatmservice.dto.response.BranchNamesResponse;
 import ru.bank.branchatmservice.dto.response.BranchSearchResponseDto;
 import ru.bank.branchatmservice.dto.response.BranchUnionDto;
+import ru.bank.branchatmservice.dto.response.CursorPageResponse;
+import ru.bank.branchatmservice.dto.response.FilterPageResponse;
 import ru.bank.branchatmservice.dto.response.MessageResponseDto;
+import ru.bank.branchatmservice.enums.ChangeType;
 import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.event.BranchesChangedEvent;
 import ru.bank.branchatmservice.exception.BranchNotFoundException;
 import ru.bank.branchatmservice.exception.CityNotFoundException;
 import ru.bank.branchatmservice.exception.NotFoundException;
@@ -39,20 +52,31 @@ import ru.bank.branchatmservice.model.City;
 import ru.bank.branchatmservice.model.WorkSchedule;
 import ru.bank.branchatmservice.repository.BranchRepository;
 import ru.bank.branchatmservice.repository.CityRepository;
+import ru.bank.branchatmservice.repository.FilterPageQuery;
 import ru.bank.branchatmservice.repository.WorkScheduleRepository;
 import ru.bank.branchatmservice.specification.BranchSpecifications;
+import ru.bank.branchatmservice.util.KeysetCursor;
+import ru.bank.branchatmservice.util.WeekSchedule;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BranchService {
+    public static final int MAX_BRANCH_NAMES_BATCH = 5000;
+    public static final int MAX_DEPARTMENTS_BATCH = 1000;
+
     private final BranchRepository branchRepository;
     private final WorkScheduleRepository workScheduleRepository;
     private final BranchUpdateService branchUpdateService;
@@ -61,24 +85,53 @@ public class BranchService {
     private final AddressMapper addressMapper;
     private final WorkScheduleMapper workScheduleMapper;
     private final WorkScheduleService workScheduleService;
+    private final BranchCatalog branchCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FilterPageQuery filterPageQuery;
+
+    /**
+     * Страница отделений по фильтру: идентификаторы выбираются с сортировкой и LIMIT в БД,
+     * затем одним запросом загружаются отделения страницы с адресами и графиками.
+     */
+    @Transactional(readOnly = true)
+    public FilterPageResponse<BranchSearchResponseDto> searchBranchesByFilter(BranchSearchRequest branchSearchRequest,
+                                                                              FilterPageRequest pageRequest) {
+        int page = pageRequest.pageNumber();
+        int size = pageRequest.pageSize();
+        pageRequest.validateSort();
 
-    public List<BranchSearchResponseDto> searchBranchesByFilter(BranchSearchRequest branchSearchRequest) {
         Specification<Branch> spec = Specification.where(
                 BranchSpecifications.withBranchInfo(branchSearchRequest.getBranchInfo())
         ).and(
                 BranchSpecifications.withAddressInfo(branchSearchRequest.getAddressInfo())
         );
-        List<Branch> branches = branchRepository.findAll(spec);
-
-        return branches.stream()
-                .map(branch -> {
-                    BranchFullDto branchFullDto = branchMapper.toBranchFullDto(branch);
-                    branchFullDto.setOpen(isBranchOpen(branch));
+        List<UUID> ids = filterPageQuery.findIds(
+                Branch.class, spec, pageRequest, "bankNumber", pageRequest.offset(), size + 1);
+        boolean hasNext = ids.size() > size;
+        List<UUID> pageIds = hasNext ? ids.subList(0, size) : ids;
+
+        List<BranchSearchResponseDto> items = List.of();
+        if (!pageIds.isEmpty()) {
+            Map<UUID, Branch> branchesById = branchRepository.findAllWithAddressByIds(pageIds).stream()
+                    .collect(Collectors.toMap(Branch::getId, Function.identity(), (first, second) -> first));
+            BranchCatalogSnapshot snapshot = branchCatalog.getSnapshot();
+            int now = workScheduleService.currentWeekSecond();
+
+            items = pageIds.stream()
+                    .map(branchesById::get)
+                    .filter(Objects::nonNull)
+                    .map(branch -> {
+                        BranchFullDto branchFullDto = branchMapper.toBranchFullDto(branch);
+                        branchFullDto.setOpen(isBranchOpen(branch, snapshot, now));
+
+                        AddressShortDto addressShortDto = addressMapper.toAddressShortDto(branch.getAddress());
+                        return new BranchSearchResponseDto(branchFullDto, addressShortDto);
+                    })
+                    .toList();
+        }
 
-                    AddressShortDto addressShortDto = addressMapper.toAddressShortDto(branch.getAddress());
-                    return new BranchSearchResponseDto(branchFullDto, addressShortDto);
-                })
-                .collect(Collectors.toList());
+        Long total = pageRequest.isCountRequested() ? branchRepository.count(spec) : null;
+        return new FilterPageResponse<>(items, page, size, hasNext, total);
     }
 
     public BranchAndAddressInfoResponse getBranchAndAddressInfo(BranchAndAddressInfoRequest request) {
@@ -93,11 +146,25 @@ public class BranchService {
     }
 
     public List<BranchShortDto> findBranchesByDepartmentId(UUID departmentId) {
-        List<BranchShortDtoProjection> branches = branchRepository.findBranchesByDepartmentId(departmentId);
+        return branchCatalog.getSnapshot().departments().findByDepartmentId(departmentId);
+    }
 
-        return branches.stream()
-                .map(branch -> new BranchShortDto(branch.getId(), branch.getName()))
-                .toList();
+    /**
+     * Отделения нескольких отделов из индекса в памяти. Для отдела без отделений возвращается пустой список.
+     */
+    public Map<UUID, List<BranchShortDto>> findBranchesByDepartmentIds(List<UUID> departmentIds) {
+        if (departmentIds == null || departmentIds.isEmpty()) {
+            throw new IllegalArgumentException("Список UUID отделов не должен быть пустым");
+        }
+        if (departmentIds.size() > MAX_DEPARTMENTS_BATCH) {
+            throw new IllegalArgumentException(
+                    "За один запрос можно получить отделения не более " + MAX_DEPARTMENTS_BATCH + " отделов");
+        }
+
+        DepartmentIndex departments = branchCatalog.getSnapshot().departments();
+        Map<UUID, List<BranchShortDto>> result = new LinkedHashMap<>();
+        departmentIds.forEach(departmentId -> result.put(departmentId, departments.findByDepartmentId(departmentId)));
+        return result;
     }
 
     public BranchNameResponse getBranchNameByBranchId(UUID bankBranchId) {
@@ -105,6 +172,41 @@ public class BranchService {
                 .orElseThrow(() -> new NotFoundException("Запрашиваемые данные не найдены."));
     }
 
+    /**
+     * Названия отделений по списку UUID. Берутся из каталога в памяти; отсутствующие в нем
+     * идентификаторы дочитываются одним запросом, а не найденные нигде возвращаются в notFound.
+     */
+    public BranchNamesResponse getBranchNamesByIds(List<UUID> branchIds) {
+        if (branchIds == null || branchIds.isEmpty()) {
+            throw new IllegalArgumentException("Список UUID отделений не должен быть пустым");
+        }
+        if (branchIds.size() > MAX_BRANCH_NAMES_BATCH) {
+            throw new IllegalArgumentException(
+                    "За один запрос можно получить не более " + MAX_BRANCH_NAMES_BATCH + " названий отделений");
+        }
+
+        Map<UUID, BranchCatalogEntry> entries = branchCatalog.getSnapshot().entries();
+        Map<UUID, String> names = new LinkedHashMap<>();
+        Set<UUID> misses = new LinkedHashSet<>();
+        for (UUID branchId : branchIds) {
+            BranchCatalogEntry entry = entries.get(branchId);
+            if (entry != null) {
+                names.put(branchId, entry.branch().name());
+            } else {
+                misses.add(branchId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (BranchShortDtoProjection branch : branchRepository.findNamesByIdIn(misses)) {
+                names.put(branch.getId(), branch.getName());
+                misses.remove(branch.getId());
+            }
+        }
+        log.debug("Названия отделений: найдено {}, не найдено {}", names.size(), misses.size());
+        return new BranchNamesResponse(names, List.copyOf(misses));
+    }
+
     public Branch findBranchByBankNumber(String bankNumber) {
         return branchRepository.findByBankNumber(bankNumber)
                 .orElseThrow(() ->
@@ -114,9 +216,16 @@ public class BranchService {
                 );
     }
 
-    public List<BranchBankNumberDTO> getBranchBankNumberByBankNumber(String bankNumber) {
-        log.info("Получение списка номер банка по начальному значению номера банка");
-        List<BranchBankNumberDTO> numberDTOList = branchRepository.findBankNumberDTOsByPrefix(bankNumber);
+    public List<BranchBankNumberDTO> getBranchBankNumberByBankNumber(String bankNumber, Integer limit) {
+        log.debug("Получение списка номер банка по начальному значению номера банка {}", bankNumber);
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Параметр limit должен быть положительным");
+        }
+
+        List<BranchBankNumberDTO> numberDTOList = branchCatalog.getSnapshot().bankNumbers()
+                .findByPrefix(bankNumber, limit == null ? Integer.MAX_VALUE : limit).stream()
+                .map(BranchBankNumberDTO::new)
+                .toList();
         if (numberDTOList.isEmpty()) {
             throw new NotFoundException("Данные не найдены");
         }
@@ -124,7 +233,7 @@ public class BranchService {
     }
 
     public BranchUnionDto findBranchById(UUID branchId) {
-        Branch branch = branchRepository.findById(branchId)
+        Branch branch = branchRepository.findWithWorkScheduleById(branchId)
                 .orElseThrow(() ->
                         new BranchNotFoundException(
                                 String.format("Отделение с id %s не найдено", branchId)
@@ -137,17 +246,25 @@ public class BranchService {
         return new BranchUnionDto(branchDtoView, scheduleDtoList);
     }
 
-    public List<BranchListResponse> getBranches() {
-        List<Branch> branches = branchRepository.findAllWithAddress();
-        return branches.stream()
-                .map(branch -> {
-                    BranchDto branchDto = branchMapper.toBranchDto(branch);
-                    BranchDto updatedBranchDto = branchDto.withOpen(isBranchOpen(branch));
+    public CursorPageResponse<BranchListResponse> getBranches(String cursor, Integer limit) {
+        int pageSize = KeysetCursor.resolveLimit(limit);
+        UUID afterId = KeysetCursor.decode(cursor);
+        int now = workScheduleService.currentWeekSecond();
+
+        List<BranchCatalogEntry> entries = branchCatalog.getSnapshot().page(afterId, pageSize + 1);
+        boolean hasNext = entries.size() > pageSize;
+        if (hasNext) {
+            entries = entries.subList(0, pageSize);
+        }
 
-                    AddressShortDto addressDto = addressMapper.toAddressShortDto(branch.getAddress());
-                    return new BranchListResponse(updatedBranchDto, addressDto);
+        List<BranchListResponse> items = entries.stream()
+                .map(entry -> {
+                    BranchDto updatedBranchDto = entry.branch().withOpen(entry.isOpenAt(now));
+                    return new BranchListResponse(updatedBranchDto, entry.address());
                 })
-                .collect(Collectors.toList());
+                .toList();
+        String nextCursor = hasNext ? KeysetCursor.encode(entries.get(entries.size() - 1).branch().id()) : null;
+        return new CursorPageResponse<>(items, nextCursor);
     }
 
     @Transactional
@@ -165,7 +282,8 @@ public class BranchService {
 
         branchUpdateService.updateWorkSchedule(branch.getId(), branchUpdateRequestDto.getWorkSchedule());
 
-        branchRepository.save(branch);
+        saveAndFlush(branch);
+        eventPublisher.publishEvent(new BranchesChangedEvent(List.of(branchId), ChangeType.UPDATED));
 
         log.info("Successfully updated branch with id: {}", branchId);
     }
@@ -174,17 +292,9 @@ public class BranchService {
     public MessageResponseDto createBranch(BranchCreateDto newBranch) {
         Branch branch = branchMapper.ofBranchCreateDto(newBranch.branchInfo(), newBranch.addressInfo(), false);
 
-        List<String> conflicts = new ArrayList<>();
-        if (branchRepository.existsByBankNumber(branch.getBankNumber())) {
-            conflicts.add(String.format("Отделение с таким номером %s уже существует", branch.getBankNumber()));
-        }
-        if (branchRepository.existsByPhoneNumber(branch.getPhoneNumber())) {
-            conflicts.add(String.format("Отделение с таким номером телефона %s уже существует", branch.getPhoneNumber()));
-        }
-        if (branchRepository.existsByName(branch.getName())) {
-            conflicts.add(String.format("Отделение с таким именем %s уже существует", branch.getName()));
-        }
-
+        List<String> conflicts = BranchUniqueness.conflicts(
+                branchRepository.findConflicting(null, branch.getName(), branch.getBankNumber(), branch.getPhoneNumber()),
+                branch.getName(), branch.getBankNumber(), branch.getPhoneNumber());
         if (!conflicts.isEmpty()) {
             throw new EntityExistsException(String.join("; ", conflicts));
         }
@@ -195,7 +305,7 @@ public class BranchService {
                 ));
         branch.getAddress().setCity(city);
 
-        branchRepository.saveAndFlush(branch);
+        saveAndFlush(branch);
 
         for (UUID departmentId : newBranch.departmentIds()) {
             branchRepository.insertBranchDepartmentConnection(branch.getId(), departmentId);
@@ -208,6 +318,7 @@ public class BranchService {
         });
 
         workScheduleRepository.saveAll(workScheduleList);
+        eventPublisher.publishEvent(new BranchesChangedEvent(List.of(branch.getId()), ChangeType.CREATED));
 
         return new MessageResponseDto(
                 "Отделение успешно добавлено",
@@ -215,35 +326,67 @@ public class BranchService {
         );
     }
 
+    /**
+     * Запись с немедленным flush: нарушение уникальности, пропущенное предварительной проверкой
+     * из-за параллельной записи, превращается в 409 с тем же сообщением, что и у проверки.
+     */
+    private void saveAndFlush(Branch branch) {
+        try {
+            branchRepository.saveAndFlush(branch);
+        } catch (DataIntegrityViolationException e) {
+            throw BranchUniqueness.translate(e, branch.getName(), branch.getBankNumber(), branch.getPhoneNumber());
+        }
+    }
+
+    /**
+     * Архивирует отделения одним условным UPDATE (см. {@link BranchRepository#archiveByIds}).
+     * Отсутствующие и уже архивные отделения определяются по результату того же запроса;
+     * если такие есть, исключение откатывает транзакцию вместе с UPDATE.
+     */
+    @Transactional
     public ArchiveBranchResponse archiveBranchesId(List<UUID> branchListDto) throws BadRequestException {
         if (branchListDto.isEmpty())
             throw new BadRequestException("Страница не найдена");
 
-        List<Branch> branches = branchRepository.findAllByBranchId(branchListDto)
-                .filter(list -> list.size() == branchListDto.size())
-                .orElseThrow(() -> new NotFoundException("Такого отделения не существует"));
-
+        Set<UUID> requestedIds = new LinkedHashSet<>(branchListDto);
+        Map<UUID, ArchivedBranchProjection> rows = branchRepository.archiveByIds(requestedIds).stream()
+                .collect(Collectors.toMap(ArchivedBranchProjection::getBranchId, Function.identity()));
 
-        for (Branch branch : branches) {
-            if (branch.isClosed())
-                throw new EntityExistsException("Отделение " + branch.getId() + " уже находится в архиве.");
+        List<UUID> missingIds = requestedIds.stream().filter(id -> !rows.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Такого отделения не существует: " + joinIds(missingIds));
+        }
+        List<UUID> alreadyArchivedIds = requestedIds.stream()
+                .filter(id -> !Boolean.TRUE.equals(rows.get(id).getArchived()))
+                .toList();
+        if (alreadyArchivedIds.size() == 1) {
+            throw new EntityExistsException("Отделение " + alreadyArchivedIds.get(0) + " уже находится в архиве.");
+        }
+        if (!alreadyArchivedIds.isEmpty()) {
+            throw new EntityExistsException("Отделения " + joinIds(alreadyArchivedIds) + " уже находятся в архиве.");
         }
 
         ArchiveBranchResponse archiveBranchResponse = new ArchiveBranchResponse();
-
-        archiveBranchResponse.setArchived(branches.stream()
-                .peek(b -> b.setClosed(true))
-                .map(branchMapper::toArchiveBranchResponse)
+        archiveBranchResponse.setArchived(requestedIds.stream()
+                .map(id -> branchMapper.toArchiveBranchResponse(rows.get(id)))
                 .toList());
 
-        branchRepository.saveAll(branches);
+        eventPublisher.publishEvent(new BranchesChangedEvent(List.copyOf(requestedIds), ChangeType.ARCHIVED));
         return archiveBranchResponse;
     }
 
-    private boolean isBranchOpen(Branch branch) {
+    private static String joinIds(List<UUID> ids) {
+        return ids.stream().map(UUID::toString).collect(Collectors.joining(", "));
+    }
+
+    private boolean isBranchOpen(Branch branch, BranchCatalogSnapshot snapshot, int weekSecond) {
         if (branch.isClosed()) {
             return false;
         }
-        return workScheduleService.isBranchOpenNow(branch.getWorkSchedule());
+        BranchCatalogEntry entry = snapshot.entries().get(branch.getId());
+        WeekSchedule workSchedule = entry != null
+                ? entry.workSchedule()
+                : WeekSchedule.compile(branch.getWorkSchedule());
+        return workSchedule.isOpenAt(weekSecond);
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package ru.bank.branchatmservice.service;
+
+import jakarta.persistence.EntityExistsException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.bank.branchatmservice.dto.BranchUniqueKeysProjection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Уникальность имени, номера и телефона отделения: сообщения о конфликтах для предварительной проверки
+ * и перевод нарушений ограничений uq_branch_* в те же сообщения, если запись опередил параллельный запрос.
+ */
+final class BranchUniqueness {
+    static final String NAME_CONSTRAINT = "uq_branch_name";
+    static final String BANK_NUMBER_CONSTRAINT = "uq_branch_bank_number";
+    static final String PHONE_NUMBER_CONSTRAINT = "uq_branch_phone_number";
+
+    private BranchUniqueness() {
+    }
+
+    /**
+     * Сообщения о совпадениях с найденными отделениями; поля со значением null не проверяются.
+     */
+    static List<String> conflicts(Collection<BranchUniqueKeysProjection> existing,
+                                  String name, String bankNumber, String phoneNumber) {
+        List<String> conflicts = new ArrayList<>();
+        if (bankNumber != null && existing.stream().anyMatch(b -> bankNumber.equals(b.getBankNumber()))) {
+            conflicts.add(bankNumberTaken(bankNumber));
+        }
+        if (phoneNumber != null && existing.stream().anyMatch(b -> phoneNumber.equals(b.getPhoneNumber()))) {
+            conflicts.add(phoneNumberTaken(phoneNumber));
+        }
+        if (name != null && existing.stream().anyMatch(b -> name.equals(b.getName()))) {
+            conflicts.add(nameTaken(name));
+        }
+        return conflicts;
+    }
+
+    /**
+     * Нарушение ограничения uq_branch_* — {@link EntityExistsException} с сообщением по полю,
+     * любое другое нарушение возвращается без изменений.
+     */
+    static RuntimeException translate(DataIntegrityViolationException e,
+                                      String name, String bankNumber, String phoneNumber) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (message == null) return e;
+        if (message.contains(BANK_NUMBER_CONSTRAINT)) return new EntityExistsException(bankNumberTaken(bankNumber), e);
+        if (message.contains(PHONE_NUMBER_CONSTRAINT)) return new EntityExistsException(phoneNumberTaken(phoneNumber), e);
+        if (message.contains(NAME_CONSTRAINT)) return new EntityExistsException(nameTaken(name), e);
+        return e;
+    }
+
+    static String nameTaken(String name) {
+        return String.format("Отделение с таким именем %s уже существует", name);
+    }
+
+    static String bankNumberTaken(String bankNumber) {
+        return String.format("Отделение с таким номером %s уже существует", bankNumber);
+    }
+
+    static String phoneNumberTaken(String phoneNumber) {
+        return String.format("Отделение с таким номером телефона %s уже существует", phoneNumber);
+    }
+}
@@ -1,5 +1,7 @@
 package ru.bank.branchatmservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityExistsException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +11,7 @@ import ru.bank.branchatmservice.dto.request.AddressUpdateDto;
 import ru.bank.branchatmservice.dto.request.BranchInfoUpdateDto;
 import ru.bank.branchatmservice.dto.request.WorkScheduleUpdateDto;
 import ru.bank.branchatmservice.enums.EntityType;
-import ru.bank.branchatmservice.enums.SchedualOptional;
+import ru.bank.branchatmservice.enums.WeekDay;
 import ru.bank.branchatmservice.exception.NotFoundException;
 import ru.bank.branchatmservice.mapper.WorkScheduleMapper;
 import ru.bank.branchatmservice.model.Address;
@@ -20,7 +22,9 @@ import ru.bank.branchatmservice.repository.BranchRepository;
 import ru.bank.branchatmservice.repository.WorkScheduleRepository;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Slf4j
@@ -32,34 +36,32 @@ public class BranchUpdateService {
     private final CityService cityService;
     private final WorkScheduleMapper workScheduleMapper;
     private final BranchRepository branchRepository;
+    private final ObjectMapper objectMapper;
 
     @Transactional
     public void updateBranchInfo(Branch branch, BranchInfoUpdateDto branchInfo) {
         if (branchInfo == null) return;
 
-        if (branchInfo.getName() != null) {
-            if (branchRepository.existsByName(branchInfo.getName())) {
-                throw new EntityExistsException(
-                        String.format("Отделение с таким именем %s уже существует", branchInfo.getName())
-                );
+        String name = branchInfo.getName();
+        String bankNumber = branchInfo.getBankNumber();
+        String phoneNumber = branchInfo.getPhoneNumber();
+        if (name != null || bankNumber != null || phoneNumber != null) {
+            List<String> conflicts = BranchUniqueness.conflicts(
+                    branchRepository.findConflicting(branch.getId(), name, bankNumber, phoneNumber),
+                    name, bankNumber, phoneNumber);
+            if (!conflicts.isEmpty()) {
+                throw new EntityExistsException(String.join("; ", conflicts));
             }
-            branch.setName(branchInfo.getName());
         }
-        if (branchInfo.getBankNumber() != null) {
-            if (branchRepository.existsByBankNumber(branchInfo.getBankNumber())) {
-                throw new EntityExistsException(
-                        String.format("Отделение с таким номером %s уже существует", branchInfo.getBankNumber())
-                );
-            }
-            branch.setBankNumber(branchInfo.getBankNumber());
+
+        if (name != null) {
+            branch.setName(name);
         }
-        if (branchInfo.getPhoneNumber() != null) {
-            if (branchRepository.existsByPhoneNumber(branchInfo.getPhoneNumber())) {
-                throw new EntityExistsException(
-                        String.format("Отделение с таким номером телефона %s уже существует", branchInfo.getPhoneNumber())
-                );
-            }
-            branch.setPhoneNumber(branchInfo.getPhoneNumber());
+        if (bankNumber != null) {
+            branch.setBankNumber(bankNumber);
+        }
+        if (phoneNumber != null) {
+            branch.setPhoneNumber(phoneNumber);
         }
         if (branchInfo.getHasCurrencyExchange() != null) {
             branch.setHasCurrencyExchange(branchInfo.getHasCurrencyExchange());
@@ -104,58 +106,60 @@ public class BranchUpdateService {
         }
     }
 
+    /**
+     * Операции ADD/CHANGE/DELETE применяются по порядку за один проход к графику, индексированному по дню недели,
+     * и каждая проверяется по уже измененному состоянию. Итоговый график записывается одним запросом.
+     */
     @Transactional
     public void updateWorkSchedule(UUID branchId, List<WorkScheduleUpdateDto> workScheduleDtos) {
-        if (workScheduleDtos == null) return;
-
-        List<WorkSchedule> workSchedules = workScheduleRepository.findAllByEntityIdAndEntityType(
-                branchId, EntityType.BRANCH);
-
-        workScheduleDtos.stream()
-                .filter(x ->
-                        x.getOptional() == SchedualOptional.DELETE || x.getOptional() == SchedualOptional.CHANGE)
-                .forEach(x -> {
-                    workSchedules.stream()
-                            .filter(ws -> ws.getWeekDay().getDayNumber() == x.getWeekDay())
-                            .findAny()
-                            .orElseThrow(() -> new NotFoundException(
-                                            String.format("День %s в графике работы отделения не найден", x.getWeekDay())
-                                    )
-                            );
-                });
-
-        workScheduleDtos.stream()
-                .filter(x -> x.getOptional() == SchedualOptional.DELETE)
-                .forEach(w -> {
-                    workSchedules.forEach(workSchedule -> {
-                        if(workSchedule.getWeekDay().getDayNumber() == w.getWeekDay()) {
-                            workScheduleRepository.delete(workSchedule);
-                        }
-                    });
-                });
-
-        workScheduleDtos.stream()
-                .filter( x -> x.getOptional() == SchedualOptional.CHANGE)
-                .forEach(w -> workSchedules.forEach(workSchedule -> {
-                    if (workSchedule.getWeekDay().getDayNumber() == w.getWeekDay()) {
-                        updateWorkSchedule(workSchedule, w);
-                        workScheduleRepository.save(workSchedule);
+        if (workScheduleDtos == null || workScheduleDtos.isEmpty()) return;
+
+        // индекс — номер дня недели (1..7)
+        WorkSchedule[] days = new WorkSchedule[WeekDay.values().length + 1];
+        workScheduleRepository.findAllByEntityIdAndEntityType(branchId, EntityType.BRANCH)
+                .forEach(schedule -> days[schedule.getWeekDay().getDayNumber()] = schedule);
+
+        for (WorkScheduleUpdateDto dto : workScheduleDtos) {
+            int day = WeekDay.fromNumber(dto.getWeekDay()).getDayNumber();
+            WorkSchedule current = days[day];
+            switch (dto.getOptional()) {
+                case ADD -> {
+                    if (current != null) {
+                        throw new EntityExistsException(
+                                String.format("День %s уже есть в графике работы отделения", day)
+                        );
                     }
-                }));
-
-        workScheduleDtos.stream()
-                .filter(x -> x.getOptional() == SchedualOptional.ADD)
-                .map(workScheduleMapper::toWorkSchedule)
-                .forEach(w -> {
-                    workSchedules.forEach(workSchedule -> {
-                        if (workSchedule.getWeekDay() == w.getWeekDay()) {
-                            throw new EntityExistsException();
-                        }
-                    });
-                    w.setEntityType(EntityType.BRANCH);
-                    w.setEntityId(branchId);
-                    workScheduleRepository.save(w);
-                });
+                    days[day] = workScheduleMapper.toWorkSchedule(dto);
+                }
+                case CHANGE -> {
+                    if (current == null) throw scheduleDayNotFound(day);
+                    // копия, чтобы Hibernate не записал изменения управляемой сущности отдельным UPDATE
+                    WorkSchedule changed = WorkSchedule.builder()
+                            .weekDay(current.getWeekDay())
+                            .openingTime(current.getOpeningTime())
+                            .closingTime(current.getClosingTime())
+                            .build();
+                    updateWorkSchedule(changed, dto);
+                    days[day] = changed;
+                }
+                case DELETE -> {
+                    if (current == null) throw scheduleDayNotFound(day);
+                    days[day] = null;
+                }
+            }
+        }
+
+        List<WorkSchedule> result = Arrays.stream(days).filter(Objects::nonNull).toList();
+        try {
+            workScheduleRepository.mergeDays(EntityType.BRANCH.name(), branchId,
+                    objectMapper.writeValueAsString(workScheduleMapper.ofWorkSchedules(result)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать график работы отделения " + branchId, e);
+        }
+    }
+
+    private static NotFoundException scheduleDayNotFound(int day) {
+        return new NotFoundException(String.format("День %s в графике работы отделения не найден", day));
     }
 
     public void updateWorkSchedule(WorkSchedule targetWorkSchedule, WorkScheduleUpdateDto workScheduleUpdateDto) {
@@ -0,0 +1,151 @@
+package ru.bank.branchatmservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.bank.branchatmservice.dto.BranchDto;
+import ru.bank.branchatmservice.dto.ChangedIdProjection;
+import ru.bank.branchatmservice.dto.response.BranchListResponse;
+import ru.bank.branchatmservice.dto.response.ChangeFeedResponse;
+import ru.bank.branchatmservice.dto.response.ChangeFeedResponse.AtmChange;
+import ru.bank.branchatmservice.dto.response.ChangeFeedResponse.BranchChange;
+import ru.bank.branchatmservice.mapper.ATMMapper;
+import ru.bank.branchatmservice.mapper.AddressMapper;
+import ru.bank.branchatmservice.mapper.BranchMapper;
+import ru.bank.branchatmservice.model.ATM;
+import ru.bank.branchatmservice.model.Branch;
+import ru.bank.branchatmservice.repository.ATMRepository;
+import ru.bank.branchatmservice.repository.BranchRepository;
+import ru.bank.branchatmservice.util.KeysetCursor;
+import ru.bank.branchatmservice.util.WeekSchedule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongFunction;
+
+/**
+ * Инкрементальная выгрузка изменений отделений и банкоматов по версии изменения.
+ * Версия (change_version) — идентификатор транзакции, изменившей строку, ее адрес или график, поэтому
+ * у всех строк одной транзакции она общая. Лента отдает только версии ниже горизонта БД: транзакции
+ * с меньшей версией уже завершены, и версия меньше уже полученной клиентом появиться не может.
+ * Изменения долгой незавершенной транзакции задерживают горизонт, но не теряются.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    private final BranchRepository branchRepository;
+    private final ATMRepository atmRepository;
+    private final WorkScheduleService workScheduleService;
+    private final BranchMapper branchMapper;
+    private final AddressMapper addressMapper;
+    private final ATMMapper atmMapper;
+
+    /**
+     * Изменения после версии {@code since}: около {@code limit} отделений и {@code limit} банкоматов.
+     * Строки одной версии не разрываются между страницами, поэтому страница может оказаться больше limit.
+     * Если одна из выборок обрезана, возвращаемая версия не превышает последнюю версию обрезанной выборки,
+     * чтобы следующий запрос не пропустил оставшиеся изменения (уже полученные строки могут прийти повторно).
+     * Версии берутся из выборки идентификаторов: перечитанная после нее сущность могла успеть измениться,
+     * тогда она придет с прежней версией сейчас и еще раз со своей новой версией.
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse getChanges(Long since, Integer limit) {
+        long fromVersion = since == null ? 0 : since;
+        if (fromVersion < 0) {
+            throw new IllegalArgumentException("Версия since не может быть отрицательной");
+        }
+        int pageSize = KeysetCursor.resolveLimit(limit);
+        long horizon = branchRepository.findChangeVersionHorizon();
+
+        List<ChangedIdProjection> branchIds =
+                branchRepository.findIdsChangedSince(fromVersion, horizon, Limit.of(pageSize + 1));
+        boolean branchesTruncated = branchIds.size() > pageSize;
+        Map<UUID, Long> branchVersions = versionsById(branchIds, pageSize, branchRepository::findIdsWithChangeVersion);
+        List<Branch> branches = branchVersions.isEmpty() ? List.of() : branchRepository
+                .findAllWithAddressByIds(List.copyOf(branchVersions.keySet())).stream()
+                .distinct()
+                .sorted(Comparator.comparingLong(branch -> branchVersions.get(branch.getId())))
+                .toList();
+
+        List<ChangedIdProjection> atmIds =
+                atmRepository.findIdsChangedSince(fromVersion, horizon, Limit.of(pageSize + 1));
+        boolean atmsTruncated = atmIds.size() > pageSize;
+        Map<UUID, Long> atmVersions = versionsById(atmIds, pageSize, atmRepository::findIdsWithChangeVersion);
+        List<ATM> atms = atmVersions.isEmpty() ? List.of() : atmRepository
+                .findAllByIdIn(List.copyOf(atmVersions.keySet())).stream()
+                .sorted(Comparator.comparingLong(atm -> atmVersions.get(atm.getId())))
+                .toList();
+
+        int now = workScheduleService.currentWeekSecond();
+        List<BranchChange> changedBranches = new ArrayList<>();
+        List<UUID> archivedBranchIds = new ArrayList<>();
+        for (Branch branch : branches) {
+            if (branch.isClosed()) {
+                archivedBranchIds.add(branch.getId());
+                continue;
+            }
+            BranchDto branchDto = branchMapper.toBranchDto(branch)
+                    .withOpen(WeekSchedule.compile(branch.getWorkSchedule()).isOpenAt(now));
+            BranchListResponse branchResponse =
+                    new BranchListResponse(branchDto, addressMapper.toAddressShortDto(branch.getAddress()));
+            changedBranches.add(new BranchChange(branchVersions.get(branch.getId()), branchResponse));
+        }
+
+        List<AtmChange> changedAtms = new ArrayList<>();
+        List<UUID> archivedAtmIds = new ArrayList<>();
+        for (ATM atm : atms) {
+            if (atm.isClosed()) {
+                archivedAtmIds.add(atm.getId());
+                continue;
+            }
+            changedAtms.add(new AtmChange(atm.getId(), atmVersions.get(atm.getId()), atmMapper.toAtmFilterResponseDto(atm)));
+        }
+
+        long branchesVersion = lastVersion(branchVersions, fromVersion);
+        long atmsVersion = lastVersion(atmVersions, fromVersion);
+        long nextVersion;
+        if (branchesTruncated && atmsTruncated) {
+            nextVersion = Math.min(branchesVersion, atmsVersion);
+        } else if (branchesTruncated) {
+            nextVersion = branchesVersion;
+        } else if (atmsTruncated) {
+            nextVersion = atmsVersion;
+        } else {
+            nextVersion = Math.max(branchesVersion, atmsVersion);
+        }
+        log.debug("Изменения после версии {}: отделений {}, банкоматов {}, следующая версия {}",
+                fromVersion, branches.size(), atms.size(), nextVersion);
+
+        return new ChangeFeedResponse(nextVersion, branchesTruncated || atmsTruncated,
+                changedBranches, changedAtms, archivedBranchIds, archivedAtmIds);
+    }
+
+    /**
+     * Версии первых {@code pageSize} строк выборки в порядке возрастания версии. Если выборка обрезана
+     * внутри строк одной версии, эта версия дочитывается целиком через {@code versionIds}.
+     */
+    private static Map<UUID, Long> versionsById(List<ChangedIdProjection> changed, int pageSize,
+                                                LongFunction<List<UUID>> versionIds) {
+        Map<UUID, Long> versions = new LinkedHashMap<>();
+        changed.stream().limit(pageSize).forEach(row -> versions.put(row.getId(), row.getChangeVersion()));
+        if (changed.size() > pageSize) {
+            long lastVersion = changed.get(pageSize - 1).getChangeVersion();
+            if (changed.get(pageSize).getChangeVersion() == lastVersion) {
+                versionIds.apply(lastVersion).forEach(id -> versions.putIfAbsent(id, lastVersion));
+            }
+        }
+        return versions;
+    }
+
+    private static long lastVersion(Map<UUID, Long> versions, long fromVersion) {
+        return versions.values().stream().mapToLong(Long::longValue).max().orElse(fromVersion);
+    }
+}
@@ -13,8 +13,13 @@ import java.util.UUID;
 public class CityService {
     private final CityRepository cityRepository;
 
+    /**
+     * Id города берется из кэша по имени, сам город — через findById из региона второго уровня
+     * и принадлежит текущему контексту персистентности.
+     */
     public City getCityByName(String nameCity){
-        return cityRepository.findByName(nameCity)
+        return cityRepository.findIdByName(nameCity)
+                .flatMap(cityRepository::findById)
                 .orElseThrow(() -> new CityNotFoundException(
                         String.format("Город с наименованием %s не найден", nameCity)
                 )
@@ -0,0 +1,175 @@
+package ru.bank.branchatmservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.bank.branchatmservice.dto.AtmExportProjection;
+import ru.bank.branchatmservice.dto.BranchExportProjection;
+import ru.bank.branchatmservice.enums.ExportFormat;
+import ru.bank.branchatmservice.repository.ATMRepository;
+import ru.bank.branchatmservice.repository.BranchRepository;
+import ru.bank.branchatmservice.util.CsvFormat;
+import ru.bank.branchatmservice.util.ScheduleText;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка всей сети отделений и банкоматов в NDJSON или CSV.
+ * Строки читаются серверным курсором (fetch size в запросах репозиториев) как проекции,
+ * которые не попадают в контекст персистентности, и сразу пишутся в выходной поток:
+ * расход памяти не зависит от количества строк.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+    private static final List<ExportColumn<BranchExportProjection>> BRANCH_COLUMNS = List.of(
+            new ExportColumn<>("id", BranchExportProjection::getId),
+            new ExportColumn<>("name", BranchExportProjection::getName),
+            new ExportColumn<>("bankNumber", BranchExportProjection::getBankNumber),
+            new ExportColumn<>("type", BranchExportProjection::getType),
+            new ExportColumn<>("phoneNumber", BranchExportProjection::getPhoneNumber),
+            new ExportColumn<>("hasCurrencyExchange", BranchExportProjection::getHasCurrencyExchange),
+            new ExportColumn<>("hasPandus", BranchExportProjection::getHasPandus),
+            new ExportColumn<>("isClosed", BranchExportProjection::getIsClosed),
+            new ExportColumn<>("city", BranchExportProjection::getCity),
+            new ExportColumn<>("streetType", BranchExportProjection::getStreetType),
+            new ExportColumn<>("street", BranchExportProjection::getStreet),
+            new ExportColumn<>("house", BranchExportProjection::getHouse),
+            new ExportColumn<>("fullAddress", BranchExportProjection::getFullAddress),
+            new ExportColumn<>("latitude", BranchExportProjection::getLatitude),
+            new ExportColumn<>("longitude", BranchExportProjection::getLongitude),
+            new ExportColumn<>("metroStation", BranchExportProjection::getMetroStation),
+            ExportColumn.schedule(BranchExportProjection::getWorkSchedule)
+    );
+
+    private static final List<ExportColumn<AtmExportProjection>> ATM_COLUMNS = List.of(
+            new ExportColumn<>("id", AtmExportProjection::getId),
+            new ExportColumn<>("number", AtmExportProjection::getNumber),
+            new ExportColumn<>("inventoryNumber", AtmExportProjection::getInventoryNumber),
+            new ExportColumn<>("branchId", AtmExportProjection::getBranchId),
+            new ExportColumn<>("installationLocation", AtmExportProjection::getInstallationLocation),
+            new ExportColumn<>("construction", AtmExportProjection::getConstruction),
+            new ExportColumn<>("hasCashDeposit", AtmExportProjection::getHasCashDeposit),
+            new ExportColumn<>("hasNfc", AtmExportProjection::getHasNfc),
+            new ExportColumn<>("isClosed", AtmExportProjection::getIsClosed),
+            new ExportColumn<>("hour24", AtmExportProjection::getIs24h),
+            new ExportColumn<>("city", AtmExportProjection::getCity),
+            new ExportColumn<>("streetType", AtmExportProjection::getStreetType),
+            new ExportColumn<>("street", AtmExportProjection::getStreet),
+            new ExportColumn<>("house", AtmExportProjection::getHouse),
+            new ExportColumn<>("fullAddress", AtmExportProjection::getFullAddress),
+            new ExportColumn<>("latitude", AtmExportProjection::getLatitude),
+            new ExportColumn<>("longitude", AtmExportProjection::getLongitude),
+            new ExportColumn<>("metroStation", AtmExportProjection::getMetroStation),
+            ExportColumn.schedule(AtmExportProjection::getWorkSchedule)
+    );
+
+    private final BranchRepository branchRepository;
+    private final ATMRepository atmRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportBranches(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<BranchExportProjection> rows = branchRepository.streamAllForExport()) {
+            long count = write(format, BRANCH_COLUMNS, rows.iterator(), out);
+            log.info("Выгружено отделений: {}, формат {}", count, format);
+            return count;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportAtms(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<AtmExportProjection> rows = atmRepository.streamAllForExport()) {
+            long count = write(format, ATM_COLUMNS, rows.iterator(), out);
+            log.info("Выгружено банкоматов: {}, формат {}", count, format);
+            return count;
+        }
+    }
+
+    private <T> long write(ExportFormat format, List<ExportColumn<T>> columns, Iterator<T> rows, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = format == ExportFormat.CSV
+                ? writeCsv(columns, rows, writer)
+                : writeNdjson(columns, rows, writer);
+        writer.flush();
+        return count;
+    }
+
+    private <T> long writeNdjson(List<ExportColumn<T>> columns, Iterator<T> rows, Writer writer) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            while (rows.hasNext()) {
+                T row = rows.next();
+                generator.writeStartObject();
+                for (ExportColumn<T> column : columns) {
+                    Object value = column.value().apply(row);
+                    generator.writeObjectField(column.name(),
+                            column.schedule() ? ScheduleText.parse((String) value) : value);
+                }
+                generator.writeEndObject();
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    private <T> long writeCsv(List<ExportColumn<T>> columns, Iterator<T> rows, Writer writer) throws IOException {
+        writeCsvLine(writer, columns.stream().map(ExportColumn::name).toList());
+        long count = 0;
+        List<Object> values = new ArrayList<>(columns.size());
+        while (rows.hasNext()) {
+            T row = rows.next();
+            values.clear();
+            for (ExportColumn<T> column : columns) {
+                values.add(column.value().apply(row));
+            }
+            writeCsvLine(writer, values);
+            count++;
+        }
+        return count;
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(CsvFormat.escape(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private record ExportColumn<T>(String name, Function<T, Object> value, boolean schedule) {
+        ExportColumn(String name, Function<T, Object> value) {
+            this(name, value, false);
+        }
+
+        static <T> ExportColumn<T> schedule(Function<T, Object> value) {
+            return new ExportColumn<>("workSchedule", value, true);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ru.bank.branchatmservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.bank.branchatmservice.catalog.AtmCatalog;
+import ru.bank.branchatmservice.catalog.BranchCatalog;
+import ru.bank.branchatmservice.catalog.GeoPoint;
+import ru.bank.branchatmservice.dto.request.MapViewportRequest;
+import ru.bank.branchatmservice.dto.response.MapClusterDto;
+import ru.bank.branchatmservice.dto.response.MapViewportResponse;
+import ru.bank.branchatmservice.enums.EntityType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Отдает объекты карты в области просмотра из пространственных индексов каталогов.
+ * На мелком масштабе точки объединяются в кластеры по сетке, размер ячейки которой
+ * зависит от масштаба; начиная с {@link #MAX_CLUSTER_ZOOM} + 1 возвращаются отдельные точки,
+ * но не более {@link #MAX_POINTS}, с признаком {@code truncated}, если в области их больше.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MapService {
+    static final int MAX_ZOOM = 22;
+    static final int MAX_CLUSTER_ZOOM = 15;
+    static final int MAX_POINTS = 1000;
+
+    /** Размер ячейки кластеризации на нулевом масштабе: четверть тайла (360 / 4 градусов). */
+    private static final double ZERO_ZOOM_CLUSTER_SIZE = 90.0;
+
+    private final AtmCatalog atmCatalog;
+    private final BranchCatalog branchCatalog;
+
+    public MapViewportResponse getMapClusters(MapViewportRequest request) {
+        validate(request);
+
+        int zoom = request.zoom();
+        boolean withAtms = request.entityType() == null || request.entityType() == EntityType.ATM;
+        boolean withBranches = request.entityType() == null || request.entityType() == EntityType.BRANCH;
+        if (zoom > MAX_CLUSTER_ZOOM) {
+            return getPoints(request, withAtms, withBranches);
+        }
+
+        double clusterSize = ZERO_ZOOM_CLUSTER_SIZE / (1L << zoom);
+        Map<Long, Cluster> clusters = new HashMap<>();
+        Consumer<GeoPoint> collector =
+                point -> clusters.computeIfAbsent(clusterKey(point, clusterSize), key -> new Cluster()).add(point);
+        if (withAtms) {
+            atmCatalog.getSnapshot().locations().forEachInBox(
+                    request.minLatitude(), request.minLongitude(),
+                    request.maxLatitude(), request.maxLongitude(), collector);
+        }
+        if (withBranches) {
+            branchCatalog.getSnapshot().locations().forEachInBox(
+                    request.minLatitude(), request.minLongitude(),
+                    request.maxLatitude(), request.maxLongitude(), collector);
+        }
+
+        log.debug("Кластеров в области просмотра: {}, масштаб {}", clusters.size(), zoom);
+        return new MapViewportResponse(clusters.values().stream().map(Cluster::toDto).toList(), false);
+    }
+
+    /**
+     * Отдельные точки: каждого типа читается не больше {@link #MAX_POINTS} + 1, лимит делится между
+     * банкоматами и отделениями поровну, а недобранную одним типом часть получает другой.
+     */
+    private MapViewportResponse getPoints(MapViewportRequest request, boolean withAtms, boolean withBranches) {
+        List<GeoPoint> atms = withAtms
+                ? atmCatalog.getSnapshot().locations().findInBox(request.minLatitude(), request.minLongitude(),
+                        request.maxLatitude(), request.maxLongitude(), MAX_POINTS + 1)
+                : List.of();
+        List<GeoPoint> branches = withBranches
+                ? branchCatalog.getSnapshot().locations().findInBox(request.minLatitude(), request.minLongitude(),
+                        request.maxLatitude(), request.maxLongitude(), MAX_POINTS + 1)
+                : List.of();
+
+        int atmQuota = Math.min(atms.size(), Math.max(MAX_POINTS / 2, MAX_POINTS - branches.size()));
+        int branchQuota = Math.min(branches.size(), MAX_POINTS - atmQuota);
+        boolean truncated = atmQuota < atms.size() || branchQuota < branches.size();
+
+        List<MapClusterDto> points = new ArrayList<>(atmQuota + branchQuota);
+        atms.subList(0, atmQuota).forEach(point -> points.add(toPointDto(point)));
+        branches.subList(0, branchQuota).forEach(point -> points.add(toPointDto(point)));
+        log.debug("Точек в области просмотра: {}, обрезано: {}, масштаб {}", points.size(), truncated, request.zoom());
+        return new MapViewportResponse(points, truncated);
+    }
+
+    private void validate(MapViewportRequest request) {
+        if (request.minLatitude() == null || request.minLongitude() == null
+                || request.maxLatitude() == null || request.maxLongitude() == null || request.zoom() == null) {
+            throw new IllegalArgumentException("Не заданы границы области просмотра или масштаб");
+        }
+        if (request.zoom() < 0 || request.zoom() > MAX_ZOOM) {
+            throw new IllegalArgumentException("Масштаб должен быть в диапазоне от 0 до " + MAX_ZOOM);
+        }
+        if (!isLatitude(request.minLatitude()) || !isLatitude(request.maxLatitude())
+                || !isLongitude(request.minLongitude()) || !isLongitude(request.maxLongitude())) {
+            throw new IllegalArgumentException("Некорректные координаты области просмотра");
+        }
+        if (request.minLatitude() > request.maxLatitude() || request.minLongitude() > request.maxLongitude()) {
+            throw new IllegalArgumentException("Минимальные координаты области просмотра больше максимальных");
+        }
+    }
+
+    // сравнение через <= отсекает и NaN
+    private static boolean isLatitude(double latitude) {
+        return Math.abs(latitude) <= 90;
+    }
+
+    private static boolean isLongitude(double longitude) {
+        return Math.abs(longitude) <= 180;
+    }
+
+    private static long clusterKey(GeoPoint point, double clusterSize) {
+        long row = (long) Math.floor(point.latitude() / clusterSize);
+        long column = (long) Math.floor(point.longitude() / clusterSize);
+        return (row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static MapClusterDto toPointDto(GeoPoint point) {
+        return new MapClusterDto(
+                point.latitude(),
+                point.longitude(),
+                1,
+                point.entityType() == EntityType.ATM ? 1 : 0,
+                point.entityType() == EntityType.BRANCH ? 1 : 0,
+                point.id(),
+                point.entityType()
+        );
+    }
+
+    private static final class Cluster {
+        private int atmCount;
+        private int branchCount;
+        private double latitudeSum;
+        private double longitudeSum;
+        private GeoPoint single;
+
+        void add(GeoPoint point) {
+            if (point.entityType() == EntityType.ATM) {
+                atmCount++;
+            } else {
+                branchCount++;
+            }
+            latitudeSum += point.latitude();
+            longitudeSum += point.longitude();
+            single = point;
+        }
+
+        MapClusterDto toDto() {
+            int count = atmCount + branchCount;
+            if (count == 1) {
+                return toPointDto(single);
+            }
+            return new MapClusterDto(latitudeSum / count, longitudeSum / count, count,
+                    atmCount, branchCount, null, null);
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package ru.bank.branchatmservice.service;
 
 import org.springframework.stereotype.Service;
-import ru.bank.branchatmservice.enums.WeekDay;
 import ru.bank.branchatmservice.model.WorkSchedule;
+import ru.bank.branchatmservice.util.WeekSchedule;
 
-import java.time.DayOfWeek;
-import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -17,17 +15,14 @@ public class WorkScheduleService {
             return false;
         }
 
-        DayOfWeek currentDayOfWeek = LocalDate.now().getDayOfWeek();
-        WeekDay currentWeekDay = WeekDay.fromNumber(currentDayOfWeek.getValue());
-        LocalTime currentTime = LocalTime.now();
-
-        return workSchedules.stream()
-                .filter(schedule -> schedule.getWeekDay() == currentWeekDay)
-                .anyMatch(schedule -> isTimeInSchedule(currentTime, schedule));
+        return WeekSchedule.compile(workSchedules).isOpenAt(currentWeekSecond());
     }
 
-    private boolean isTimeInSchedule(LocalTime currentTime, WorkSchedule schedule) {
-        return !currentTime.isBefore(schedule.getOpeningTime())
-                && !currentTime.isAfter(schedule.getClosingTime());
+    /**
+     * Текущий момент в секундах от начала недели. Снимается один раз на запрос,
+     * чтобы все сущности в ответе проверялись по одному показанию часов.
+     */
+    public int currentWeekSecond() {
+        return WeekSchedule.weekSecondOf(LocalDateTime.now());
     }
-}
\ No newline at end of file
+}
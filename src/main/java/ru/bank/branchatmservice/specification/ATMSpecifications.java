@@ -1,16 +1,21 @@
 package ru.bank.branchatmservice.specification;
 
-import org.springframework.data.jpa.domain.Specification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
 import ru.bank.branchatmservice.dto.request.AtmFilterDto;
-import ru.bank.branchatmservice.enums.EntityType;
 import ru.bank.branchatmservice.model.ATM;
-import ru.bank.branchatmservice.model.WorkSchedule;
+import ru.bank.branchatmservice.model.Address;
+import ru.bank.branchatmservice.model.City;
 
-import java.time.LocalTime;
-import java.util.UUID;
+import java.util.Locale;
 
 public class ATMSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
 
     public static Specification<ATM> byAtmFilterDto(AtmFilterDto filters) {
         return Specification.allOf(
@@ -30,64 +35,42 @@ public class ATMSpecifications {
     public static Specification<ATM> inventoryNumberContains(String inventoryNumber) {
         return (root, query, cb) -> {
             if (inventoryNumber == null || inventoryNumber.isEmpty()) return null;
-            return cb.like(root.get("inventoryNumber"), "%" + inventoryNumber + "%");
+            return containsIgnoreCase(cb, root.get("inventoryNumber"), inventoryNumber);
         };
     }
 
     public static Specification<ATM> cityContains(String city) {
         return (root, query, cb) -> {
             if (city == null || city.isEmpty()) return null;
-            var joinCity = root.join("address", JoinType.LEFT).join("city", JoinType.LEFT);
-            return cb.like(cb.lower(joinCity.get("name")), "%" + city.toLowerCase() + "%");
+            return containsIgnoreCase(cb, cityJoin(root).get("name"), city);
         };
     }
 
     public static Specification<ATM> streetTypeContains(String streetType) {
         return (root, query, cb) -> {
             if (streetType == null || streetType.isEmpty()) return null;
-            var joinAddress = root.join("address", JoinType.LEFT);
-            return cb.like(cb.lower(joinAddress.get("streetType")), "%" + streetType.toLowerCase() + "%");
+            return containsIgnoreCase(cb, addressJoin(root).get("streetType"), streetType);
         };
     }
 
     public static Specification<ATM> streetContains(String street) {
         return (root, query, cb) -> {
             if (street == null || street.isEmpty()) return null;
-            var joinAddress = root.join("address", JoinType.LEFT);
-            return cb.like(cb.lower(joinAddress.get("street")), "%" + street.toLowerCase() + "%");
+            return containsIgnoreCase(cb, addressJoin(root).get("street"), street);
         };
     }
 
     public static Specification<ATM> houseContains(String house) {
         return (root, query, cb) -> {
             if (house == null || house.isEmpty()) return null;
-            var joinAddress = root.join("address", JoinType.LEFT);
-            return cb.like(cb.lower(joinAddress.get("house")), "%" + house.toLowerCase() + "%");
+            return containsIgnoreCase(cb, addressJoin(root).get("house"), house);
         };
     }
 
     public static Specification<ATM> is24hour(Boolean is24hour) {
         return (root, query, cb) -> {
             if (is24hour == null) return null;
-            var subquery = query.subquery(UUID.class);
-            var wsRoot = subquery.from(WorkSchedule.class);
-            if (is24hour) {
-                subquery.select(wsRoot.get("entityId"))
-                        .where(cb.and(
-                                cb.equal(wsRoot.get("entityType"), EntityType.ATM),
-                                cb.equal(wsRoot.get("openingTime"), LocalTime.of(0, 0, 0)),
-                                cb.equal(wsRoot.get("closingTime"), LocalTime.of(0, 0, 0))
-                        ));
-            } else {
-                subquery.select(wsRoot.get("entityId"))
-                        .where(cb.and(
-                                cb.equal(wsRoot.get("entityType"), EntityType.ATM),
-                                cb.or(cb.notEqual(wsRoot.get("openingTime"), LocalTime.of(0, 0, 0)),
-                                        cb.notEqual(wsRoot.get("closingTime"), LocalTime.of(0, 0, 0)))
-                        ));
-            }
-
-            return root.get("id").in(subquery);
+            return cb.equal(root.get("alwaysOpen"), is24hour);
         };
     }
 
@@ -112,4 +95,46 @@ public class ATMSpecifications {
             return cb.equal(root.get("hasNfc"), hasNfc);
         };
     }
+
+    /**
+     * {@code lower(col) LIKE '%value%'} — в таком виде условие совпадает с выражением trigram-индексов
+     * {@code gin (lower(col) gin_trgm_ops)}. Символы % и _ из пользовательского ввода экранируются.
+     */
+    private static Predicate containsIgnoreCase(CriteriaBuilder cb, Expression<String> column, String value) {
+        String pattern = "%" + escapeLike(value.toLowerCase(Locale.ROOT)) + "%";
+        return cb.like(cb.lower(column), pattern, LIKE_ESCAPE);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Один join адреса на запрос: иначе каждый фильтр по адресу добавляет в SQL свое соединение.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<ATM, Address> addressJoin(Root<ATM> root) {
+        return root.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals("address"))
+                .findFirst()
+                .map(join -> (Join<ATM, Address>) join)
+                .orElseGet(() -> root.join("address", JoinType.LEFT));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Join<Address, City> cityJoin(Root<ATM> root) {
+        Join<ATM, Address> address = addressJoin(root);
+        return address.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals("city"))
+                .findFirst()
+                .map(join -> (Join<Address, City>) join)
+                .orElseGet(() -> address.join("city", JoinType.LEFT));
+    }
 }
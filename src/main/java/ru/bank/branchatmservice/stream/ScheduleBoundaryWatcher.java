@@ -0,0 +1,76 @@
+package ru.bank.branchatmservice.stream;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.bank.branchatmservice.catalog.AtmCatalog;
+import ru.bank.branchatmservice.catalog.AtmCatalogEntry;
+import ru.bank.branchatmservice.catalog.BranchCatalog;
+import ru.bank.branchatmservice.catalog.BranchCatalogEntry;
+import ru.bank.branchatmservice.dto.response.StatusEventDto;
+import ru.bank.branchatmservice.enums.ChangeType;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.util.WeekSchedule;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Отслеживает переходы отделений и банкоматов через границы графика работы (открылся / закрылся)
+ * по каталогам в памяти, без обращения к БД. Первая проверка только запоминает состояние;
+ * объекты, появившиеся между проверками, событий не порождают — о них сообщает CREATED.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduleBoundaryWatcher {
+    private final AtmCatalog atmCatalog;
+    private final BranchCatalog branchCatalog;
+    private final StatusEventBus statusEventBus;
+
+    private Map<UUID, Boolean> atmOpen;
+    private Map<UUID, Boolean> branchOpen;
+
+    @Scheduled(fixedDelayString = "${app.status-stream.boundary-check-interval:PT30S}")
+    public synchronized void check() {
+        LocalDateTime now = LocalDateTime.now();
+        int weekSecond = WeekSchedule.weekSecondOf(now);
+
+        Map<UUID, Boolean> atmsNow = new HashMap<>();
+        for (AtmCatalogEntry entry : atmCatalog.getSnapshot().entries().values()) {
+            atmsNow.put(entry.id(), entry.isOpenAt(weekSecond));
+        }
+        Map<UUID, Boolean> branchesNow = new HashMap<>();
+        for (Map.Entry<UUID, BranchCatalogEntry> entry : branchCatalog.getSnapshot().entries().entrySet()) {
+            branchesNow.put(entry.getKey(), entry.getValue().isOpenAt(weekSecond));
+        }
+
+        int published = 0;
+        if (atmOpen != null) {
+            published += publishTransitions(EntityType.ATM, atmOpen, atmsNow, now);
+            published += publishTransitions(EntityType.BRANCH, branchOpen, branchesNow, now);
+        }
+        atmOpen = atmsNow;
+        branchOpen = branchesNow;
+        if (published > 0) {
+            log.debug("Переходов через границу графика: {}", published);
+        }
+    }
+
+    private int publishTransitions(EntityType entityType, Map<UUID, Boolean> before, Map<UUID, Boolean> after,
+                                   LocalDateTime now) {
+        int published = 0;
+        for (Map.Entry<UUID, Boolean> entry : after.entrySet()) {
+            Boolean wasOpen = before.get(entry.getKey());
+            if (wasOpen == null || wasOpen.equals(entry.getValue())) continue;
+
+            ChangeType type = entry.getValue() ? ChangeType.OPENED : ChangeType.CLOSED;
+            statusEventBus.publish(new StatusEventDto(entityType, entry.getKey(), type, now));
+            published++;
+        }
+        return published;
+    }
+}
@@ -0,0 +1,241 @@
+package ru.bank.branchatmservice.stream;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.bank.branchatmservice.dto.response.StatusEventDto;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.exception.ServiceUnavailableException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Шина событий об изменении статуса отделений и банкоматов для SSE-подписчиков.
+ * У каждого подписчика своя ограниченная очередь; отправка идет в пуле потоков, а не в потоке,
+ * опубликовавшем событие. Если подписчик не успевает вычитывать очередь и она переполнена,
+ * соединение закрывается: клиент переподключается и догружает пропущенное через ленту изменений.
+ * Закрытие такого соединения тоже уходит в пул: {@code complete()} ждет ту же блокировку, что и {@code send()},
+ * а поток отставшего подписчика как раз завис в записи в сокет.
+ * Пул отправки фиксированного размера, число подписчиков ограничено; периодический SSE-комментарий
+ * (heartbeat) проходит через ту же очередь отправки и выявляет оборванные соединения без событий.
+ */
+@Slf4j
+@Component
+public class StatusEventBus {
+    static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final ExecutorService sender;
+    private final LongFunction<SseEmitter> emitterFactory;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    @Autowired
+    public StatusEventBus(@Value("${app.status-stream.buffer-size:256}") int bufferSize,
+                          @Value("${app.status-stream.max-subscribers:1000}") int maxSubscribers,
+                          @Value("${app.status-stream.sender-threads:8}") int senderThreads,
+                          @Value("${app.status-stream.timeout:PT30M}") Duration timeout) {
+        this(bufferSize, maxSubscribers, timeout,
+                Executors.newFixedThreadPool(senderThreads, senderThreadFactory()), SseEmitter::new);
+    }
+
+    StatusEventBus(int bufferSize, Duration timeout, ExecutorService sender) {
+        this(bufferSize, timeout, sender, SseEmitter::new);
+    }
+
+    StatusEventBus(int bufferSize, Duration timeout, ExecutorService sender, LongFunction<SseEmitter> emitterFactory) {
+        this(bufferSize, Integer.MAX_VALUE, timeout, sender, emitterFactory);
+    }
+
+    StatusEventBus(int bufferSize, int maxSubscribers, Duration timeout, ExecutorService sender,
+                   LongFunction<SseEmitter> emitterFactory) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Размер буфера подписчика должен быть положительным");
+        }
+        if (maxSubscribers < 1) {
+            throw new IllegalArgumentException("Максимальное число подписчиков должно быть положительным");
+        }
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.sender = sender;
+        this.emitterFactory = emitterFactory;
+    }
+
+    /**
+     * Новый подписчик; {@code entityType} — фильтр по типу объекта, null — все события.
+     *
+     * @throws ServiceUnavailableException если подписчиков уже {@code max-subscribers}
+     */
+    public SseEmitter subscribe(EntityType entityType) {
+        SseEmitter emitter = emitterFactory.apply(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, entityType, new ArrayBlockingQueue<>(bufferSize));
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new ServiceUnavailableException(String.format(
+                        "Достигнуто максимальное число подписчиков потока статусов (%d), повторите позже", maxSubscribers));
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> disconnect(subscriber));
+        emitter.onError(error -> disconnect(subscriber));
+        log.debug("Новый подписчик потока статусов, фильтр {}, всего {}", entityType, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Раздает событие подписчикам без ожидания отправки.
+     */
+    public void publish(StatusEventDto event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.accepts(event)) continue;
+
+            if (subscriber.queue().offer(event)) {
+                scheduleDrain(subscriber);
+            } else {
+                log.warn("Подписчик потока статусов не успевает получать события (буфер {}), соединение закрыто",
+                        bufferSize);
+                evict(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Комментарий-heartbeat всем подписчикам: запись в оборванное соединение завершается ошибкой,
+     * и подписчик отключается, даже если событий для него нет. Подписчику, чья отправка еще идет,
+     * новая задача не ставится — heartbeat уйдет, когда очередь опустеет.
+     */
+    @Scheduled(fixedDelayString = "${app.status-stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue().set(true);
+            try {
+                scheduleDrain(subscriber);
+            } catch (RejectedExecutionException e) {
+                log.debug("Пул отправки остановлен, heartbeat не отправлен");
+                return;
+            }
+        }
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(this::disconnect);
+        sender.shutdownNow();
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining().compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.closed().get()) {
+                StatusEventDto event = subscriber.queue().poll();
+                if (event != null) {
+                    subscriber.emitter().send(SseEmitter.event()
+                            .id(String.valueOf(eventSequence.incrementAndGet()))
+                            .name(event.type().name().toLowerCase(Locale.ROOT))
+                            .data(event, MediaType.APPLICATION_JSON));
+                } else if (subscriber.heartbeatDue().getAndSet(false)) {
+                    subscriber.emitter().send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+                } else {
+                    break;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Подписчик потока статусов отключился: {}", e.getMessage());
+            disconnect(subscriber);
+        } finally {
+            subscriber.draining().set(false);
+        }
+        // событие или heartbeat могли прийти между последней проверкой и сбросом флага
+        if (!subscriber.closed().get() && (!subscriber.queue().isEmpty() || subscriber.heartbeatDue().get())) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (close(subscriber)) {
+            subscriber.emitter().complete();
+        }
+    }
+
+    /**
+     * Отключение из потока публикации: подписчик сразу перестает получать события,
+     * а {@code complete()} выполняется в пуле отправки, чтобы не ждать его зависшую запись.
+     */
+    private void evict(Subscriber subscriber) {
+        if (!close(subscriber)) return;
+        try {
+            sender.execute(() -> subscriber.emitter().complete());
+        } catch (RejectedExecutionException e) {
+            log.debug("Пул отправки остановлен, соединение подписчика не завершено явно");
+        }
+    }
+
+    private boolean close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        if (!subscriber.closed().compareAndSet(false, true)) return false;
+        subscriber.queue().clear();
+        return true;
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "status-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Subscriber(
+            SseEmitter emitter,
+            EntityType entityType,
+            Queue<StatusEventDto> queue,
+            AtomicBoolean draining,
+            AtomicBoolean closed,
+            AtomicBoolean heartbeatDue
+    ) {
+        Subscriber(SseEmitter emitter, EntityType entityType, Queue<StatusEventDto> queue) {
+            this(emitter, entityType, queue, new AtomicBoolean(), new AtomicBoolean(), new AtomicBoolean());
+        }
+
+        boolean accepts(StatusEventDto event) {
+            return entityType == null || entityType == event.entityType();
+        }
+    }
+}
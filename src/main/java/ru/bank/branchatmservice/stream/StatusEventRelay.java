@@ -0,0 +1,46 @@
+package ru.bank.branchatmservice.stream;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.bank.branchatmservice.dto.response.StatusEventDto;
+import ru.bank.branchatmservice.enums.ChangeType;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.event.AtmsChangedEvent;
+import ru.bank.branchatmservice.event.BranchesChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Передает в поток статусов изменения, опубликованные ATMService и BranchService.
+ * Срабатывает после коммита и после перезагрузки каталогов, поэтому клиент,
+ * получивший событие, сразу видит новые данные в API.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatusEventRelay {
+    private final StatusEventBus statusEventBus;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onBranchesChanged(BranchesChangedEvent event) {
+        relay(EntityType.BRANCH, event.branchIds(), event.changeType());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onAtmsChanged(AtmsChangedEvent event) {
+        relay(EntityType.ATM, event.atmIds(), event.changeType());
+    }
+
+    private void relay(EntityType entityType, List<UUID> ids, ChangeType changeType) {
+        if (ids == null || ids.isEmpty() || !statusEventBus.hasSubscribers()) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        ids.forEach(id -> statusEventBus.publish(new StatusEventDto(entityType, id, changeType, now)));
+    }
+}
@@ -0,0 +1,109 @@
+package ru.bank.branchatmservice.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Минимальная поддержка CSV (RFC 4180): разделитель — запятая, значения с запятой, кавычкой
+ * или переводом строки заключаются в кавычки, кавычка внутри удваивается.
+ */
+public final class CsvFormat {
+
+    private CsvFormat() {
+    }
+
+    public static String escape(String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    /**
+     * Потоковое чтение записей; запись в кавычках может занимать несколько строк файла.
+     * Reader должен быть буферизованным: символы читаются по одному.
+     */
+    public static final class RecordReader {
+        private final Reader reader;
+        private long line = 1;
+        private long recordLine;
+        private int pending = -2;
+
+        public RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Номер строки файла, с которой начинается последняя прочитанная запись.
+         */
+        public long recordLine() {
+            return recordLine;
+        }
+
+        /**
+         * @return значения следующей записи или {@code null} в конце файла
+         */
+        public List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Незакрытая кавычка в записи со строки " + recordLine);
+                    }
+                    if (c == '"') {
+                        int nextChar = read();
+                        if (nextChar == '"') {
+                            value.append('"');
+                        } else {
+                            quoted = false;
+                            c = nextChar;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        value.append((char) c);
+                    }
+                } else if (c == '"' && value.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int nextChar = read();
+                        if (nextChar != '\n') {
+                            pending = nextChar;
+                        }
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    values.add(value.toString());
+                    return values;
+                } else {
+                    value.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.bank.branchatmservice.util;
+
+import ru.bank.branchatmservice.dto.ScheduleDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Компактная строковая запись графика для выгрузки и загрузки: "1 09:00-18:00;2 09:00-18:00",
+ * день недели 1 — пн, 7 — вс. Такую же строку собирает SQL выгрузки (string_agg).
+ */
+public final class ScheduleText {
+
+    private ScheduleText() {
+    }
+
+    public static List<ScheduleDto> parse(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<ScheduleDto> schedule = new ArrayList<>();
+        for (String day : value.split(";")) {
+            String trimmed = day.trim();
+            int space = trimmed.indexOf(' ');
+            int dash = trimmed.indexOf('-', space + 1);
+            if (space < 0 || dash < 0) {
+                throw new IllegalArgumentException("Неверный формат графика: " + day);
+            }
+            try {
+                schedule.add(new ScheduleDto(
+                        Integer.parseInt(trimmed.substring(0, space)),
+                        trimmed.substring(space + 1, dash).trim(),
+                        trimmed.substring(dash + 1).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Неверный день недели в графике: " + day);
+            }
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,131 @@
+package ru.bank.branchatmservice.util;
+
+import ru.bank.branchatmservice.model.WorkSchedule;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Скомпилированный недельный график работы.
+ * Хранит отсортированные непересекающиеся интервалы [начало, конец) в секундах от начала недели
+ * (понедельник 00:00:00), поэтому проверка "открыто сейчас" не создает объектов.
+ * Время закрытия включается в интервал; если время закрытия не позже времени открытия,
+ * интервал продолжается на следующий день (00:00 - 00:00 означает круглосуточную работу).
+ */
+public final class WeekSchedule {
+    public static final int SECONDS_PER_DAY = 86_400;
+    public static final int SECONDS_PER_WEEK = 7 * SECONDS_PER_DAY;
+
+    private static final WeekSchedule CLOSED = new WeekSchedule(new int[0]);
+
+    private final int[] intervals;
+
+    private WeekSchedule(int[] intervals) {
+        this.intervals = intervals;
+    }
+
+    public static WeekSchedule closed() {
+        return CLOSED;
+    }
+
+    public static WeekSchedule compile(Collection<WorkSchedule> schedules) {
+        if (schedules == null || schedules.isEmpty()) {
+            return CLOSED;
+        }
+
+        int[] raw = new int[schedules.size() * 4];
+        int size = 0;
+        for (WorkSchedule schedule : schedules) {
+            int dayStart = (schedule.getWeekDay().getDayNumber() - 1) * SECONDS_PER_DAY;
+            int opening = schedule.getOpeningTime().toSecondOfDay();
+            int closing = schedule.getClosingTime().toSecondOfDay();
+
+            int start = dayStart + opening;
+            int end = closing <= opening
+                    ? dayStart + closing + SECONDS_PER_DAY
+                    : dayStart + closing + 1;
+
+            if (end > SECONDS_PER_WEEK) {
+                raw[size++] = start;
+                raw[size++] = SECONDS_PER_WEEK;
+                raw[size++] = 0;
+                raw[size++] = end - SECONDS_PER_WEEK;
+            } else {
+                raw[size++] = start;
+                raw[size++] = end;
+            }
+        }
+        return new WeekSchedule(merge(raw, size));
+    }
+
+    /**
+     * Битовая маска дней, для которых задан график: бит 0 - понедельник, бит 6 - воскресенье.
+     */
+    public static short openDaysMask(Collection<WorkSchedule> schedules) {
+        int mask = 0;
+        if (schedules != null) {
+            for (WorkSchedule schedule : schedules) {
+                mask |= 1 << (schedule.getWeekDay().getDayNumber() - 1);
+            }
+        }
+        return (short) mask;
+    }
+
+    public static int weekSecondOf(LocalDateTime dateTime) {
+        return (dateTime.getDayOfWeek().getValue() - 1) * SECONDS_PER_DAY + dateTime.toLocalTime().toSecondOfDay();
+    }
+
+    public boolean isOpenAt(int weekSecond) {
+        int low = 0;
+        int high = intervals.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (weekSecond < intervals[2 * mid]) {
+                high = mid - 1;
+            } else if (weekSecond >= intervals[2 * mid + 1]) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Круглосуточная работа все семь дней недели.
+     */
+    public boolean isAlwaysOpen() {
+        return intervals.length == 2 && intervals[0] == 0 && intervals[1] == SECONDS_PER_WEEK;
+    }
+
+    public boolean isEmpty() {
+        return intervals.length == 0;
+    }
+
+    private static int[] merge(int[] raw, int size) {
+        for (int i = 2; i < size; i += 2) {
+            int start = raw[i];
+            int end = raw[i + 1];
+            int j = i - 2;
+            while (j >= 0 && raw[j] > start) {
+                raw[j + 2] = raw[j];
+                raw[j + 3] = raw[j + 1];
+                j -= 2;
+            }
+            raw[j + 2] = start;
+            raw[j + 3] = end;
+        }
+
+        int merged = 0;
+        for (int i = 0; i < size; i += 2) {
+            if (merged > 0 && raw[i] <= raw[merged - 1]) {
+                raw[merged - 1] = Math.max(raw[merged - 1], raw[i + 1]);
+            } else {
+                raw[merged++] = raw[i];
+                raw[merged++] = raw[i + 1];
+            }
+        }
+        return Arrays.copyOf(raw, merged);
+    }
+}
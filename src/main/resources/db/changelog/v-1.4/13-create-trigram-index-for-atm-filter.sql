@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_atm_inventorynumber_lower_trgm ON atm USING gin (lower(inventory_number) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_city_name_lower_trgm ON city USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_address_streettype_lower_trgm ON address USING gin (lower(street_type) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_address_street_lower_trgm ON address USING gin (lower(street) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_address_house_lower_trgm ON address USING gin (lower(house) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_atm_address_id ON atm (address_id);
@@ -0,0 +1,19 @@
+ALTER TABLE atm ADD COLUMN IF NOT EXISTS is_24h BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE atm ADD COLUMN IF NOT EXISTS open_days SMALLINT NOT NULL DEFAULT 0;
+
+UPDATE atm a
+SET is_24h    = s.is_24h,
+    open_days = s.open_days
+FROM (SELECT entity_id,
+             count(DISTINCT week_day) FILTER (WHERE opening_time = '00:00:00'
+                 AND closing_time IN ('00:00:00', '23:59:59')) = 7 AS is_24h,
+             bit_or(1 << (week_day - 1))::SMALLINT AS open_days
+      FROM work_schedule
+      WHERE entity_type = 'ATM'
+      GROUP BY entity_id) s
+WHERE a.id = s.entity_id;
+
+CREATE INDEX IF NOT EXISTS idx_atm_is_24h ON atm (is_24h);
+
+COMMENT ON COLUMN atm.is_24h IS 'Круглосуточная работа все дни недели (по графику work_schedule)';
+COMMENT ON COLUMN atm.open_days IS 'Битовая маска рабочих дней: бит 0 - понедельник, бит 6 - воскресенье';
@@ -0,0 +1,90 @@
+CREATE SEQUENCE IF NOT EXISTS change_version_seq;
+
+ALTER TABLE branch ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE atm ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE address ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE work_schedule ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE address SET change_version = nextval('change_version_seq');
+UPDATE work_schedule SET change_version = nextval('change_version_seq');
+UPDATE branch SET change_version = nextval('change_version_seq');
+UPDATE atm SET change_version = nextval('change_version_seq');
+
+CREATE INDEX IF NOT EXISTS idx_branch_change_version ON branch (change_version);
+CREATE INDEX IF NOT EXISTS idx_atm_change_version ON atm (change_version);
+
+-- Версия выставляется в БД на любой записи: через JPA, нативные запросы и ручные правки
+CREATE OR REPLACE FUNCTION set_change_version() RETURNS trigger AS
+$$
+BEGIN
+    NEW.change_version := nextval('change_version_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Изменение графика поднимает версию владельца (отделения или банкомата)
+CREATE OR REPLACE FUNCTION touch_work_schedule_owner() RETURNS trigger AS
+$$
+DECLARE
+    owner_id   UUID;
+    owner_type VARCHAR;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        owner_id := OLD.entity_id;
+        owner_type := OLD.entity_type;
+    ELSE
+        owner_id := NEW.entity_id;
+        owner_type := NEW.entity_type;
+    END IF;
+
+    IF owner_type = 'BRANCH' THEN
+        UPDATE branch SET change_version = change_version WHERE id = owner_id;
+    ELSIF owner_type = 'ATM' THEN
+        UPDATE atm SET change_version = change_version WHERE id = owner_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Изменение адреса поднимает версию отделений и банкоматов по этому адресу
+CREATE OR REPLACE FUNCTION touch_address_owners() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE branch SET change_version = change_version WHERE address_id = NEW.id;
+    UPDATE atm SET change_version = change_version WHERE address_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_branch_change_version ON branch;
+CREATE TRIGGER trg_branch_change_version
+    BEFORE INSERT OR UPDATE ON branch
+    FOR EACH ROW EXECUTE FUNCTION set_change_version();
+
+DROP TRIGGER IF EXISTS trg_atm_change_version ON atm;
+CREATE TRIGGER trg_atm_change_version
+    BEFORE INSERT OR UPDATE ON atm
+    FOR EACH ROW EXECUTE FUNCTION set_change_version();
+
+DROP TRIGGER IF EXISTS trg_address_change_version ON address;
+CREATE TRIGGER trg_address_change_version
+    BEFORE INSERT OR UPDATE ON address
+    FOR EACH ROW EXECUTE FUNCTION set_change_version();
+
+DROP TRIGGER IF EXISTS trg_work_schedule_change_version ON work_schedule;
+CREATE TRIGGER trg_work_schedule_change_version
+    BEFORE INSERT OR UPDATE ON work_schedule
+    FOR EACH ROW EXECUTE FUNCTION set_change_version();
+
+DROP TRIGGER IF EXISTS trg_address_touch_owners ON address;
+CREATE TRIGGER trg_address_touch_owners
+    AFTER UPDATE ON address
+    FOR EACH ROW EXECUTE FUNCTION touch_address_owners();
+
+DROP TRIGGER IF EXISTS trg_work_schedule_touch_owner ON work_schedule;
+CREATE TRIGGER trg_work_schedule_touch_owner
+    AFTER INSERT OR UPDATE OR DELETE ON work_schedule
+    FOR EACH ROW EXECUTE FUNCTION touch_work_schedule_owner();
+
+COMMENT ON COLUMN branch.change_version IS 'Версия последнего изменения отделения, его адреса или графика';
+COMMENT ON COLUMN atm.change_version IS 'Версия последнего изменения банкомата, его адреса или графика';
@@ -0,0 +1,9 @@
+-- один интервал на день недели: из повторов остается самый ранний
+DELETE FROM work_schedule w
+USING work_schedule d
+WHERE w.entity_type = d.entity_type
+  AND w.entity_id = d.entity_id
+  AND w.week_day = d.week_day
+  AND (w.opening_time, w.id) > (d.opening_time, d.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_work_schedule_entity_day ON work_schedule (entity_type, entity_id, week_day);
@@ -0,0 +1,26 @@
+-- уникальность имени, номера и телефона отделения; имена ограничений используются при разборе нарушений.
+-- Отделения с повторами нельзя удалить или переименовать автоматически (на них ссылаются банкоматы и подразделения),
+-- поэтому при повторах миграция останавливается со списком значений, которые нужно исправить вручную
+DO
+$$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(format('%s = %s (%s шт.)', field, value, cnt), '; ' ORDER BY field, value)
+    INTO duplicates
+    FROM (SELECT 'name' AS field, name AS value, count(*) AS cnt FROM branch GROUP BY name HAVING count(*) > 1
+          UNION ALL
+          SELECT 'bank_number', bank_number, count(*) FROM branch GROUP BY bank_number HAVING count(*) > 1
+          UNION ALL
+          SELECT 'phone_number', phone_number, count(*) FROM branch GROUP BY phone_number HAVING count(*) > 1) d;
+
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'Повторяющиеся значения в таблице branch: %', duplicates
+            USING HINT = 'Исправьте повторы имени, номера и телефона отделений и повторите миграцию';
+    END IF;
+END;
+$$;
+
+ALTER TABLE branch ADD CONSTRAINT uq_branch_name UNIQUE (name);
+ALTER TABLE branch ADD CONSTRAINT uq_branch_bank_number UNIQUE (bank_number);
+ALTER TABLE branch ADD CONSTRAINT uq_branch_phone_number UNIQUE (phone_number);
@@ -0,0 +1,74 @@
+-- Версия отделения и банкомата выдается при фиксации транзакции, а не при записи строки.
+-- Отложенные триггеры срабатывают в COMMIT и берут транзакционную advisory-блокировку, которая
+-- снимается только после того, как транзакция стала видна. Поэтому версии выдаются в порядке фиксации:
+-- если клиент видит версию N, все версии меньше N уже зафиксированы, и since = N ничего не пропускает.
+CREATE OR REPLACE FUNCTION assign_commit_change_version() RETURNS trigger AS
+$$
+DECLARE
+    owner_id   UUID;
+    owner_type VARCHAR;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('change_version_seq'));
+
+    IF TG_TABLE_NAME = 'branch' THEN
+        UPDATE branch SET change_version = nextval('change_version_seq') WHERE id = NEW.id;
+    ELSIF TG_TABLE_NAME = 'atm' THEN
+        UPDATE atm SET change_version = nextval('change_version_seq') WHERE id = NEW.id;
+    ELSIF TG_TABLE_NAME = 'address' THEN
+        UPDATE branch SET change_version = nextval('change_version_seq') WHERE address_id = NEW.id;
+        UPDATE atm SET change_version = nextval('change_version_seq') WHERE address_id = NEW.id;
+    ELSIF TG_TABLE_NAME = 'work_schedule' THEN
+        IF TG_OP = 'DELETE' THEN
+            owner_id := OLD.entity_id;
+            owner_type := OLD.entity_type;
+        ELSE
+            owner_id := NEW.entity_id;
+            owner_type := NEW.entity_type;
+        END IF;
+
+        IF owner_type = 'BRANCH' THEN
+            UPDATE branch SET change_version = nextval('change_version_seq') WHERE id = owner_id;
+        ELSIF owner_type = 'ATM' THEN
+            UPDATE atm SET change_version = nextval('change_version_seq') WHERE id = owner_id;
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- версия при записи больше не выдается: ее заменяет выдача при фиксации
+DROP TRIGGER IF EXISTS trg_branch_change_version ON branch;
+DROP TRIGGER IF EXISTS trg_atm_change_version ON atm;
+DROP TRIGGER IF EXISTS trg_address_touch_owners ON address;
+DROP TRIGGER IF EXISTS trg_work_schedule_touch_owner ON work_schedule;
+DROP FUNCTION IF EXISTS touch_address_owners();
+DROP FUNCTION IF EXISTS touch_work_schedule_owner();
+
+-- pg_trigger_depth() < 1: обновления версии из самого триггера повторно в очередь не ставятся
+CREATE CONSTRAINT TRIGGER trg_branch_commit_version
+    AFTER INSERT OR UPDATE ON branch
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    WHEN (pg_trigger_depth() < 1)
+    EXECUTE FUNCTION assign_commit_change_version();
+
+CREATE CONSTRAINT TRIGGER trg_atm_commit_version
+    AFTER INSERT OR UPDATE ON atm
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    WHEN (pg_trigger_depth() < 1)
+    EXECUTE FUNCTION assign_commit_change_version();
+
+CREATE CONSTRAINT TRIGGER trg_address_commit_version
+    AFTER UPDATE ON address
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    WHEN (pg_trigger_depth() < 1)
+    EXECUTE FUNCTION assign_commit_change_version();
+
+CREATE CONSTRAINT TRIGGER trg_work_schedule_commit_version
+    AFTER INSERT OR UPDATE OR DELETE ON work_schedule
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    WHEN (pg_trigger_depth() < 1)
+    EXECUTE FUNCTION assign_commit_change_version();
@@ -0,0 +1,109 @@
+-- Версия изменения отделения и банкомата — идентификатор записавшей транзакции (xid8) со сдвигом
+-- change_version_base(), чтобы новые версии были больше выданных раньше из change_version_seq.
+-- Лента отдает только версии ниже горизонта change_version_horizon(): все транзакции с меньшим xid
+-- уже завершены, поэтому версия ниже горизонта больше не появится и since не пропускает изменений.
+-- Глобальной блокировки нет: владелец обновляется при записи и не чаще одного раза за транзакцию.
+
+-- выдача версии при фиксации из миграции 18
+DROP TRIGGER IF EXISTS trg_branch_commit_version ON branch;
+DROP TRIGGER IF EXISTS trg_atm_commit_version ON atm;
+DROP TRIGGER IF EXISTS trg_address_commit_version ON address;
+DROP TRIGGER IF EXISTS trg_work_schedule_commit_version ON work_schedule;
+DROP FUNCTION IF EXISTS assign_commit_change_version();
+
+-- версии адресов и графиков из миграции 15 нигде не читаются, а последовательность тратилась на каждой записи
+DROP TRIGGER IF EXISTS trg_address_change_version ON address;
+DROP TRIGGER IF EXISTS trg_work_schedule_change_version ON work_schedule;
+DROP FUNCTION IF EXISTS set_change_version();
+
+DO
+$$
+BEGIN
+    EXECUTE format(
+            'CREATE OR REPLACE FUNCTION change_version_base() RETURNS BIGINT LANGUAGE sql IMMUTABLE AS %L',
+            'SELECT ' || (SELECT last_value FROM change_version_seq) || '::BIGINT');
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION current_change_version() RETURNS BIGINT AS
+$$
+SELECT change_version_base() + pg_current_xact_id()::TEXT::BIGINT;
+$$ LANGUAGE sql VOLATILE;
+
+CREATE OR REPLACE FUNCTION change_version_horizon() RETURNS BIGINT AS
+$$
+SELECT change_version_base() + pg_snapshot_xmin(pg_current_snapshot())::TEXT::BIGINT;
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION stamp_change_version() RETURNS trigger AS
+$$
+BEGIN
+    NEW.change_version := current_change_version();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Владельцы измененных строк графика или адреса: одно обновление на оператор (транзакционная таблица changed_rows),
+-- владельцы, уже получившие версию этой транзакции, пропускаются
+CREATE OR REPLACE FUNCTION touch_work_schedule_owners() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE branch b SET change_version = current_change_version()
+    FROM (SELECT DISTINCT entity_id FROM changed_rows WHERE entity_type = 'BRANCH') s
+    WHERE b.id = s.entity_id AND b.change_version <> current_change_version();
+
+    UPDATE atm a SET change_version = current_change_version()
+    FROM (SELECT DISTINCT entity_id FROM changed_rows WHERE entity_type = 'ATM') s
+    WHERE a.id = s.entity_id AND a.change_version <> current_change_version();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION touch_address_owners() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE branch b SET change_version = current_change_version()
+    WHERE b.address_id IN (SELECT id FROM changed_rows) AND b.change_version <> current_change_version();
+
+    UPDATE atm a SET change_version = current_change_version()
+    WHERE a.address_id IN (SELECT id FROM changed_rows) AND a.change_version <> current_change_version();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_branch_stamp_version
+    BEFORE INSERT OR UPDATE ON branch
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_version();
+
+CREATE TRIGGER trg_atm_stamp_version
+    BEFORE INSERT OR UPDATE ON atm
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_version();
+
+CREATE TRIGGER trg_work_schedule_insert_owners
+    AFTER INSERT ON work_schedule
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION touch_work_schedule_owners();
+
+CREATE TRIGGER trg_work_schedule_update_owners
+    AFTER UPDATE ON work_schedule
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION touch_work_schedule_owners();
+
+CREATE TRIGGER trg_work_schedule_delete_owners
+    AFTER DELETE ON work_schedule
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION touch_work_schedule_owners();
+
+CREATE TRIGGER trg_address_update_owners
+    AFTER UPDATE ON address
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION touch_address_owners();
+
+COMMENT ON COLUMN branch.change_version IS 'Версия последнего изменения: change_version_base() + xid записавшей транзакции';
+COMMENT ON COLUMN atm.change_version IS 'Версия последнего изменения: change_version_base() + xid записавшей транзакции';
+
+-- лента сортирует по версии и идентификатору: строки одной транзакции имеют одну версию
+DROP INDEX IF EXISTS idx_branch_change_version;
+DROP INDEX IF EXISTS idx_atm_change_version;
+CREATE INDEX IF NOT EXISTS idx_branch_change_version_id ON branch (change_version, id);
+CREATE INDEX IF NOT EXISTS idx_atm_change_version_id ON atm (change_version, id);
@@ -0,0 +1,69 @@
+package ru.bank.branchatmservice.catalog;
+
+import org.junit.jupiter.api.Test;
+import ru.bank.branchatmservice.dto.BranchShortDto;
+import ru.bank.branchatmservice.dto.DepartmentBranchProjection;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DepartmentIndexTest {
+    private static final UUID DEPARTMENT_A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID DEPARTMENT_B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID BRANCH_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BRANCH_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Test
+    void of_ShouldGroupBranchesByDepartmentSortedByName() {
+        DepartmentIndex index = DepartmentIndex.of(List.of(
+                link(DEPARTMENT_A, BRANCH_2, "ДО «Тверской»"),
+                link(DEPARTMENT_A, BRANCH_1, "ДО «Арбат»"),
+                link(DEPARTMENT_B, BRANCH_2, "ДО «Тверской»")
+        ));
+
+        assertEquals(List.of(new BranchShortDto(BRANCH_1, "ДО «Арбат»"), new BranchShortDto(BRANCH_2, "ДО «Тверской»")),
+                index.findByDepartmentId(DEPARTMENT_A));
+        assertEquals(List.of(new BranchShortDto(BRANCH_2, "ДО «Тверской»")), index.findByDepartmentId(DEPARTMENT_B));
+        assertTrue(index.findByDepartmentId(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void withBranches_ShouldReplaceOnlyLinksOfChangedBranches() {
+        DepartmentIndex index = DepartmentIndex.of(List.of(
+                link(DEPARTMENT_A, BRANCH_1, "ДО «Арбат»"),
+                link(DEPARTMENT_A, BRANCH_2, "ДО «Тверской»"),
+                link(DEPARTMENT_B, BRANCH_2, "ДО «Тверской»")
+        ));
+
+        DepartmentIndex updated = index.withBranches(List.of(BRANCH_2),
+                List.of(link(DEPARTMENT_A, BRANCH_2, "ДО «Тверской-2»")));
+
+        assertEquals(List.of(new BranchShortDto(BRANCH_1, "ДО «Арбат»"), new BranchShortDto(BRANCH_2, "ДО «Тверской-2»")),
+                updated.findByDepartmentId(DEPARTMENT_A));
+        assertTrue(updated.findByDepartmentId(DEPARTMENT_B).isEmpty());
+        assertEquals(1, updated.size());
+        assertEquals(2, index.findByDepartmentId(DEPARTMENT_A).size());
+    }
+
+    private DepartmentBranchProjection link(UUID departmentId, UUID branchId, String branchName) {
+        return new DepartmentBranchProjection() {
+            @Override
+            public UUID getDepartmentId() {
+                return departmentId;
+            }
+
+            @Override
+            public UUID getBranchId() {
+                return branchId;
+            }
+
+            @Override
+            public String getBranchName() {
+                return branchName;
+            }
+        };
+    }
+}
@@ -20,11 +20,17 @@ import ru.bank.branchatmservice.dto.InfoAtmDto;
 import ru.bank.branchatmservice.dto.ScheduleDto;
 import ru.bank.branchatmservice.dto.request.AtmCreateDto;
 import ru.bank.branchatmservice.dto.request.AtmFilterDto;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
 import ru.bank.branchatmservice.dto.request.UpdateAtmInfoRequest;
+import ru.bank.branchatmservice.dto.response.AtmBatchResponse;
 import ru.bank.branchatmservice.dto.response.AtmFilterResponseDto;
+import ru.bank.branchatmservice.dto.response.AtmImportResponse;
+import ru.bank.branchatmservice.dto.response.FilterPageResponse;
 import ru.bank.branchatmservice.dto.response.MessageResponseDto;
+import ru.bank.branchatmservice.enums.ExportFormat;
 import ru.bank.branchatmservice.exception.NotFoundException;
 import ru.bank.branchatmservice.service.ATMService;
+import ru.bank.branchatmservice.service.AtmImportService;
 
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
@@ -66,6 +72,9 @@ public class ATMControllerTest {
     @MockBean
     private ATMService atmService;
 
+    @MockBean
+    private AtmImportService atmImportService;
+
     @Test
     @DisplayName("Должна вернуться полная информация по банкомату")
     void shouldReturnATMFullDto_ifIdValid() throws Exception {
@@ -143,6 +152,22 @@ public class ATMControllerTest {
         verify(atmService, never()).softDeleteATMByIds(anyList());
     }
 
+    @Test
+    void getATMsByIds_ShouldReturnFoundAtmsAndNotFoundIds() throws Exception {
+        UUID foundId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        ATMFullDto atm = new ATMFullDto(null, null, List.of());
+        when(atmService.getATMsByIds(List.of(foundId, missingId)))
+                .thenReturn(new AtmBatchResponse(Map.of(foundId, atm), List.of(missingId)));
+
+        mockMvc.perform(post("/api/v1/atms/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(foundId, missingId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.atms." + foundId).exists())
+                .andExpect(jsonPath("$.notFound[0]").value(missingId.toString()));
+    }
+
     @Test
     void createATM_Success() throws Exception {
         // Подготовка данных
@@ -359,16 +384,17 @@ public class ATMControllerTest {
                 )
         );
 
-        when(atmService.getAtmListByFilter(any(AtmFilterDto.class))).thenReturn(Collections.singletonList(atmDto));
+        when(atmService.getAtmListByFilter(any(AtmFilterDto.class), any(FilterPageRequest.class)))
+                .thenReturn(new FilterPageResponse<>(Collections.singletonList(atmDto), 0, 50, false, null));
 
         mockMvc.perform(get("/api/v1/atms/filter")
                         .queryParams(filters)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].atmInfo.inventoryNumber").value("0001244892"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].atmInfo.inventoryNumber").value("0001244892"));
 
-        verify(atmService, times(1)).getAtmListByFilter(any(AtmFilterDto.class));
+        verify(atmService, times(1)).getAtmListByFilter(any(AtmFilterDto.class), any(FilterPageRequest.class));
     }
 
     @Test
@@ -383,15 +409,43 @@ public class ATMControllerTest {
                 "nfc", "true",
                 "city", "Москва"));
 
-        when(atmService.getAtmListByFilter(any(AtmFilterDto.class))).thenReturn(Collections.emptyList());
+        when(atmService.getAtmListByFilter(any(AtmFilterDto.class), any(FilterPageRequest.class)))
+                .thenReturn(new FilterPageResponse<>(Collections.emptyList(), 0, 50, false, null));
 
         mockMvc.perform(get("/api/v1/atms/filter")
                         .queryParams(filters)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.items.length()").value(0));
 
-        verify(atmService, times(1)).getAtmListByFilter(any(AtmFilterDto.class));
+        verify(atmService, times(1)).getAtmListByFilter(any(AtmFilterDto.class), any(FilterPageRequest.class));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Пакетная загрузка CSV передается в сервис по типу содержимого")
+    void importAtms_Csv_ShouldReturnReport() throws Exception {
+        AtmImportResponse report = new AtmImportResponse(2, 1, 1,
+                List.of(new AtmImportResponse.RowError(3, "1112", "Отделение с номером 999 не найдено")), false);
+        when(atmImportService.importAtms(eq(ExportFormat.CSV), any())).thenReturn(report);
+
+        mockMvc.perform(post("/api/v1/atms/import")
+                        .contentType("text/csv; charset=UTF-8")
+                        .content("number,inventoryNumber\n1111,0001\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Отделение с номером 999 не найдено"));
+    }
+
+    @Test
+    @DisplayName("Пакетная загрузка с неподдерживаемым типом содержимого")
+    void importAtms_UnsupportedContentType_ShouldReturn415() throws Exception {
+        mockMvc.perform(post("/api/v1/atms/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<atms/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(atmImportService, never()).importAtms(any(), any());
+    }
+}
@@ -9,18 +9,22 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import ru.bank.branchatmservice.dto.BranchIdListDto;
 import ru.bank.branchatmservice.dto.BranchShortDto;
 import ru.bank.branchatmservice.dto.response.BranchNameResponse;
+import ru.bank.branchatmservice.dto.response.BranchNamesResponse;
 import ru.bank.branchatmservice.service.BranchService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BranchATMController.class)
@@ -52,6 +56,26 @@ public class BranchATMControllerTest {
         assertEquals(objectMapper.writeValueAsString(branches), result);
     }
 
+    @Test
+    @DisplayName("Должны вернуться отделения для нескольких отделов")
+    void shouldReturnBranchesPerDepartment_forDepartmentBatch() throws Exception {
+        UUID departmentId = UUID.randomUUID();
+        Map<UUID, List<BranchShortDto>> branches =
+                Map.of(departmentId, List.of(new BranchShortDto(UUID.randomUUID(), "ДО «ГУМ»")));
+
+        when(branchService.findBranchesByDepartmentIds(List.of(departmentId))).thenReturn(branches);
+
+        String result = mvc.perform(post("/api/v1/branch_ATMs/branch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(departmentId)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(branches), result);
+    }
+
     @Test
     @DisplayName("Должно вернуться имя отделения")
     void shouldReturnBranchName_ifIdValid() throws Exception {
@@ -69,4 +93,24 @@ public class BranchATMControllerTest {
 
         assertEquals(objectMapper.writeValueAsString(response), result);
     }
+
+    @Test
+    @DisplayName("Должны вернуться названия отделений и список не найденных UUID")
+    void shouldReturnBranchNames_forIdBatch() throws Exception {
+        UUID foundId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        BranchNamesResponse response = new BranchNamesResponse(Map.of(foundId, "ДО «ГУМ»"), List.of(missingId));
+
+        when(branchService.getBranchNamesByIds(List.of(foundId, missingId))).thenReturn(response);
+
+        String result = mvc.perform(post("/api/v1/branch_ATMs/branchNames")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BranchIdListDto(List.of(foundId, missingId))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(response), result);
+    }
 }
@@ -24,20 +24,27 @@ import ru.bank.branchatmservice.dto.request.AddressFullInfoDto;
 import ru.bank.branchatmservice.dto.BranchIdListDto;
 import ru.bank.branchatmservice.dto.request.AddressInfo;
 import ru.bank.branchatmservice.dto.request.BranchAndAddressInfoRequest;
+import ru.bank.branchatmservice.dto.request.BranchBatchCreateRequest;
 import ru.bank.branchatmservice.dto.request.BranchInfo;
 import ru.bank.branchatmservice.dto.request.BranchSearchRequest;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
 import ru.bank.branchatmservice.dto.request.BranchUpdateRequestDto;
 import ru.bank.branchatmservice.dto.response.ArchiveBranchResponse;
 import ru.bank.branchatmservice.dto.response.BranchAndAddressInfoResponse;
 import ru.bank.branchatmservice.dto.response.BranchBankNumberDTO;
+import ru.bank.branchatmservice.dto.response.BranchBatchCreateResponse;
 import ru.bank.branchatmservice.dto.response.BranchDtoView;
 import ru.bank.branchatmservice.dto.response.BranchListResponse;
 import ru.bank.branchatmservice.dto.response.BranchSearchResponseDto;
 import ru.bank.branchatmservice.dto.response.BranchUnionDto;
+import ru.bank.branchatmservice.dto.response.CursorPageResponse;
+import ru.bank.branchatmservice.dto.response.FilterPageResponse;
+import ru.bank.branchatmservice.enums.FilterSortField;
 import ru.bank.branchatmservice.dto.response.MessageResponseDto;
 import ru.bank.branchatmservice.enums.BranchType;
 import ru.bank.branchatmservice.exception.BranchNotFoundException;
 import ru.bank.branchatmservice.exception.NotFoundException;
+import ru.bank.branchatmservice.service.BranchBulkService;
 import ru.bank.branchatmservice.service.BranchService;
 
 import java.nio.charset.StandardCharsets;
@@ -52,6 +59,8 @@ import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -76,6 +85,9 @@ public class BranchControllerTest {
     @MockBean
     private BranchService branchService;
 
+    @MockBean
+    private BranchBulkService branchBulkService;
+
     private final UUID BRANCH_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
     private final String BRANCH_ID_STRING = "123e4567-e89b-12d3-a456-426614174000";
 
@@ -114,17 +126,20 @@ public class BranchControllerTest {
                 .build();
         BranchSearchRequest branchSearchRequest = new BranchSearchRequest(branchInfo, addressInfo);
         BranchSearchResponseDto branchSearchResponseDto = new BranchSearchResponseDto(branchFullDto, addressShortDto);
-        List<BranchSearchResponseDto> responseList = List.of(branchSearchResponseDto);
+        FilterPageResponse<BranchSearchResponseDto> responsePage =
+                new FilterPageResponse<>(List.of(branchSearchResponseDto), 0, 50, false, null);
 
-        when(branchService.searchBranchesByFilter(any(BranchSearchRequest.class))).thenReturn(responseList);
+        when(branchService.searchBranchesByFilter(any(BranchSearchRequest.class), any(FilterPageRequest.class)))
+                .thenReturn(responsePage);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/branches/filter")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(branchSearchRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].branchFullDto.name", containsString("BranchName")));
+                .andExpect(jsonPath("$.items[0].branchFullDto.name", containsString("BranchName")));
 
-        verify(branchService, times(1)).searchBranchesByFilter(any(BranchSearchRequest.class));
+        verify(branchService, times(1))
+                .searchBranchesByFilter(any(BranchSearchRequest.class), any(FilterPageRequest.class));
     }
 
     @Test
@@ -135,7 +150,7 @@ public class BranchControllerTest {
 
         BranchSearchRequest branchSearchRequest = new BranchSearchRequest(branchInfo, null);
 
-        when(branchService.searchBranchesByFilter(any(BranchSearchRequest.class)))
+        when(branchService.searchBranchesByFilter(any(BranchSearchRequest.class), any(FilterPageRequest.class)))
                 .thenThrow(new NotFoundException("Нет отделений по таким критериям поиска"));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/branches/filter")
@@ -177,7 +192,7 @@ public class BranchControllerTest {
                 new BranchBankNumberDTO("103")
         );
 
-        when(branchService.getBranchBankNumberByBankNumber("10")).thenReturn(mockResponse);
+        when(branchService.getBranchBankNumberByBankNumber(eq("10"), isNull())).thenReturn(mockResponse);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/branches/similar-numbers")
                         .param("bankNumber", "10"))
@@ -190,7 +205,7 @@ public class BranchControllerTest {
 
     @Test
     void getBranchBankNumberListByBankNumber_ShouldReturnEmptyList() throws Exception {
-        when(branchService.getBranchBankNumberByBankNumber("99"))
+        when(branchService.getBranchBankNumberByBankNumber(eq("99"), isNull()))
                 .thenReturn(Collections.emptyList());
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/branches/similar-numbers")
@@ -199,6 +214,19 @@ public class BranchControllerTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void getBranchBankNumberListByBankNumber_ShouldPassLimit() throws Exception {
+        when(branchService.getBranchBankNumberByBankNumber("10", 1))
+                .thenReturn(List.of(new BranchBankNumberDTO("101")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/branches/similar-numbers")
+                        .param("bankNumber", "10")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].bankNumber").value("101"));
+    }
+
     @Test
     void getBranchBankNumberListByBankNumber_ShouldReturn400WhenParameterMissing() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/branches/similar-numbers"))
@@ -207,7 +235,7 @@ public class BranchControllerTest {
 
     @Test
     void getBranchBankNumberListByBankNumber_ShouldHandleNotFoundException() throws Exception {
-        when(branchService.getBranchBankNumberByBankNumber("99"))
+        when(branchService.getBranchBankNumberByBankNumber(eq("99"), isNull()))
                 .thenThrow(new NotFoundException("Данные не найдены"));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/branches/similar-numbers")
@@ -697,6 +725,38 @@ public class BranchControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Пакетное добавление возвращает результат по каждому отделению")
+    void createBranches_ShouldReturnItemResults() throws Exception {
+        UUID createdId = UUID.randomUUID();
+        BranchBatchCreateResponse response = new BranchBatchCreateResponse(1, 1, List.of(
+                new BranchBatchCreateResponse.ItemResult(0, createdId, List.of()),
+                new BranchBatchCreateResponse.ItemResult(1, null,
+                        List.of("Отделение с таким номером 101 уже существует"))));
+        when(branchBulkService.createBranches(anyList())).thenReturn(response);
+
+        mockMvc.perform(post("/api/v1/branches/batch")
+                        .content("{\"branches\": [{}, {}]}")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].branchId").value(createdId.toString()))
+                .andExpect(jsonPath("$.results[1].errors[0]").value("Отделение с таким номером 101 уже существует"));
+    }
+
+    @Test
+    @DisplayName("Пустой пакет 400 - Bad Request")
+    void createBranches_WhenEmpty_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/branches/batch")
+                        .content(objectMapper.writeValueAsString(new BranchBatchCreateRequest(List.of())))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(branchBulkService, times(0)).createBranches(anyList());
+    }
+
     @Test
     @DisplayName("Должен вернуться список отделений")
     void shouldReturnListOfBranches() throws Exception {
@@ -716,9 +776,10 @@ public class BranchControllerTest {
                 "Тверская",
                 "15"
         );
-        List<BranchListResponse> response = List.of(new BranchListResponse(infoDto, addressDto));
+        CursorPageResponse<BranchListResponse> response =
+                new CursorPageResponse<>(List.of(new BranchListResponse(infoDto, addressDto)), null);
 
-        when(branchService.getBranches())
+        when(branchService.getBranches(isNull(), isNull()))
                 .thenReturn(response);
 
         String result = mockMvc.perform(get("/api/v1/branches")
@@ -735,18 +796,40 @@ public class BranchControllerTest {
     void searchBranchByFilterReturnEmptyListIfNothingFound() {
         //given
         BranchSearchRequest bsr = new BranchSearchRequest(new BranchInfo(), new AddressInfo());
-        List<BranchSearchResponseDto> searchResponseList = Collections.emptyList();
+        FilterPageRequest pageRequest = FilterPageRequest.firstPage();
+        FilterPageResponse<BranchSearchResponseDto> searchResponse =
+                new FilterPageResponse<>(Collections.emptyList(), 0, 50, false, null);
 
-        when(branchService.searchBranchesByFilter(bsr)).thenReturn(searchResponseList);
+        when(branchService.searchBranchesByFilter(bsr, pageRequest)).thenReturn(searchResponse);
 
         //when
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(bsr);
+        FilterPageResponse<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(bsr, pageRequest);
 
         //then
-        Assertions.assertDoesNotThrow(() -> branchService.searchBranchesByFilter(bsr));
-        Assertions.assertTrue(result.isEmpty());
+        Assertions.assertDoesNotThrow(() -> branchService.searchBranchesByFilter(bsr, pageRequest));
+        Assertions.assertTrue(result.items().isEmpty());
+
+        verify(branchService, times(2)).searchBranchesByFilter(bsr, pageRequest);
+    }
+
+    @Test
+    void searchBranchByFilter_ShouldPassPageAndSortParameters() throws Exception {
+        BranchSearchRequest branchSearchRequest = new BranchSearchRequest(new BranchInfo(), new AddressInfo());
+        when(branchService.searchBranchesByFilter(any(BranchSearchRequest.class), any(FilterPageRequest.class)))
+                .thenReturn(new FilterPageResponse<>(List.of(), 2, 10, false, 20L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/branches/filter")
+                        .param("page", "2")
+                        .param("size", "10")
+                        .param("sort", "CITY")
+                        .param("withCount", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(branchSearchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(20));
 
-        verify(branchService, times(2)).searchBranchesByFilter(bsr);
+        verify(branchService).searchBranchesByFilter(any(BranchSearchRequest.class),
+                eq(new FilterPageRequest(2, 10, FilterSortField.CITY, null, null, null, true)));
     }
 
     @Test
@@ -1,5 +1,6 @@
 package ru.bank.branchatmservice.repository;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,11 +12,15 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import ru.bank.branchatmservice.enums.BranchType;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.enums.WeekDay;
 import ru.bank.branchatmservice.model.Address;
 import ru.bank.branchatmservice.model.Branch;
 import ru.bank.branchatmservice.model.City;
 import ru.bank.branchatmservice.model.Location;
+import ru.bank.branchatmservice.model.WorkSchedule;
 
+import java.time.LocalTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -96,6 +101,36 @@ class BranchRepositoryTest {
     }
 
 
+    @Test
+    void findWithWorkScheduleById_ShouldFetchScheduleOnlyOnExplicitRequest() {
+        Branch branch = new Branch();
+        branch.setBankNumber("456");
+        branch.setName("Schedule Branch");
+        branch.setPhoneNumber("+37544235655");
+        branch.setAddress(address);
+        branch.setType(BranchType.BRANCH);
+        entityManager.persist(branch);
+        entityManager.persist(WorkSchedule.builder()
+                .entityType(EntityType.BRANCH)
+                .entityId(branch.getId())
+                .weekDay(WeekDay.MONDAY)
+                .openingTime(LocalTime.of(9, 0))
+                .closingTime(LocalTime.of(18, 0))
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Branch withoutSchedule = branchRepository.findByBankNumber("456").orElseThrow();
+        assertFalse(Hibernate.isInitialized(withoutSchedule.getWorkSchedule()));
+
+        entityManager.clear();
+
+        Branch withSchedule = branchRepository.findWithWorkScheduleById(branch.getId()).orElseThrow();
+        assertTrue(Hibernate.isInitialized(withSchedule.getWorkSchedule()));
+        assertEquals(1, withSchedule.getWorkSchedule().size());
+    }
+
     @Test
     void findByBankNumber_WithDifferentCase_ShouldNotFind() {
         Branch branch = new Branch();
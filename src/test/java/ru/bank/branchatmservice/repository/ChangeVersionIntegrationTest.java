@@ -0,0 +1,189 @@
+package ru.bank.branchatmservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Версии изменений на зафиксированных транзакциях: схема создается только Liquibase (с триггерами),
+ * тест не оборачивается в транзакцию, каждое соединение фиксирует свои изменения само.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers
+class ChangeVersionIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.liquibase.enabled", () -> "true");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void horizon_ShouldHideCommittedVersionWhileOlderTransactionRuns() throws SQLException {
+        List<UUID> branchIds = branchIds();
+        try (Connection older = transaction(); Connection newer = transaction(); Connection reader = dataSource.getConnection()) {
+            touchBranch(older, branchIds.get(0));
+            long olderVersion = queryLong(older, "SELECT current_change_version()");
+            touchBranch(newer, branchIds.get(1));
+            newer.commit();
+
+            long newerVersion = changeVersion(reader, branchIds.get(1));
+            assertTrue(newerVersion > olderVersion);
+            // более новая транзакция уже зафиксирована, но лента не отдает ее, пока старшая не завершится
+            assertTrue(queryLong(reader, "SELECT change_version_horizon()") <= olderVersion);
+
+            older.commit();
+            long horizon = queryLong(reader, "SELECT change_version_horizon()");
+            assertTrue(horizon > olderVersion);
+            assertTrue(horizon > newerVersion);
+            assertEquals(olderVersion, changeVersion(reader, branchIds.get(0)));
+        }
+    }
+
+    @Test
+    void scheduleWrites_ShouldTouchOwnerOncePerTransaction() throws SQLException {
+        UUID branchId = branchIds().get(0);
+        try (Connection writer = transaction(); Connection reader = dataSource.getConnection()) {
+            execute(writer, "DELETE FROM work_schedule WHERE entity_type = 'BRANCH' AND entity_id = ?", branchId);
+            String ownerRow = queryString(writer, "SELECT ctid::TEXT FROM branch WHERE id = ?", branchId);
+            insertSchedule(writer, branchId, 1);
+            insertSchedule(writer, branchId, 2);
+
+            // владелец уже получил версию этой транзакции и повторно не обновляется
+            assertEquals(ownerRow, queryString(writer, "SELECT ctid::TEXT FROM branch WHERE id = ?", branchId));
+            long version = queryLong(writer, "SELECT current_change_version()");
+            writer.commit();
+            assertEquals(version, changeVersion(reader, branchId));
+        }
+    }
+
+    @Test
+    void scheduleWrite_WhenOwnerLocked_ShouldWaitWithoutDeadlock() throws Exception {
+        UUID branchId = branchIds().get(0);
+        try (Connection owner = transaction(); Connection schedule = transaction(); Connection reader = dataSource.getConnection()) {
+            touchBranch(owner, branchId);
+            CompletableFuture<Long> scheduleWrite = CompletableFuture.supplyAsync(() -> {
+                try {
+                    execute(schedule, "DELETE FROM work_schedule WHERE entity_type = 'BRANCH' AND entity_id = ?", branchId);
+                    insertSchedule(schedule, branchId, 3);
+                    long version = queryLong(schedule, "SELECT current_change_version()");
+                    schedule.commit();
+                    return version;
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            // запись графика ждет блокировку строки отделения
+            TimeUnit.MILLISECONDS.sleep(300);
+            assertFalse(scheduleWrite.isDone());
+
+            owner.commit();
+            long scheduleVersion = scheduleWrite.get(10, TimeUnit.SECONDS);
+            assertEquals(scheduleVersion, changeVersion(reader, branchId));
+        }
+    }
+
+    private Connection transaction() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private List<UUID> branchIds() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT id FROM branch ORDER BY id LIMIT 2");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            UUID first = resultSet.getObject(1, UUID.class);
+            resultSet.next();
+            return List.of(first, resultSet.getObject(1, UUID.class));
+        }
+    }
+
+    private static void touchBranch(Connection connection, UUID branchId) throws SQLException {
+        execute(connection, "UPDATE branch SET has_pandus = NOT has_pandus WHERE id = ?", branchId);
+    }
+
+    private static void insertSchedule(Connection connection, UUID branchId, int weekDay) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO work_schedule (id, entity_type, entity_id, week_day, opening_time, closing_time)
+                VALUES (gen_random_uuid(), 'BRANCH', ?, ?, '09:00', '18:00')
+                """)) {
+            statement.setObject(1, branchId);
+            statement.setInt(2, weekDay);
+            statement.executeUpdate();
+        }
+    }
+
+    private static long changeVersion(Connection connection, UUID branchId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT change_version FROM branch WHERE id = ?")) {
+            statement.setObject(1, branchId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql, UUID id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, id);
+            statement.executeUpdate();
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static String queryString(Connection connection, String sql, UUID id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+}
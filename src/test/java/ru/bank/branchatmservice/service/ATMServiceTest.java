@@ -7,30 +7,44 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.domain.Specification;
+import ru.bank.branchatmservice.catalog.AtmCatalog;
+import ru.bank.branchatmservice.catalog.AtmCatalogEntry;
+import ru.bank.branchatmservice.catalog.AtmCatalogSnapshot;
+import ru.bank.branchatmservice.catalog.GeoPoint;
+import ru.bank.branchatmservice.dto.ATMFullDto;
+import ru.bank.branchatmservice.dto.ArchivedAtmProjection;
 import ru.bank.branchatmservice.dto.InfoAtmDto;
 import ru.bank.branchatmservice.dto.request.AddressFullInfoDto;
 import ru.bank.branchatmservice.dto.request.AtmCreateDto;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import ru.bank.branchatmservice.dto.request.AtmFilterDto;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
 import ru.bank.branchatmservice.dto.request.AtmInfoCreateDto;
 import ru.bank.branchatmservice.dto.request.BranchShortInfo;
 import ru.bank.branchatmservice.dto.request.UpdateAtmInfoRequest;
+import ru.bank.branchatmservice.dto.response.AtmBatchResponse;
 import ru.bank.branchatmservice.dto.response.AtmFilterResponseDto;
+import ru.bank.branchatmservice.dto.response.CursorPageResponse;
+import ru.bank.branchatmservice.dto.response.FilterPageResponse;
 import ru.bank.branchatmservice.dto.response.MessageResponseDto;
+import ru.bank.branchatmservice.dto.response.NearestAtmResponseDto;
 import ru.bank.branchatmservice.enums.Construction;
+import ru.bank.branchatmservice.event.AtmsChangedEvent;
 import ru.bank.branchatmservice.exception.BranchNotFoundException;
 import ru.bank.branchatmservice.exception.CityNotFoundException;
 import ru.bank.branchatmservice.exception.NotFoundException;
 import ru.bank.branchatmservice.dto.ScheduleDto;
+import ru.bank.branchatmservice.enums.ChangeType;
 import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.enums.FilterSortField;
 import ru.bank.branchatmservice.enums.WeekDay;
 import ru.bank.branchatmservice.mapper.ATMMapper;
 import ru.bank.branchatmservice.mapper.AddressMapper;
@@ -41,26 +55,38 @@ import ru.bank.branchatmservice.model.Branch;
 import ru.bank.branchatmservice.model.City;
 import ru.bank.branchatmservice.model.WorkSchedule;
 import ru.bank.branchatmservice.repository.ATMRepository;
+import ru.bank.branchatmservice.repository.FilterPageQuery;
 import ru.bank.branchatmservice.repository.WorkScheduleRepository;
+import ru.bank.branchatmservice.util.KeysetCursor;
+import ru.bank.branchatmservice.util.WeekSchedule;
 
 import java.math.BigDecimal;
 import java.time.LocalTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -77,14 +103,23 @@ class ATMServiceTest {
     @Mock
     private WorkScheduleRepository workScheduleRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AtmCatalog atmCatalog;
+
+    @Mock
+    private WorkScheduleService workScheduleService;
+
+    @Mock
+    private FilterPageQuery filterPageQuery;
+
     @Spy
     private ATMMapper atmMapper = Mappers.getMapper(ATMMapper.class);
     @Spy
     private WorkScheduleMapper workScheduleMapper = Mappers.getMapper(WorkScheduleMapper.class);
 
-    @Captor
-    ArgumentCaptor<List<WorkSchedule>> workSchedulesCaptor;
-
     @InjectMocks
     private ATMService atmService;
 
@@ -196,17 +231,11 @@ class ATMServiceTest {
         UUID uuid2 = UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8");
         List<UUID> atmIds = List.of(uuid1, uuid2);
 
-        ATM atm2 = ATM.builder()
-                .id(uuid2)
-                .inventoryNumber("ATM-002")
-                .address(Address.builder()
-                        .city(new City(null, null, "СПб", true))
-                        .streetType("пр.")
-                        .street("Невский")
-                        .house("25")
-                        .build())
-                .build();
-        List<ATM> atms = List.of(atm, atm2);
+        ArchivedAtmProjection archived1 = archivedAtm(uuid1, atm.getInventoryNumber());
+        ArchivedAtmProjection archived2 = archivedAtm(uuid2, "ATM-002");
+        when(archived2.getCityName()).thenReturn("СПб");
+        when(archived2.getStreet()).thenReturn("Невский");
+        List<ArchivedAtmProjection> atms = List.of(archived1, archived2);
 
         when(atmRepository.softDeleteByAtmIds(atmIds)).thenReturn(atms);
 
@@ -214,17 +243,20 @@ class ATMServiceTest {
 
         assertNotNull(infoAtmDtos);
         assertEquals(2, infoAtmDtos.size());
-        assertEquals(atms.get(0).getInventoryNumber(), infoAtmDtos.get(0).getInventoryNumber());
-        assertEquals(atms.get(1).getInventoryNumber(), infoAtmDtos.get(1).getInventoryNumber());
+        assertEquals(atm.getInventoryNumber(), infoAtmDtos.get(0).getInventoryNumber());
+        assertEquals("ATM-002", infoAtmDtos.get(1).getInventoryNumber());
+        assertEquals("СПб", infoAtmDtos.get(1).getCityName());
+        assertEquals("Невский", infoAtmDtos.get(1).getStreet());
 
         verify(atmRepository, times(1)).softDeleteByAtmIds(atmIds);
-        verify(atmMapper, times(2)).toInfoAtmDto(any(ATM.class));
+        verify(atmMapper, times(2)).toInfoAtmDto(any(ArchivedAtmProjection.class));
+        verify(eventPublisher).publishEvent(new AtmsChangedEvent(atmIds, ChangeType.ARCHIVED));
     }
 
     @Test
     void softDeleteATMByIds_SingleATMCorrectly_200() {
         List<UUID> atmIds = List.of(atm.getId());
-        List<ATM> atms = List.of(atm);
+        List<ArchivedAtmProjection> atms = List.of(archivedAtm(atm.getId(), atm.getInventoryNumber()));
 
         when(atmRepository.softDeleteByAtmIds(atmIds)).thenReturn(atms);
 
@@ -234,7 +266,42 @@ class ATMServiceTest {
         assertEquals(1, infoAtmDtos.size());
 
         verify(atmRepository, times(1)).softDeleteByAtmIds(atmIds);
-        verify(atmMapper, times(1)).toInfoAtmDto(any(ATM.class));
+        verify(atmMapper, times(1)).toInfoAtmDto(any(ArchivedAtmProjection.class));
+    }
+
+    private static ArchivedAtmProjection archivedAtm(UUID id, String inventoryNumber) {
+        ArchivedAtmProjection archived = mock(ArchivedAtmProjection.class);
+        when(archived.getId()).thenReturn(id);
+        when(archived.getInventoryNumber()).thenReturn(inventoryNumber);
+        return archived;
+    }
+
+    @Test
+    void getATMsByIds_ShouldLoadAtmsAndSchedulesInTwoQueries() {
+        UUID missingId = UUID.randomUUID();
+        Branch branch = new Branch();
+        atm.setBranch(branch);
+        ATMFullDto dto = new ATMFullDto(null, null, List.of());
+
+        when(atmRepository.findAllWithBranchByIdIn(List.of(atm.getId(), missingId))).thenReturn(List.of(atm));
+        when(workScheduleRepository.findAll(any(Specification.class))).thenReturn(workSchedules);
+        doReturn(dto).when(atmMapper).ofATMBranchAndWorkSchedule(atm, branch, workSchedules);
+
+        AtmBatchResponse response = atmService.getATMsByIds(List.of(atm.getId(), missingId, atm.getId()));
+
+        assertEquals(Map.of(atm.getId(), dto), response.atms());
+        assertEquals(List.of(missingId), response.notFound());
+        verify(workScheduleRepository, times(1)).findAll(any(Specification.class));
+        verify(atmRepository, never()).findById(any());
+    }
+
+    @Test
+    void getATMsByIds_WhenBatchEmptyOrTooLarge_ShouldThrowIllegalArgumentException() {
+        List<UUID> tooMany = Collections.nCopies(ATMService.MAX_ATM_BATCH + 1, atm.getId());
+
+        assertThrows(IllegalArgumentException.class, () -> atmService.getATMsByIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> atmService.getATMsByIds(tooMany));
+        verify(atmRepository, never()).findAllWithBranchByIdIn(any());
     }
 
     @Test
@@ -244,9 +311,14 @@ class ATMServiceTest {
         Branch branch = new Branch();
         City city = new City();
         ATM atm = new ATM();
+        atm.setId(UUID.randomUUID());
         Address address = new Address();
         atm.setAddress(address);
-        List<WorkSchedule> schedules = Arrays.asList(new WorkSchedule(), new WorkSchedule());
+        List<WorkSchedule> schedules = Arrays.asList(
+                WorkSchedule.builder().weekDay(WeekDay.MONDAY)
+                        .openingTime(LocalTime.MIDNIGHT).closingTime(LocalTime.MIDNIGHT).build(),
+                WorkSchedule.builder().weekDay(WeekDay.WEDNESDAY)
+                        .openingTime(LocalTime.of(9, 0)).closingTime(LocalTime.of(18, 0)).build());
         atm.setWorkSchedule(schedules);
 
         // Настройка моков
@@ -266,8 +338,11 @@ class ATMServiceTest {
         assertTrue(response.message().contains("успешно"));
         verify(atmRepository, times(1)).saveAndFlush(atm);
         verify(workScheduleRepository, times(1)).saveAll(schedules);
+        verify(eventPublisher).publishEvent(new AtmsChangedEvent(List.of(atm.getId()), ChangeType.CREATED));
         assertEquals(branch, atm.getBranch());
         assertEquals(city, atm.getAddress().getCity());
+        assertEquals(0b101, atm.getOpenDays());
+        assertFalse(atm.isAlwaysOpen());
     }
 
     @Test
@@ -325,44 +400,111 @@ class ATMServiceTest {
     @Test
     void EmptyAtmsList_whenGetAllATMs(){
 
-        when(atmRepository.findAll()).thenReturn(Collections.emptyList());
+        when(atmRepository.findPageIds(Limit.of(KeysetCursor.DEFAULT_LIMIT + 1))).thenReturn(Collections.emptyList());
 
-        List<AtmFilterResponseDto> atm = atmService.getAllAtmList();
+        CursorPageResponse<AtmFilterResponseDto> page = atmService.getAtmPage(null, null);
 
-        assertThat(atm).isEmpty();
-        assertEquals(0, atm.size());
+        assertThat(page.items()).isEmpty();
+        assertNull(page.nextCursor());
+        verify(atmRepository, never()).findAllByIdIn(any());
     }
 
     @Test
     void AtmsList_whenGetAllATMs(){
-        when(atmRepository.findAll()).thenReturn(List.of(atm));
+        when(atmRepository.findPageIds(Limit.of(KeysetCursor.DEFAULT_LIMIT + 1))).thenReturn(List.of(atm.getId()));
+        when(atmRepository.findAllByIdIn(List.of(atm.getId()))).thenReturn(List.of(atm));
 
-        List<AtmFilterResponseDto> atm = atmService.getAllAtmList();
+        CursorPageResponse<AtmFilterResponseDto> page = atmService.getAtmPage(null, null);
 
-        Assertions.assertEquals(1,atm.size());
+        Assertions.assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getAtmPage_ShouldLoadDetailsOnlyForPageIdsAndReturnNextCursor() {
+        UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID second = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        UUID third = UUID.fromString("00000000-0000-0000-0000-000000000003");
+        UUID fourth = UUID.fromString("00000000-0000-0000-0000-000000000004");
+        ATM secondAtm = ATM.builder().id(second).build();
+        ATM thirdAtm = ATM.builder().id(third).build();
+
+        when(atmRepository.findPageIdsAfter(first, Limit.of(3))).thenReturn(List.of(second, third, fourth));
+        when(atmRepository.findAllByIdIn(List.of(second, third))).thenReturn(List.of(thirdAtm, secondAtm));
+
+        CursorPageResponse<AtmFilterResponseDto> page =
+                atmService.getAtmPage(KeysetCursor.encode(first), 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(third, KeysetCursor.decode(page.nextCursor()));
+        verify(atmRepository, never()).findPageIds(any());
     }
 
     @Test
     void updateATM_WhenValidRequest_ShouldUpdateAtmAndWorkSchedules() {
         UpdateAtmInfoRequest request = updateAtmInfoRequest;
         ATM existingAtm = atm;
-        List<WorkSchedule> newSchedules = newWorkSchedules;
-        for (WorkSchedule workSchedule : newSchedules) {
-            workSchedule.setEntityId(atm.getId());
-            workSchedule.setEntityType(EntityType.ATM);
-        }
+        WorkSchedule unchangedMonday = new WorkSchedule(UUID.randomUUID(), EntityType.ATM, atm.getId(),
+                WeekDay.MONDAY, LocalTime.parse("09:00"), LocalTime.parse("18:00"));
+        WorkSchedule changedTuesday = new WorkSchedule(UUID.randomUUID(), EntityType.ATM, atm.getId(),
+                WeekDay.TUESDAY, LocalTime.parse("08:00"), LocalTime.parse("18:00"));
+        WorkSchedule removedWednesday = new WorkSchedule(UUID.randomUUID(), EntityType.ATM, atm.getId(),
+                WeekDay.WEDNESDAY, LocalTime.parse("10:00"), LocalTime.parse("17:00"));
 
         when(atmRepository.findById(atm.getId())).thenReturn(Optional.of(existingAtm));
+        when(workScheduleRepository.findAllByEntityIdAndEntityType(atm.getId(), EntityType.ATM))
+                .thenReturn(List.of(unchangedMonday, changedTuesday, removedWednesday));
 
         atmService.updateATM(atm.getId(), request);
 
         verify(atmRepository, times(1)).findById(atm.getId());
-        verify(workScheduleRepository, times(1)).deleteAllByEntityIdAndEntityType(atm.getId(), EntityType.ATM);
         verify(atmMapper, times(1)).toATM(eq(request), eq(existingAtm));
         verify(atmRepository, times(1)).save(existingAtm);
         verify(workScheduleMapper, times(1)).ofWorkScheduleDtoList(eq(request.getSchedules()), any(List.class));
-        verify(workScheduleRepository, times(1)).saveAll(workSchedulesCaptor.capture());
-        assertEquals(newSchedules, workSchedulesCaptor.getValue());
+        verify(workScheduleRepository, times(1)).upsertDay(changedTuesday.getId(), "ATM", atm.getId(), 2,
+                LocalTime.parse("09:00"), LocalTime.parse("18:00"));
+        verify(workScheduleRepository, never()).upsertDay(eq(unchangedMonday.getId()), any(), any(), anyInt(), any(), any());
+        verify(workScheduleRepository, times(1)).deleteDays("ATM", atm.getId(), List.of(3));
+        verify(workScheduleRepository, never()).saveAll(any());
+        verify(eventPublisher).publishEvent(new AtmsChangedEvent(List.of(atm.getId()), ChangeType.UPDATED));
+    }
+
+    @Test
+    void updateATM_WhenScheduleWasEmpty_ShouldInsertEveryDayWithoutDeleting() {
+        when(atmRepository.findById(atm.getId())).thenReturn(Optional.of(atm));
+
+        atmService.updateATM(atm.getId(), updateAtmInfoRequest);
+
+        verify(workScheduleRepository, times(1)).upsertDay(any(UUID.class), eq("ATM"), eq(atm.getId()), eq(1),
+                eq(LocalTime.parse("09:00")), eq(LocalTime.parse("18:00")));
+        verify(workScheduleRepository, times(1)).upsertDay(any(UUID.class), eq("ATM"), eq(atm.getId()), eq(2),
+                eq(LocalTime.parse("09:00")), eq(LocalTime.parse("18:00")));
+        verify(workScheduleRepository, never()).deleteDays(any(), any(), anyCollection());
+    }
+
+    @Test
+    void updateATM_WhenDayRepeated_ShouldThrowIllegalArgumentException() {
+        updateAtmInfoRequest.setSchedules(List.of(
+                new ScheduleDto(1, "09:00", "13:00"),
+                new ScheduleDto(1, "14:00", "18:00")));
+        when(atmRepository.findById(atm.getId())).thenReturn(Optional.of(atm));
+
+        assertThrows(IllegalArgumentException.class, () -> atmService.updateATM(atm.getId(), updateAtmInfoRequest));
+
+        verify(workScheduleRepository, never()).upsertDay(any(), any(), any(), anyInt(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateATM_ShouldRecalculateScheduleSummary() {
+        atm.setAlwaysOpen(true);
+        atm.setOpenDays((short) 0b1111111);
+        when(atmRepository.findById(atm.getId())).thenReturn(Optional.of(atm));
+
+        atmService.updateATM(atm.getId(), updateAtmInfoRequest);
+
+        assertFalse(atm.isAlwaysOpen());
+        assertEquals(0b11, atm.getOpenDays());
     }
 
     @Test
@@ -408,13 +550,21 @@ class ATMServiceTest {
 
         List<ATM> mockAtms = Arrays.asList(atm, atm2);
 
-        when(atmRepository.findAll(any(Specification.class))).thenReturn(mockAtms);
+        FilterPageRequest pageRequest = new FilterPageRequest(0, 2, FilterSortField.CITY, null, null, null, null);
+        when(filterPageQuery.findIds(eq(ATM.class), any(Specification.class), eq(pageRequest),
+                eq("number"), eq(0), eq(3)))
+                .thenReturn(List.of(atm2.getId(), atm.getId(), UUID.randomUUID()));
+        when(atmRepository.findAllByIdIn(List.of(atm2.getId(), atm.getId()))).thenReturn(mockAtms);
 
-        List<AtmFilterResponseDto> result = atmService.getAtmListByFilter(filters);
+        FilterPageResponse<AtmFilterResponseDto> page = atmService.getAtmListByFilter(filters, pageRequest);
+        List<AtmFilterResponseDto> result = page.items();
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(atmRepository).findAll(any(Specification.class));
+        assertTrue(page.hasNext());
+        assertNull(page.totalElements());
+        verify(atmRepository, never()).findAll(any(Specification.class));
+        verify(atmRepository, never()).count(any(Specification.class));
         verify(atmMapper, times(2)).toAtmFilterResponseDto(any(ATM.class));
     }
 
@@ -433,15 +583,82 @@ class ATMServiceTest {
                 "1"
         );
 
-        when(atmRepository.findAll(any(Specification.class))).thenReturn(List.of());
+        FilterPageRequest pageRequest = new FilterPageRequest(null, null, null, null, null, null, true);
+        when(filterPageQuery.findIds(eq(ATM.class), any(Specification.class), eq(pageRequest),
+                eq("number"), eq(0), eq(FilterPageRequest.DEFAULT_SIZE + 1)))
+                .thenReturn(List.of());
+        when(atmRepository.count(any(Specification.class))).thenReturn(0L);
 
-        List<AtmFilterResponseDto> result = atmService.getAtmListByFilter(filters);
+        FilterPageResponse<AtmFilterResponseDto> page = atmService.getAtmListByFilter(filters, pageRequest);
+        List<AtmFilterResponseDto> result = page.items();
 
         assertNotNull(result);
         assertEquals(0, result.size());
         assertTrue(result.isEmpty());
-        verify(atmRepository).findAll(any(Specification.class));
+        assertEquals(0L, page.totalElements());
+        verify(atmRepository, never()).findAllByIdIn(any());
         verify(workScheduleRepository, never()).findAll(any(Specification.class));
         verify(atmMapper, never()).toAtmFilterResponseDto(any(ATM.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAtmsByFilter_WhenOffsetTooLarge_ShouldThrowIllegalArgumentException() {
+        AtmFilterDto filters = new AtmFilterDto(null, null, null, null, null, null, null, null, null);
+        FilterPageRequest pageRequest = new FilterPageRequest(10_000_000, 500, null, null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> atmService.getAtmListByFilter(filters, pageRequest));
+        verifyNoInteractions(filterPageQuery);
+    }
+
+    @Test
+    void findNearestAtms_ShouldReturnClosestMatchingAtmsOrderedByDistance() {
+        Map<UUID, AtmCatalogEntry> entries = new LinkedHashMap<>();
+        UUID nearWithoutNfc = addCatalogAtm(entries, 55.7560, 37.6175, false);
+        UUID near = addCatalogAtm(entries, 55.7600, 37.6200, true);
+        UUID far = addCatalogAtm(entries, 55.8000, 37.7000, true);
+        addCatalogAtm(entries, 59.9386, 30.3141, true);
+
+        when(atmCatalog.getSnapshot()).thenReturn(AtmCatalogSnapshot.empty().withEntries(entries));
+        when(workScheduleService.currentWeekSecond()).thenReturn(10 * 3600);
+        AtmFilterDto filters = new AtmFilterDto(null, null, null, null, true, null, null, null, null);
+
+        List<NearestAtmResponseDto> result = atmService.findNearestAtms(55.7558, 37.6173, 2, filters);
+
+        assertEquals(2, result.size());
+        assertEquals(near, result.get(0).id());
+        assertEquals(far, result.get(1).id());
+        assertTrue(result.get(0).distance() < result.get(1).distance());
+        assertTrue(result.stream().noneMatch(atm -> atm.id().equals(nearWithoutNfc)));
+        assertTrue(result.get(0).isOpen());
+    }
+
+    @Test
+    void findNearestAtms_WhenLimitOutOfRange_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> atmService.findNearestAtms(55.7558, 37.6173, 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> atmService.findNearestAtms(95.0, 37.6173, 10, null));
+        verify(atmCatalog, never()).getSnapshot();
+    }
+
+    @Test
+    void findNearestAtms_WhenCoordinateIsNaN_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> atmService.findNearestAtms(Double.NaN, 37.6173, 10, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> atmService.findNearestAtms(55.7558, Double.NaN, 10, null));
+        verify(atmCatalog, never()).getSnapshot();
+    }
+
+    private UUID addCatalogAtm(Map<UUID, AtmCatalogEntry> entries, double latitude, double longitude, boolean nfc) {
+        UUID id = UUID.randomUUID();
+        WorkSchedule allDay = WorkSchedule.builder()
+                .weekDay(WeekDay.MONDAY)
+                .openingTime(LocalTime.MIDNIGHT)
+                .closingTime(LocalTime.MIDNIGHT)
+                .build();
+        entries.put(id, new AtmCatalogEntry(id, false, true, nfc, null,
+                new GeoPoint(id, EntityType.ATM, latitude, longitude), WeekSchedule.compile(List.of(allDay))));
+        return id;
+    }
+}
@@ -0,0 +1,241 @@
+package ru.bank.branchatmservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.bank.branchatmservice.catalog.BranchCatalog;
+import ru.bank.branchatmservice.catalog.BranchCatalogEntry;
+import ru.bank.branchatmservice.catalog.BranchCatalogSnapshot;
+import ru.bank.branchatmservice.dto.BranchDto;
+import ru.bank.branchatmservice.dto.response.AtmImportResponse;
+import ru.bank.branchatmservice.enums.ChangeType;
+import ru.bank.branchatmservice.enums.ExportFormat;
+import ru.bank.branchatmservice.event.AtmsChangedEvent;
+import ru.bank.branchatmservice.mapper.ATMMapper;
+import ru.bank.branchatmservice.mapper.AddressMapper;
+import ru.bank.branchatmservice.mapper.WorkScheduleMapper;
+import ru.bank.branchatmservice.model.ATM;
+import ru.bank.branchatmservice.model.City;
+import ru.bank.branchatmservice.model.WorkSchedule;
+import ru.bank.branchatmservice.repository.ATMRepository;
+import ru.bank.branchatmservice.repository.CityRepository;
+import ru.bank.branchatmservice.repository.JdbcBatchWriter;
+import ru.bank.branchatmservice.util.WeekSchedule;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AtmImportServiceTest {
+    private static final UUID BRANCH_ID = UUID.randomUUID();
+    private static final String CSV_HEADER = "number,inventoryNumber,installationLocation,construction,hasCashDeposit,"
+            + "hasNfc,city,streetType,street,house,latitude,longitude,metroStation,bankNumber,workSchedule\n";
+
+    @Mock
+    private ATMRepository atmRepository;
+
+    @Mock
+    private CityRepository cityRepository;
+
+    @Mock
+    private BranchCatalog branchCatalog;
+
+    @Mock
+    private JdbcBatchWriter batchWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<List<ATM>> atmsCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<WorkSchedule>> schedulesCaptor;
+
+    private AtmImportService atmImportService;
+
+    private City moscow;
+
+    @BeforeEach
+    void setUp() {
+        ATMMapper atmMapper = Mappers.getMapper(ATMMapper.class);
+        WorkScheduleMapper workScheduleMapper = Mappers.getMapper(WorkScheduleMapper.class);
+        ReflectionTestUtils.setField(atmMapper, "workScheduleMapper", workScheduleMapper);
+        ReflectionTestUtils.setField(atmMapper, "addressMapper", Mappers.getMapper(AddressMapper.class));
+
+        atmImportService = new AtmImportService(
+                atmRepository,
+                cityRepository,
+                branchCatalog,
+                batchWriter,
+                atmMapper,
+                workScheduleMapper,
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                eventPublisher
+        );
+
+        moscow = City.builder().id(UUID.randomUUID()).name("Москва").build();
+        BranchDto branch = new BranchDto(BRANCH_ID, "Центральный офис", "101", false, false, false, "+78478579955", false);
+        BranchCatalogSnapshot snapshot = BranchCatalogSnapshot.empty().withEntries(Map.of(
+                BRANCH_ID, new BranchCatalogEntry(branch, null, null, WeekSchedule.compile(List.of()))));
+        when(cityRepository.findAll()).thenReturn(List.of(moscow));
+        when(branchCatalog.getSnapshot()).thenReturn(snapshot);
+    }
+
+    @Test
+    void importAtms_Ndjson_ShouldWriteValidRowsAndReportErrors() throws Exception {
+        String allDay = "{\"weekDay\":%d,\"openingTime\":\"00:00\",\"closingTime\":\"00:00\"}";
+        StringBuilder schedule = new StringBuilder();
+        for (int day = 1; day <= 7; day++) {
+            schedule.append(day > 1 ? "," : "").append(String.format(allDay, day));
+        }
+        String ndjson = atmJson("1111", "0001", "101", schedule.toString()) + "\n"
+                + "\n"
+                + atmJson("1112", "0002", "999", "") + "\n"
+                + "{not json\n";
+        when(atmRepository.findNumbersIn(anyList())).thenReturn(List.of());
+        when(atmRepository.findInventoryNumbersIn(anyList())).thenReturn(List.of());
+
+        AtmImportResponse result = atmImportService.importAtms(ExportFormat.NDJSON, stream(ndjson));
+
+        assertEquals(3, result.processed());
+        assertEquals(1, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals(3, result.errors().get(0).line());
+        assertEquals("1112", result.errors().get(0).number());
+        assertEquals("Отделение с номером 999 не найдено", result.errors().get(0).message());
+        assertEquals(4, result.errors().get(1).line());
+        assertFalse(result.errorsTruncated());
+
+        verify(batchWriter).insertAtms(atmsCaptor.capture());
+        verify(batchWriter).insertWorkSchedules(schedulesCaptor.capture());
+        ATM atm = atmsCaptor.getValue().get(0);
+        assertEquals("1111", atm.getNumber());
+        assertEquals(BRANCH_ID, atm.getBranch().getId());
+        assertEquals(moscow, atm.getAddress().getCity());
+        assertTrue(atm.isAlwaysOpen());
+        assertEquals(0b1111111, atm.getOpenDays());
+        assertEquals(7, schedulesCaptor.getValue().size());
+        assertTrue(schedulesCaptor.getValue().stream().allMatch(ws -> atm.getId().equals(ws.getEntityId())));
+        verify(eventPublisher).publishEvent(new AtmsChangedEvent(List.of(atm.getId()), ChangeType.CREATED));
+    }
+
+    @Test
+    void importAtms_Csv_ShouldSkipDuplicatesInFileAndDatabase() throws Exception {
+        String csv = CSV_HEADER
+                + "1111,0001,\"Второй этаж, левое крыло\",Внешний,true,false,Москва,ул.,Тверская,1,,,,101,1 09:00-18:00\n"
+                + "1111,0002,Холл,Внешний,false,false,Москва,ул.,Тверская,2,,,,101,\n"
+                + "2222,0003,Холл,Внешний,false,false,Москва,ул.,Тверская,3,,,,101,\n";
+        when(atmRepository.findNumbersIn(anyList())).thenReturn(List.of("2222"));
+        when(atmRepository.findInventoryNumbersIn(anyList())).thenReturn(List.of());
+
+        AtmImportResponse result = atmImportService.importAtms(ExportFormat.CSV, stream(csv));
+
+        assertEquals(3, result.processed());
+        assertEquals(1, result.imported());
+        assertEquals("Номер 1111 уже встречался в строке 2", result.errors().get(0).message());
+        assertEquals("ATM с номером 2222 уже существует", result.errors().get(1).message());
+
+        verify(batchWriter).insertAtms(atmsCaptor.capture());
+        verify(batchWriter).insertWorkSchedules(schedulesCaptor.capture());
+        ATM atm = atmsCaptor.getValue().get(0);
+        assertEquals("Второй этаж, левое крыло", atm.getInstallationLocation());
+        assertTrue(atm.isHasCashDeposit());
+        assertEquals(0b1, atm.getOpenDays());
+        assertEquals(1, schedulesCaptor.getValue().size());
+    }
+
+    @Test
+    void importAtms_CsvWithoutRequiredColumns_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> atmImportService.importAtms(ExportFormat.CSV, stream("number,city\n1111,Москва\n")));
+
+        verifyNoInteractions(batchWriter, eventPublisher);
+    }
+
+    @Test
+    void importAtms_WhenRowViolatesConstraint_ShouldReportOnlyThatRow() throws Exception {
+        String csv = CSV_HEADER
+                + "1111,0001,Холл,Внешний,,,Москва,ул.,Тверская,1,,,,101,\n"
+                + "2222,0002,Холл,Внешний,,,Москва,ул.,Тверская,2,,,,101,\n"
+                + "3333,0003,Холл,Внешний,,,Москва,ул.,Тверская,3,,,,101,\n";
+        when(atmRepository.findNumbersIn(anyList())).thenReturn(List.of());
+        when(atmRepository.findInventoryNumbersIn(anyList())).thenReturn(List.of());
+        // номер 2222 успела занять параллельная загрузка
+        doAnswer(invocation -> {
+            List<ATM> atms = invocation.getArgument(0);
+            if (atms.stream().anyMatch(atm -> atm.getNumber().equals("2222"))) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint \"atm_number_key\"");
+            }
+            return null;
+        }).when(batchWriter).insertAtms(anyList());
+
+        AtmImportResponse result = atmImportService.importAtms(ExportFormat.CSV, stream(csv));
+
+        assertEquals(2, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(3, result.errors().get(0).line());
+        assertEquals("ATM с номером 2222 уже существует", result.errors().get(0).message());
+        verify(eventPublisher, times(2)).publishEvent(any(AtmsChangedEvent.class));
+    }
+
+    @Test
+    void importAtms_WhenChunkWriteFails_ShouldNotExposeDatabaseMessage() throws Exception {
+        String csv = CSV_HEADER + "1111,0001,Холл,Внешний,,,Москва,ул.,Тверская,1,,,,101,\n";
+        when(atmRepository.findNumbersIn(anyList())).thenReturn(List.of());
+        when(atmRepository.findInventoryNumbersIn(anyList())).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("violates foreign key constraint \"atm_branch_id_fkey\""))
+                .when(batchWriter).insertAtms(anyList());
+
+        AtmImportResponse result = atmImportService.importAtms(ExportFormat.CSV, stream(csv));
+
+        assertEquals(0, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals("Банкомат не записан: данные нарушают ограничения БД", result.errors().get(0).message());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static String atmJson(String number, String inventoryNumber, String bankNumber, String schedule) {
+        return String.format("{\"atmInfo\":{\"ATMNumber\":\"%s\",\"inventoryNumber\":\"%s\","
+                        + "\"installationLocation\":\"Холл\",\"construction\":\"Внешний\",\"cashDeposit\":true,\"NFC\":true},"
+                        + "\"addressInfo\":{\"cityName\":\"Москва\",\"streetType\":\"ул.\",\"street\":\"Тверская\",\"house\":\"1\"},"
+                        + "\"branchInfo\":{\"bankNumber\":\"%s\"},\"scheduleArray\":[%s]}",
+                number, inventoryNumber, bankNumber, schedule);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,236 @@
+package ru.bank.branchatmservice.service;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.bank.branchatmservice.dto.BranchCreateDto;
+import ru.bank.branchatmservice.dto.BranchCreateInfoDto;
+import ru.bank.branchatmservice.dto.BranchUniqueKeysProjection;
+import ru.bank.branchatmservice.dto.ScheduleDto;
+import ru.bank.branchatmservice.dto.request.AddressFullInfoDto;
+import ru.bank.branchatmservice.dto.response.BranchBatchCreateResponse;
+import ru.bank.branchatmservice.enums.BranchType;
+import ru.bank.branchatmservice.enums.ChangeType;
+import ru.bank.branchatmservice.event.BranchesChangedEvent;
+import ru.bank.branchatmservice.mapper.AddressMapper;
+import ru.bank.branchatmservice.mapper.BranchMapper;
+import ru.bank.branchatmservice.mapper.WorkScheduleMapper;
+import ru.bank.branchatmservice.model.Branch;
+import ru.bank.branchatmservice.model.City;
+import ru.bank.branchatmservice.model.WorkSchedule;
+import ru.bank.branchatmservice.repository.BranchRepository;
+import ru.bank.branchatmservice.repository.CityRepository;
+import ru.bank.branchatmservice.repository.JdbcBatchWriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BranchBulkServiceTest {
+    private static final UUID DEPARTMENT_ID = UUID.randomUUID();
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private CityRepository cityRepository;
+
+    @Mock
+    private JdbcBatchWriter batchWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<List<Branch>> branchesCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<UUID[]>> linksCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<WorkSchedule>> schedulesCaptor;
+
+    private BranchBulkService branchBulkService;
+
+    private City moscow;
+
+    @BeforeEach
+    void setUp() {
+        BranchMapper branchMapper = Mappers.getMapper(BranchMapper.class);
+        ReflectionTestUtils.setField(branchMapper, "addressMapper", Mappers.getMapper(AddressMapper.class));
+
+        branchBulkService = new BranchBulkService(
+                branchRepository,
+                cityRepository,
+                batchWriter,
+                branchMapper,
+                Mappers.getMapper(WorkScheduleMapper.class),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                eventPublisher
+        );
+
+        moscow = City.builder().id(UUID.randomUUID()).name("Москва").build();
+    }
+
+    @Test
+    void createBranches_ShouldInsertValidItemsAndReportConflicts() {
+        List<BranchCreateDto> items = List.of(
+                branch("ДО «ГУМ»", "101", "+79990000001", "Москва"),
+                branch("ДО «ЦУМ»", "101", "+79990000002", "Москва"),
+                branch("ДО «Арбат»", "102", "+79990000003", "Москва"));
+        BranchUniqueKeysProjection existing = existing("ДО «Тверская»", "555", "+79990000003");
+        when(branchRepository.findConflicting(anyCollection(), anyCollection(), anyCollection()))
+                .thenReturn(List.of(existing));
+        when(cityRepository.findByNameIn(anyCollection())).thenReturn(List.of(moscow));
+
+        BranchBatchCreateResponse result = branchBulkService.createBranches(items);
+
+        assertEquals(1, result.created());
+        assertEquals(2, result.failed());
+        assertNotNull(result.results().get(0).branchId());
+        assertTrue(result.results().get(0).errors().isEmpty());
+        assertNull(result.results().get(1).branchId());
+        assertEquals(List.of("Номер 101 уже встречался в позиции 0"), result.results().get(1).errors());
+        assertEquals(List.of("Отделение с таким номером телефона +79990000003 уже существует"),
+                result.results().get(2).errors());
+
+        verify(batchWriter).insertBranches(branchesCaptor.capture());
+        verify(batchWriter).insertBranchDepartments(linksCaptor.capture());
+        verify(batchWriter).insertWorkSchedules(schedulesCaptor.capture());
+        Branch branch = branchesCaptor.getValue().get(0);
+        assertEquals(1, branchesCaptor.getValue().size());
+        assertEquals(result.results().get(0).branchId(), branch.getId());
+        assertEquals(moscow, branch.getAddress().getCity());
+        assertNotNull(branch.getAddress().getId());
+        assertEquals(branch.getId(), linksCaptor.getValue().get(0)[0]);
+        assertEquals(DEPARTMENT_ID, linksCaptor.getValue().get(0)[1]);
+        assertEquals(2, schedulesCaptor.getValue().size());
+        assertTrue(schedulesCaptor.getValue().stream().allMatch(ws -> branch.getId().equals(ws.getEntityId())));
+        verify(eventPublisher).publishEvent(new BranchesChangedEvent(List.of(branch.getId()), ChangeType.CREATED));
+    }
+
+    @Test
+    void createBranches_WhenNothingValid_ShouldNotWrite() {
+        List<BranchCreateDto> items = new ArrayList<>();
+        items.add(branch("ДО «ГУМ»", "101", "+79990000001", "Питер"));
+        items.add(branch("ДО «ЦУМ»", "102", "не телефон", "Москва"));
+        items.add(null);
+
+        BranchBatchCreateResponse result = branchBulkService.createBranches(items);
+
+        assertEquals(0, result.created());
+        assertEquals(3, result.failed());
+        assertEquals(List.of("Город с наименованием Питер не найден"), result.results().get(0).errors());
+        assertTrue(result.results().get(1).errors().get(0).startsWith("branchInfo.phoneNumber"));
+        assertEquals(List.of("Пустой элемент"), result.results().get(2).errors());
+        verifyNoInteractions(batchWriter, eventPublisher);
+    }
+
+    @Test
+    void createBranches_WhenItemViolatesConstraint_ShouldReportOnlyThatItem() {
+        when(cityRepository.findByNameIn(anyCollection())).thenReturn(List.of(moscow));
+        // номер 102 успел занять параллельный запрос
+        doAnswer(invocation -> {
+            List<Branch> branches = invocation.getArgument(0);
+            if (branches.stream().anyMatch(branch -> branch.getBankNumber().equals("102"))) {
+                throw new DataIntegrityViolationException(
+                        "duplicate key value violates unique constraint \"uq_branch_bank_number\"");
+            }
+            return null;
+        }).when(batchWriter).insertBranches(anyList());
+
+        BranchBatchCreateResponse result = branchBulkService.createBranches(List.of(
+                branch("ДО «ГУМ»", "101", "+79990000001", "Москва"),
+                branch("ДО «ЦУМ»", "102", "+79990000002", "Москва"),
+                branch("ДО «Арбат»", "103", "+79990000003", "Москва")));
+
+        assertEquals(2, result.created());
+        assertNotNull(result.results().get(0).branchId());
+        assertNull(result.results().get(1).branchId());
+        assertEquals(List.of("Отделение с таким номером 102 уже существует"), result.results().get(1).errors());
+        assertNotNull(result.results().get(2).branchId());
+        verify(eventPublisher, times(2)).publishEvent(any(BranchesChangedEvent.class));
+    }
+
+    @Test
+    void createBranches_WhenWriteFails_ShouldNotExposeDatabaseMessage() {
+        when(cityRepository.findByNameIn(anyCollection())).thenReturn(List.of(moscow));
+        doThrow(new DataIntegrityViolationException("violates foreign key constraint \"branch_department_department_id_fkey\""))
+                .when(batchWriter).insertBranches(anyList());
+
+        BranchBatchCreateResponse result = branchBulkService.createBranches(
+                List.of(branch("ДО «ГУМ»", "101", "+79990000001", "Москва")));
+
+        assertEquals(0, result.created());
+        assertNull(result.results().get(0).branchId());
+        assertEquals(List.of("Отделение не записано: данные нарушают ограничения БД"), result.results().get(0).errors());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void createBranches_WhenBatchTooLarge_ShouldThrowIllegalArgumentException() {
+        List<BranchCreateDto> items = Collections.nCopies(BranchBulkService.MAX_BATCH_SIZE + 1,
+                branch("ДО «ГУМ»", "101", "+79990000001", "Москва"));
+
+        assertThrows(IllegalArgumentException.class, () -> branchBulkService.createBranches(items));
+        verifyNoInteractions(branchRepository, batchWriter);
+    }
+
+    private static BranchCreateDto branch(String name, String bankNumber, String phoneNumber, String city) {
+        return new BranchCreateDto(
+                new BranchCreateInfoDto(name, bankNumber, true, false, phoneNumber, BranchType.BRANCH),
+                List.of(DEPARTMENT_ID),
+                new AddressFullInfoDto(city, "ул.", "Тверская", "1", null, null, null),
+                List.of(new ScheduleDto(1, "09:00", "18:00"), new ScheduleDto(2, "09:00", "18:00")));
+    }
+
+    private static BranchUniqueKeysProjection existing(String name, String bankNumber, String phoneNumber) {
+        return new BranchUniqueKeysProjection() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getBankNumber() {
+                return bankNumber;
+            }
+
+            @Override
+            public String getPhoneNumber() {
+                return phoneNumber;
+            }
+        };
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.bank.branchatmservice.catalog.BranchCatalog;
 import ru.bank.branchatmservice.dto.BranchCreateDto;
 import ru.bank.branchatmservice.dto.BranchCreateInfoDto;
 import ru.bank.branchatmservice.dto.ScheduleDto;
@@ -24,6 +25,9 @@ import ru.bank.branchatmservice.dto.request.AddressFullInfoDto;
 import ru.bank.branchatmservice.dto.request.AddressInfo;
 import ru.bank.branchatmservice.dto.request.BranchInfo;
 import ru.bank.branchatmservice.dto.request.BranchSearchRequest;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
+import ru.bank.branchatmservice.dto.response.FilterPageResponse;
+import ru.bank.branchatmservice.enums.FilterSortField;
 import ru.bank.branchatmservice.dto.response.ArchiveBranchResponse;
 import ru.bank.branchatmservice.dto.response.BranchListResponse;
 import ru.bank.branchatmservice.dto.response.BranchNameResponse;
@@ -54,6 +58,7 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -98,6 +103,9 @@ class BranchServiceIntegrationTest {
     @Autowired
     private BranchService branchService;
 
+    @Autowired
+    private BranchCatalog branchCatalog;
+
     private Branch branch;
     private BranchCreateDto newBranch;
     private BranchCreateDto invalidBranch;
@@ -214,6 +222,7 @@ class BranchServiceIntegrationTest {
 
         entityManager.flush();
         entityManager.clear();
+        branchCatalog.refresh();
 
         newBranch = new BranchCreateDto(
                 new BranchCreateInfoDto(
@@ -284,7 +293,7 @@ class BranchServiceIntegrationTest {
         BranchSearchRequest request = new BranchSearchRequest();
         request.setBranchInfo(branchInfo);
 
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
 
         assertNotNull(result);
         assertEquals("г. Москва", result.get(0).getAddressShortDto().getCityName());
@@ -298,7 +307,7 @@ class BranchServiceIntegrationTest {
         BranchSearchRequest request = new BranchSearchRequest();
         request.setBranchInfo(branchInfo);
 
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
 
         assertNotNull(result);
         assertEquals("д. 10", result.get(0).getAddressShortDto().getHouse());
@@ -312,7 +321,7 @@ class BranchServiceIntegrationTest {
         BranchSearchRequest request = new BranchSearchRequest();
         request.setBranchInfo(branchInfo);
 
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -331,7 +340,7 @@ class BranchServiceIntegrationTest {
         request.setBranchInfo(branchInfo);
         request.setAddressInfo(addressInfo);
 
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -374,7 +383,7 @@ class BranchServiceIntegrationTest {
     @Test
     @DisplayName("Должен успешно возвращаться список отделений")
     void shouldReturnListOfBranches() {
-        List<BranchListResponse> response = branchService.getBranches();
+        List<BranchListResponse> response = branchService.getBranches(null, null).items();
 
         assertNotNull(response);
         assertFalse(response.isEmpty());
@@ -390,8 +399,9 @@ class BranchServiceIntegrationTest {
         entityManager.createNativeQuery("DELETE FROM address").executeUpdate();
         entityManager.createNativeQuery("DELETE FROM city").executeUpdate();
         entityManager.createNativeQuery("DELETE FROM location").executeUpdate();
+        branchCatalog.refresh();
 
-        List<BranchListResponse> response = branchService.getBranches();
+        List<BranchListResponse> response = branchService.getBranches(null, null).items();
 
         assertNotNull(response);
         assertTrue(response.isEmpty());
@@ -418,7 +428,7 @@ class BranchServiceIntegrationTest {
                 .nameOrBankNumber("Центральное")
                 .build();
         BranchSearchRequest request = new BranchSearchRequest(branchInfo, null);
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
@@ -429,15 +439,44 @@ class BranchServiceIntegrationTest {
     @Test
     void searchBranchesByFilter_WithNullBranchInfo_ShouldReturnAllBranches() {
         BranchSearchRequest request = new BranchSearchRequest(null, new AddressInfo());
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
         assertNotNull(result);
         assertEquals(3, result.size()); // теперь 3 филиала
     }
 
+    @Test
+    void searchBranchesByFilter_SortedByNumberWithCount_ShouldReturnFirstPage() {
+        BranchSearchRequest request = new BranchSearchRequest(new BranchInfo(), new AddressInfo());
+        FilterPageRequest pageRequest = new FilterPageRequest(0, 2, FilterSortField.NUMBER, null, null, null, true);
+
+        FilterPageResponse<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, pageRequest);
+
+        assertEquals(2, result.items().size());
+        assertTrue(result.hasNext());
+        assertEquals(3L, result.totalElements());
+        assertEquals("1222", result.items().get(0).getBranchFullDto().getBankNumber());
+        assertEquals("1234", result.items().get(1).getBranchFullDto().getBankNumber());
+    }
+
+    @Test
+    void searchBranchesByFilter_SortedByDistance_ShouldReturnNearestFirst() {
+        BranchSearchRequest request = new BranchSearchRequest(new BranchInfo(), new AddressInfo());
+        FilterPageRequest pageRequest = new FilterPageRequest(
+                null, null, FilterSortField.DISTANCE, null, 55.70, 37.60, null);
+
+        FilterPageResponse<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, pageRequest);
+
+        assertEquals(3, result.items().size());
+        assertFalse(result.hasNext());
+        assertNull(result.totalElements());
+        assertEquals("9999", result.items().get(0).getBranchFullDto().getBankNumber());
+        assertEquals("1222", result.items().get(2).getBranchFullDto().getBankNumber());
+    }
+
     @Test
     void searchBranchesByFilter_WithEmptyRequest_ShouldReturnAllBranches() {
         BranchSearchRequest request = new BranchSearchRequest(new BranchInfo(), new AddressInfo());
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
         assertNotNull(result);
         assertEquals(3, result.size()); // теперь 3 филиала
     }
@@ -448,7 +487,7 @@ class BranchServiceIntegrationTest {
                 .fullAddress("Ленина")
                 .build();
         BranchSearchRequest request = new BranchSearchRequest(new BranchInfo(), addressInfo);
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Центральное отделение", result.get(0).getBranchFullDto().getName());
@@ -460,7 +499,7 @@ class BranchServiceIntegrationTest {
                 .nameOrBankNumber("1222")
                 .build();
         BranchSearchRequest request = new BranchSearchRequest(branchInfo, null);
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Центровое", result.get(0).getBranchFullDto().getName());
@@ -473,7 +512,7 @@ class BranchServiceIntegrationTest {
                 .hasCurrencyExchange(true)
                 .build();
         BranchSearchRequest request = new BranchSearchRequest(branchInfo, null);
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
         assertNotNull(result);
         assertEquals(3, result.size()); // все 3 филиала имеют обмен валют
         result.forEach(dto -> assertTrue(dto.getBranchFullDto().isHasCurrencyExchange()));
@@ -486,7 +525,7 @@ class BranchServiceIntegrationTest {
                 .build();
 
         BranchSearchRequest request = new BranchSearchRequest(branchInfo, null);
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
         assertNotNull(result);
         assertEquals(2, result.size()); // два филиала имеют пандус
         result.forEach(dto -> assertTrue(dto.getBranchFullDto().isHasPandus()));
@@ -499,7 +538,7 @@ class BranchServiceIntegrationTest {
                 .build();
 
         BranchSearchRequest request = new BranchSearchRequest(branchInfo, new AddressInfo());
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
@@ -516,7 +555,7 @@ class BranchServiceIntegrationTest {
                 .fullAddress("Ленина")
                 .build();
         BranchSearchRequest request = new BranchSearchRequest(branchInfo, addressInfo);
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
         assertNotNull(result);
         assertEquals(1, result.size());
         BranchSearchResponseDto responseDto = result.get(0);
@@ -528,7 +567,7 @@ class BranchServiceIntegrationTest {
     @Test
     void searchBranchesByFilter_VerifyIsOpenFieldIsSetForAllBranches() {
         BranchSearchRequest request = new BranchSearchRequest(new BranchInfo(), new AddressInfo());
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage()).items();
 
         assertNotNull(result);
         assertEquals(3, result.size());
@@ -544,7 +583,7 @@ class BranchServiceIntegrationTest {
 
     @Test
     void getBranches_ShouldReturnIsOpenField() {
-        List<BranchListResponse> result = branchService.getBranches();
+        List<BranchListResponse> result = branchService.getBranches(null, null).items();
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
@@ -12,23 +12,41 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.domain.Specification;
+import ru.bank.branchatmservice.catalog.BranchCatalog;
+import ru.bank.branchatmservice.catalog.BranchCatalogEntry;
+import ru.bank.branchatmservice.catalog.BranchCatalogSnapshot;
+import ru.bank.branchatmservice.catalog.DepartmentIndex;
 import ru.bank.branchatmservice.dto.AddressShortDto;
+import ru.bank.branchatmservice.dto.ArchivedBranchProjection;
+import ru.bank.branchatmservice.dto.BranchDto;
 import ru.bank.branchatmservice.dto.BranchFullDto;
 import ru.bank.branchatmservice.dto.BranchShortDto;
 import ru.bank.branchatmservice.dto.BranchShortDtoProjection;
+import ru.bank.branchatmservice.dto.DepartmentBranchProjection;
 import ru.bank.branchatmservice.dto.ScheduleDto;
 import ru.bank.branchatmservice.dto.request.AddressInfo;
 import ru.bank.branchatmservice.dto.request.BranchAndAddressInfoRequest;
 import ru.bank.branchatmservice.dto.request.BranchInfo;
 import ru.bank.branchatmservice.dto.request.BranchSearchRequest;
+import ru.bank.branchatmservice.dto.request.BranchUpdateRequestDto;
+import ru.bank.branchatmservice.dto.request.FilterPageRequest;
 import ru.bank.branchatmservice.dto.response.ArchiveBranchResponse;
 import ru.bank.branchatmservice.dto.response.BranchAndAddressInfoResponse;
 import ru.bank.branchatmservice.dto.response.BranchBankNumberDTO;
+import ru.bank.branchatmservice.dto.response.BranchNamesResponse;
 import ru.bank.branchatmservice.dto.response.BranchDtoView;
+import ru.bank.branchatmservice.dto.response.BranchListResponse;
 import ru.bank.branchatmservice.dto.response.BranchSearchResponseDto;
 import ru.bank.branchatmservice.dto.response.BranchUnionDto;
+import ru.bank.branchatmservice.dto.response.CursorPageResponse;
+import ru.bank.branchatmservice.dto.response.FilterPageResponse;
+import ru.bank.branchatmservice.enums.ChangeType;
+import ru.bank.branchatmservice.enums.FilterSortField;
 import ru.bank.branchatmservice.enums.WeekDay;
+import ru.bank.branchatmservice.event.BranchesChangedEvent;
 import ru.bank.branchatmservice.exception.BranchNotFoundException;
 import ru.bank.branchatmservice.exception.NotFoundException;
 import ru.bank.branchatmservice.mapper.AddressMapper;
@@ -39,13 +57,19 @@ import ru.bank.branchatmservice.model.Branch;
 import ru.bank.branchatmservice.model.City;
 import ru.bank.branchatmservice.model.WorkSchedule;
 import ru.bank.branchatmservice.repository.BranchRepository;
+import ru.bank.branchatmservice.repository.FilterPageQuery;
+import ru.bank.branchatmservice.util.WeekSchedule;
 
 
+import java.sql.SQLException;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -55,14 +79,17 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -74,6 +101,18 @@ class BranchServiceTest {
     @Mock
     private WorkScheduleService workScheduleService;
 
+    @Mock
+    private BranchCatalog branchCatalog;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FilterPageQuery filterPageQuery;
+
+    @Mock
+    private BranchUpdateService branchUpdateService;
+
     @Spy
     private BranchMapper branchMapper = Mappers.getMapper(BranchMapper.class);
 
@@ -123,6 +162,47 @@ class BranchServiceTest {
         return List.of(schedule);
     }
 
+    private List<WorkSchedule> createAllDayWorkSchedules() {
+        return Arrays.stream(WeekDay.values())
+                .map(day -> WorkSchedule.builder()
+                        .entityId(BRANCH_ID)
+                        .weekDay(day)
+                        .openingTime(LocalTime.MIN)
+                        .closingTime(LocalTime.of(23, 59, 59))
+                        .build())
+                .toList();
+    }
+
+    private BranchCatalogSnapshot createSnapshotWithBankNumbers(String... bankNumbers) {
+        Map<UUID, BranchCatalogEntry> entries = new LinkedHashMap<>();
+        for (String bankNumber : bankNumbers) {
+            UUID id = UUID.randomUUID();
+            BranchDto branchDto = new BranchDto(id, "Отделение " + bankNumber, bankNumber,
+                    false, false, false, "+79990000000", false);
+            entries.put(id, new BranchCatalogEntry(branchDto, new AddressShortDto(), null, WeekSchedule.closed()));
+        }
+        return BranchCatalogSnapshot.empty().withEntries(entries);
+    }
+
+    private BranchCatalogSnapshot createSnapshotWithDepartments(DepartmentBranchProjection... links) {
+        return BranchCatalogSnapshot.empty().withDepartments(DepartmentIndex.of(List.of(links)));
+    }
+
+    private DepartmentBranchProjection departmentLink(UUID departmentId, UUID branchId, String branchName) {
+        DepartmentBranchProjection link = mock(DepartmentBranchProjection.class);
+        when(link.getDepartmentId()).thenReturn(departmentId);
+        when(link.getBranchId()).thenReturn(branchId);
+        when(link.getBranchName()).thenReturn(branchName);
+        return link;
+    }
+
+    private ArchivedBranchProjection archivedRow(UUID branchId, boolean archived) {
+        ArchivedBranchProjection row = mock(ArchivedBranchProjection.class);
+        when(row.getBranchId()).thenReturn(branchId);
+        when(row.getArchived()).thenReturn(archived);
+        return row;
+    }
+
     private BranchDtoView createTestBranchDtoView() {
         BranchDtoView dto = new BranchDtoView();
         dto.setName("ДО «ГУМ»");
@@ -173,7 +253,7 @@ class BranchServiceTest {
                 .name("BranchName")
                 .isClosed(false)
                 .address(address)
-                .workSchedule(new ArrayList<>()) // добавляем пустой список workSchedule
+                .workSchedule(createAllDayWorkSchedules())
                 .build();
 
         // Мокаем результаты маппинга
@@ -190,15 +270,24 @@ class BranchServiceTest {
                 .house("д. 10")
                 .build();
 
-        when(branchRepository.findAll(any(Specification.class))).thenReturn(List.of(branch));
+        when(filterPageQuery.findIds(eq(Branch.class), any(Specification.class), any(FilterPageRequest.class),
+                eq("bankNumber"), eq(0), eq(FilterPageRequest.DEFAULT_SIZE + 1)))
+                .thenReturn(List.of(branch.getId()));
+        when(branchRepository.findAllWithAddressByIds(List.of(branch.getId()))).thenReturn(List.of(branch));
 
         doReturn(branchFullDto).when(branchMapper).toBranchFullDto(branch);
         doReturn(addressShortDto).when(addressMapper).toAddressShortDto(address);
 
-        when(workScheduleService.isBranchOpenNow(any())).thenReturn(true);
+        when(branchCatalog.getSnapshot()).thenReturn(BranchCatalogSnapshot.empty());
+        when(workScheduleService.currentWeekSecond()).thenReturn(WeekSchedule.SECONDS_PER_DAY + 3600);
 
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(request);
+        FilterPageResponse<BranchSearchResponseDto> page =
+                branchService.searchBranchesByFilter(request, FilterPageRequest.firstPage());
+        List<BranchSearchResponseDto> result = page.items();
 
+        assertFalse(page.hasNext());
+        assertNull(page.totalElements());
+        verify(branchRepository, never()).count(any(Specification.class));
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
@@ -209,7 +298,7 @@ class BranchServiceTest {
         verify(branchRepository, times(1)).findAll(any(Specification.class));
         verify(branchMapper, times(1)).toBranchFullDto(branch);
         verify(addressMapper, times(1)).toAddressShortDto(address);
-        verify(workScheduleService, times(1)).isBranchOpenNow(branch.getWorkSchedule());
+        verify(workScheduleService, times(1)).currentWeekSecond();
     }
 
     @Test
@@ -281,15 +370,12 @@ class BranchServiceTest {
         UUID branchId = UUID.randomUUID();
         String branchName = "ДО «ГУМ»";
 
-        BranchShortDtoProjection branchProjection = mock(BranchShortDtoProjection.class);
-        when(branchProjection.getId()).thenReturn(branchId);
-        when(branchProjection.getName()).thenReturn(branchName);
-        when(branchRepository.findBranchesByDepartmentId(deptId))
-                .thenReturn(List.of(branchProjection));
+        BranchCatalogSnapshot snapshot = createSnapshotWithDepartments(departmentLink(deptId, branchId, branchName));
+        when(branchCatalog.getSnapshot()).thenReturn(snapshot);
 
         List<BranchShortDto> branches = branchService.findBranchesByDepartmentId(deptId);
 
-        verify(branchRepository, times(1)).findBranchesByDepartmentId(deptId);
+        verifyNoInteractions(branchRepository);
         assertEquals(branchId, branches.get(0).bankBranchId());
         assertEquals(branchName, branches.get(0).bankBranchName());
     }
@@ -297,65 +383,56 @@ class BranchServiceTest {
     @Test
     void getBranchBankNumberByBankNumber_ShouldReturnList_WhenDataExists() {
         String bankNumberPrefix = "10";
-        List<BranchBankNumberDTO> expectedDTOs = Arrays.asList(
-                new BranchBankNumberDTO("101"),
-                new BranchBankNumberDTO("102"),
-                new BranchBankNumberDTO("103")
-        );
-
-        when(branchRepository.findBankNumberDTOsByPrefix(bankNumberPrefix)).thenReturn(expectedDTOs);
+        when(branchCatalog.getSnapshot()).thenReturn(createSnapshotWithBankNumbers("103", "201", "101", "102"));
 
-        List<BranchBankNumberDTO> result = branchService.getBranchBankNumberByBankNumber(bankNumberPrefix);
+        List<BranchBankNumberDTO> result = branchService.getBranchBankNumberByBankNumber(bankNumberPrefix, null);
 
         assertNotNull(result);
         assertEquals(3, result.size());
         assertEquals("101", result.get(0).getBankNumber());
         assertEquals("102", result.get(1).getBankNumber());
         assertEquals("103", result.get(2).getBankNumber());
-        verify(branchRepository, times(1)).findBankNumberDTOsByPrefix(bankNumberPrefix);
+        verifyNoInteractions(branchRepository);
     }
 
     @Test
     void getBranchBankNumberByBankNumber_ShouldThrowNotFoundException_WhenDataIsEmpty() {
         String bankNumberPrefix = "99";
-        when(branchRepository.findBankNumberDTOsByPrefix(bankNumberPrefix)).thenReturn(Collections.emptyList());
+        when(branchCatalog.getSnapshot()).thenReturn(createSnapshotWithBankNumbers("101", "102"));
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> branchService.getBranchBankNumberByBankNumber(bankNumberPrefix));
+                () -> branchService.getBranchBankNumberByBankNumber(bankNumberPrefix, null));
 
         assertEquals("Данные не найдены", exception.getMessage());
-        verify(branchRepository, times(1)).findBankNumberDTOsByPrefix(bankNumberPrefix);
     }
 
     @Test
-    void getBranchBankNumberByBankNumber_ShouldLogInfoMessage() {
-        String bankNumberPrefix = "10";
-        List<BranchBankNumberDTO> expectedDTOs = Arrays.asList(
-                new BranchBankNumberDTO("101"),
-                new BranchBankNumberDTO("102")
-        );
+    void getBranchBankNumberByBankNumber_ShouldRespectLimit() {
+        String bankNumberPrefix = "1";
+        when(branchCatalog.getSnapshot()).thenReturn(createSnapshotWithBankNumbers("1", "10", "101", "102", "2"));
 
-        when(branchRepository.findBankNumberDTOsByPrefix(bankNumberPrefix)).thenReturn(expectedDTOs);
+        List<BranchBankNumberDTO> result = branchService.getBranchBankNumberByBankNumber(bankNumberPrefix, 2);
 
-        branchService.getBranchBankNumberByBankNumber(bankNumberPrefix);
+        assertEquals(2, result.size());
+        assertEquals("1", result.get(0).getBankNumber());
+        assertEquals("10", result.get(1).getBankNumber());
+    }
 
-        verify(branchRepository, times(1)).findBankNumberDTOsByPrefix(bankNumberPrefix);
+    @Test
+    void getBranchBankNumberByBankNumber_WhenLimitNotPositive_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> branchService.getBranchBankNumberByBankNumber("10", 0));
+        verifyNoInteractions(branchCatalog);
     }
 
     @Test
     void getBranchBankNumberByBankNumber_ShouldReturnCorrectDTOs() {
         String bankNumberPrefix = "20";
-        List<BranchBankNumberDTO> repositoryResponse = Arrays.asList(
-                new BranchBankNumberDTO("201"),
-                new BranchBankNumberDTO("202")
-        );
-
-        when(branchRepository.findBankNumberDTOsByPrefix(bankNumberPrefix)).thenReturn(repositoryResponse);
+        when(branchCatalog.getSnapshot()).thenReturn(createSnapshotWithBankNumbers("201", "202", "2100"));
 
-        List<BranchBankNumberDTO> result = branchService.getBranchBankNumberByBankNumber(bankNumberPrefix);
+        List<BranchBankNumberDTO> result = branchService.getBranchBankNumberByBankNumber(bankNumberPrefix, null);
 
-        assertSame(repositoryResponse, result); // Должен вернуть тот же объект что и репозиторий
-        assertEquals(2, result.size());
+        assertEquals(List.of(new BranchBankNumberDTO("201"), new BranchBankNumberDTO("202")), result);
     }
 
     @Test
@@ -365,7 +442,7 @@ class BranchServiceTest {
         BranchDtoView branchDtoView = createTestBranchDtoView();
         List<ScheduleDto> scheduleDtos = createTestScheduleDtos();
 
-        when(branchRepository.findById(BRANCH_ID)).thenReturn(Optional.of(branch));
+        when(branchRepository.findWithWorkScheduleById(BRANCH_ID)).thenReturn(Optional.of(branch));
         doReturn(branchDtoView)
                 .when(branchMapper).toBranchDtoView(branch);
         doReturn(scheduleDtos)
@@ -379,7 +456,7 @@ class BranchServiceTest {
         assertEquals(branchDtoView, result.getBranchInfo());
         assertEquals(scheduleDtos, result.getWorkSchedule());
 
-        verify(branchRepository).findById(BRANCH_ID);
+        verify(branchRepository).findWithWorkScheduleById(BRANCH_ID);
         verify(branchMapper).toBranchDtoView(branch);
         verify(workScheduleMapper).ofWorkSchedules(branch.getWorkSchedule());
     }
@@ -388,7 +465,7 @@ class BranchServiceTest {
     @Test
     void findBranchById_WhenBranchNotFound_ShouldThrowBranchNotFoundException() {
         // Given
-        when(branchRepository.findById(BRANCH_ID)).thenReturn(Optional.empty());
+        when(branchRepository.findWithWorkScheduleById(BRANCH_ID)).thenReturn(Optional.empty());
 
         // When & Then
         BranchNotFoundException exception = assertThrows(
@@ -397,7 +474,7 @@ class BranchServiceTest {
         );
 
         assertEquals(String.format("Отделение с id %s не найдено", BRANCH_ID), exception.getMessage());
-        verify(branchRepository).findById(BRANCH_ID);
+        verify(branchRepository).findWithWorkScheduleById(BRANCH_ID);
 //        verifyNoInteractions(workScheduleRepository, branchMapper, workScheduleMapper);
     }
 
@@ -410,7 +487,7 @@ class BranchServiceTest {
         List<ScheduleDto> emptyScheduleDtos = List.of();
         branch.setWorkSchedule(emptyWorkSchedules);
 
-        when(branchRepository.findById(BRANCH_ID)).thenReturn(Optional.of(branch));
+        when(branchRepository.findWithWorkScheduleById(BRANCH_ID)).thenReturn(Optional.of(branch));
         when(branchMapper.toBranchDtoView(branch)).thenReturn(branchDtoView);
         when(workScheduleMapper.ofWorkSchedules(emptyWorkSchedules)).thenReturn(emptyScheduleDtos);
 
@@ -422,7 +499,7 @@ class BranchServiceTest {
         assertEquals(branchDtoView, result.getBranchInfo());
         assertTrue(result.getWorkSchedule().isEmpty());
 
-        verify(branchRepository).findById(BRANCH_ID);
+        verify(branchRepository).findWithWorkScheduleById(BRANCH_ID);
         verify(branchMapper).toBranchDtoView(branch);
         verify(workScheduleMapper).ofWorkSchedules(emptyWorkSchedules);
     }
@@ -432,17 +509,10 @@ class BranchServiceTest {
         UUID branchId1 = UUID.randomUUID();
         UUID branchId2 = UUID.randomUUID();
 
-       Branch branch1 = new Branch();
-        branch1.setId(branchId1);
-        branch1.setName("ДО «ГУМ»");
-        branch1.setClosed(false);
+        ArchivedBranchProjection row1 = archivedRow(branchId1, true);
+        ArchivedBranchProjection row2 = archivedRow(branchId2, true);
 
-        Branch branch2 = new Branch();
-        branch2.setId(branchId2);
-        branch2.setName("ДО «Центральный»");
-        branch2.setClosed(false);
-
-       ArchiveBranchResponse.ArchiveBranchesDto response1 = new ArchiveBranchResponse.ArchiveBranchesDto();
+        ArchiveBranchResponse.ArchiveBranchesDto response1 = new ArchiveBranchResponse.ArchiveBranchesDto();
         response1.setBranchId(branchId1);
         response1.setName("ДО «ГУМ»");
 
@@ -450,16 +520,11 @@ class BranchServiceTest {
         response2.setBranchId(branchId2);
         response2.setName("ДО «Центральный»");
 
-
         List<UUID> branchIds = List.of(branchId1, branchId2);
-        List<Branch> branches = List.of(branch1, branch2);
-        ArchiveBranchResponse expectedResponses = new ArchiveBranchResponse();
-
-        expectedResponses.setArchived(List.of(response1, response2));
-        when(branchRepository.findAllByBranchId(branchIds))
-                .thenReturn(Optional.of(branches));
-        when(branchMapper.toArchiveBranchResponse(branch1)).thenReturn(response1);
-        when(branchMapper.toArchiveBranchResponse(branch2)).thenReturn(response2);
+        // строки из БД приходят в произвольном порядке, ответ — в порядке запроса
+        when(branchRepository.archiveByIds(Set.copyOf(branchIds))).thenReturn(List.of(row2, row1));
+        when(branchMapper.toArchiveBranchResponse(row1)).thenReturn(response1);
+        when(branchMapper.toArchiveBranchResponse(row2)).thenReturn(response2);
 
         ArchiveBranchResponse result = branchService.archiveBranchesId(branchIds);
 
@@ -468,12 +533,98 @@ class BranchServiceTest {
         assertEquals(branchId1, result.getArchived().get(0).getBranchId());
         assertEquals(branchId2, result.getArchived().get(1).getBranchId());
 
-        assertTrue(branch1.isClosed());
-        assertTrue(branch2.isClosed());
+        verify(branchRepository, never()).saveAll(anyList());
+        verify(eventPublisher).publishEvent(new BranchesChangedEvent(branchIds, ChangeType.ARCHIVED));
+    }
+
+    @Test
+    void getBranches_ShouldReadFromCatalogWithoutRepository() {
+        BranchDto branchDto = new BranchDto(BRANCH_ID, "ДО «ГУМ»", "101", true, true, false, "+78478579955", false);
+        AddressShortDto addressDto = AddressShortDto.builder()
+                .cityName("г. Москва")
+                .street("Тверская")
+                .build();
+        BranchCatalogEntry entry = new BranchCatalogEntry(
+                branchDto, addressDto, null, WeekSchedule.compile(createTestWorkSchedules()));
+
+        when(branchCatalog.getSnapshot())
+                .thenReturn(BranchCatalogSnapshot.empty().withEntries(Map.of(BRANCH_ID, entry)));
+        // понедельник 10:00 — внутри графика 09:30-18:30
+        when(workScheduleService.currentWeekSecond()).thenReturn(10 * 3600);
+
+        CursorPageResponse<BranchListResponse> page = branchService.getBranches(null, null);
+        List<BranchListResponse> result = page.items();
+
+        assertNull(page.nextCursor());
+        assertEquals(1, result.size());
+        assertEquals(BRANCH_ID, result.get(0).branchInfo().id());
+        assertTrue(result.get(0).branchInfo().isOpen());
+        assertSame(addressDto, result.get(0).addressInfo());
+        verifyNoInteractions(branchRepository);
+    }
 
-        verify(branchRepository).saveAll(branches);
-        verify(branchMapper).toArchiveBranchResponse(branch1);
-        verify(branchMapper).toArchiveBranchResponse(branch2);
+    @Test
+    void getBranchNamesByIds_ShouldServeCatalogHitsAndQueryOnlyMisses() {
+        BranchCatalogSnapshot snapshot = createSnapshotWithBankNumbers("101");
+        UUID cachedId = snapshot.entries().keySet().iterator().next();
+        UUID storedId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        BranchShortDtoProjection stored = mock(BranchShortDtoProjection.class);
+        when(stored.getId()).thenReturn(storedId);
+        when(stored.getName()).thenReturn("ДО «Новое»");
+
+        when(branchCatalog.getSnapshot()).thenReturn(snapshot);
+        when(branchRepository.findNamesByIdIn(Set.of(storedId, missingId))).thenReturn(List.of(stored));
+
+        BranchNamesResponse result = branchService.getBranchNamesByIds(List.of(cachedId, storedId, missingId));
+
+        assertEquals(Map.of(cachedId, "Отделение 101", storedId, "ДО «Новое»"), result.branchNames());
+        assertEquals(List.of(missingId), result.notFound());
+    }
+
+    @Test
+    void getBranchNamesByIds_WhenAllInCatalog_ShouldNotQueryRepository() {
+        BranchCatalogSnapshot snapshot = createSnapshotWithBankNumbers("101", "102");
+        when(branchCatalog.getSnapshot()).thenReturn(snapshot);
+
+        BranchNamesResponse result = branchService.getBranchNamesByIds(List.copyOf(snapshot.entries().keySet()));
+
+        assertEquals(2, result.branchNames().size());
+        assertTrue(result.notFound().isEmpty());
+        verifyNoInteractions(branchRepository);
+    }
+
+    @Test
+    void getBranchNamesByIds_WhenBatchTooLarge_ShouldThrowIllegalArgumentException() {
+        List<UUID> ids = Collections.nCopies(BranchService.MAX_BRANCH_NAMES_BATCH + 1, BRANCH_ID);
+
+        assertThrows(IllegalArgumentException.class, () -> branchService.getBranchNamesByIds(ids));
+        assertThrows(IllegalArgumentException.class, () -> branchService.getBranchNamesByIds(List.of()));
+        verifyNoInteractions(branchCatalog, branchRepository);
+    }
+
+    @Test
+    void getBranches_ShouldWalkCatalogPagesByCursor() {
+        BranchCatalogSnapshot snapshot = createSnapshotWithBankNumbers("101", "102", "103", "104", "105");
+        when(branchCatalog.getSnapshot()).thenReturn(snapshot);
+
+        List<UUID> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<BranchListResponse> page = branchService.getBranches(cursor, 2);
+            assertTrue(page.items().size() <= 2);
+            page.items().forEach(item -> visited.add(item.branchInfo().id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(snapshot.entries().keySet().stream().sorted().toList(), visited);
+    }
+
+    @Test
+    void getBranches_WhenLimitOutOfRange_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> branchService.getBranches(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> branchService.getBranches("не курсор", 10));
+        verifyNoInteractions(branchCatalog);
     }
 
     @Test
@@ -482,39 +633,35 @@ class BranchServiceTest {
         UUID branchId2 = UUID.randomUUID();
 
         List<UUID> branchIds = List.of(branchId1, branchId2);
+        ArchivedBranchProjection row1 = mock(ArchivedBranchProjection.class);
+        when(row1.getBranchId()).thenReturn(branchId1);
 
-        when(branchRepository.findAllByBranchId(branchIds))
-                .thenReturn(Optional.empty());
+        when(branchRepository.archiveByIds(Set.copyOf(branchIds))).thenReturn(List.of(row1));
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> branchService.archiveBranchesId(branchIds));
 
-        assertEquals("Такого отделения не существует", exception.getMessage());
-        verify(branchRepository, never()).saveAll(anyList());
+        assertEquals("Такого отделения не существует: " + branchId2, exception.getMessage());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void archiveBranchesId_WhenBranchAlreadyArchived_ShouldThrowEntityExistsException() {
         UUID branchId1 = UUID.randomUUID();
+        UUID branchId2 = UUID.randomUUID();
 
-        Branch branch1 = new Branch();
-        branch1.setId(branchId1);
-        branch1.setName("ДО «ГУМ»");
-        branch1.setClosed(false);
-
-        List<UUID> branchIds = List.of(branchId1);
-        branch1.setClosed(true);
-        List<Branch> branches = List.of(branch1);
+        List<UUID> branchIds = List.of(branchId1, branchId2);
+        ArchivedBranchProjection row1 = archivedRow(branchId1, false);
+        ArchivedBranchProjection row2 = archivedRow(branchId2, true);
 
-        when(branchRepository.findAllByBranchId(branchIds))
-                .thenReturn(Optional.of(branches));
+        when(branchRepository.archiveByIds(Set.copyOf(branchIds))).thenReturn(List.of(row1, row2));
 
         EntityExistsException exception = assertThrows(EntityExistsException.class,
                 () -> branchService.archiveBranchesId(branchIds));
 
         assertEquals("Отделение " + branchId1 + " уже находится в архиве.", exception.getMessage());
-        verify(branchRepository, never()).saveAll(anyList());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -523,19 +670,14 @@ class BranchServiceTest {
 
         assertThrows(BadRequestException.class,
                 () -> branchService.archiveBranchesId(branchIds));
-        verify(branchRepository, never()).findAllByBranchId(anyList());
-        verify(branchRepository, never()).saveAll(anyList());
+        verifyNoInteractions(branchRepository);
     }
 
     @Test
     void findBranchesByDepartmentIdReturnEmptyListIfNothingFound() {
         //given
         UUID uuid = UUID.randomUUID();
-        List<BranchShortDtoProjection> shortDtoProjections = Collections.emptyList();
-        List<BranchShortDto> shortDtoList = Collections.emptyList();
-
-        when(branchRepository.findBranchesByDepartmentId(uuid)).thenReturn(shortDtoProjections);
-        when(branchService.findBranchesByDepartmentId(uuid)).thenReturn(shortDtoList);
+        when(branchCatalog.getSnapshot()).thenReturn(BranchCatalogSnapshot.empty());
 
         //when
         List<BranchShortDto> result = branchService.findBranchesByDepartmentId(uuid);
@@ -544,22 +686,95 @@ class BranchServiceTest {
         assertDoesNotThrow(() -> branchService.findBranchesByDepartmentId(uuid));
         assertTrue(result.isEmpty());
 
-        verify(branchRepository, times(2)).findBranchesByDepartmentId(uuid);
+        verifyNoInteractions(branchRepository);
+    }
+
+    @Test
+    void findBranchesByDepartmentIds_ShouldReturnBranchesPerRequestedDepartment() {
+        UUID firstDept = UUID.randomUUID();
+        UUID secondDept = UUID.randomUUID();
+        UUID emptyDept = UUID.randomUUID();
+        UUID branchA = UUID.randomUUID();
+        UUID branchB = UUID.randomUUID();
+
+        BranchCatalogSnapshot snapshot = createSnapshotWithDepartments(
+                departmentLink(firstDept, branchB, "ДО «Тверской»"),
+                departmentLink(firstDept, branchA, "ДО «Арбат»"),
+                departmentLink(secondDept, branchA, "ДО «Арбат»"));
+        when(branchCatalog.getSnapshot()).thenReturn(snapshot);
+
+        Map<UUID, List<BranchShortDto>> result =
+                branchService.findBranchesByDepartmentIds(List.of(firstDept, secondDept, emptyDept));
+
+        assertEquals(List.of(new BranchShortDto(branchA, "ДО «Арбат»"), new BranchShortDto(branchB, "ДО «Тверской»")),
+                result.get(firstDept));
+        assertEquals(List.of(new BranchShortDto(branchA, "ДО «Арбат»")), result.get(secondDept));
+        assertTrue(result.get(emptyDept).isEmpty());
+    }
+
+    @Test
+    void findBranchesByDepartmentIds_WhenBatchEmptyOrTooLarge_ShouldThrowIllegalArgumentException() {
+        List<UUID> tooMany = Collections.nCopies(BranchService.MAX_DEPARTMENTS_BATCH + 1, BRANCH_ID);
+
+        assertThrows(IllegalArgumentException.class, () -> branchService.findBranchesByDepartmentIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> branchService.findBranchesByDepartmentIds(tooMany));
+        verifyNoInteractions(branchCatalog);
     }
 
     @Test
     void searchBranchesByFilterReturnEmptyListIfNothingFound() {
         BranchSearchRequest bsr = new BranchSearchRequest(new BranchInfo(), new AddressInfo());
-        when(branchRepository.findAll(any(Specification.class))).thenReturn(Collections.emptyList());
+        FilterPageRequest pageRequest = new FilterPageRequest(0, 10, null, null, null, null, true);
+        when(filterPageQuery.findIds(eq(Branch.class), any(Specification.class), eq(pageRequest),
+                eq("bankNumber"), eq(0), eq(11)))
+                .thenReturn(Collections.emptyList());
+        when(branchRepository.count(any(Specification.class))).thenReturn(0L);
 
-        List<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(bsr);
+        FilterPageResponse<BranchSearchResponseDto> result = branchService.searchBranchesByFilter(bsr, pageRequest);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.items().isEmpty());
+        assertEquals(0L, result.totalElements());
 
-        verify(branchRepository, times(1)).findAll(any(Specification.class));
+        verify(branchRepository, never()).findAllWithAddressByIds(any());
         verify(branchMapper, never()).toBranchFullDto(any());
         verify(addressMapper, never()).toAddressShortDto(any());
-        verify(workScheduleService, never()).isBranchOpenNow(any());
+    }
+
+    @Test
+    void searchBranchesByFilter_WhenDistanceSortWithoutPoint_ShouldThrowIllegalArgumentException() {
+        BranchSearchRequest bsr = new BranchSearchRequest(new BranchInfo(), new AddressInfo());
+        FilterPageRequest pageRequest = new FilterPageRequest(
+                null, null, FilterSortField.DISTANCE, null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> branchService.searchBranchesByFilter(bsr, pageRequest));
+        verifyNoInteractions(filterPageQuery);
+    }
+
+    @Test
+    void updateBranch_WhenConcurrentWriterTookPhoneNumber_ShouldThrowEntityExistsException() {
+        Branch branch = createTestBranch();
+        when(branchRepository.findById(BRANCH_ID)).thenReturn(Optional.of(branch));
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("ERROR: duplicate key value violates unique constraint \"uq_branch_phone_number\""));
+        when(branchRepository.saveAndFlush(branch)).thenThrow(violation);
+
+        EntityExistsException exception = assertThrows(EntityExistsException.class,
+                () -> branchService.updateBranch(BRANCH_ID, new BranchUpdateRequestDto()));
+
+        assertEquals("Отделение с таким номером телефона 78478579955 уже существует", exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateBranch_WhenOtherIntegrityViolation_ShouldRethrowIt() {
+        Branch branch = createTestBranch();
+        when(branchRepository.findById(BRANCH_ID)).thenReturn(Optional.of(branch));
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("ERROR: null value in column \"address_id\" violates not-null constraint"));
+        when(branchRepository.saveAndFlush(branch)).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> branchService.updateBranch(BRANCH_ID, new BranchUpdateRequestDto())));
     }
 }
@@ -0,0 +1,169 @@
+package ru.bank.branchatmservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityExistsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.bank.branchatmservice.dto.BranchUniqueKeysProjection;
+import ru.bank.branchatmservice.dto.request.BranchInfoUpdateDto;
+import ru.bank.branchatmservice.dto.request.WorkScheduleUpdateDto;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.enums.SchedualOptional;
+import ru.bank.branchatmservice.enums.WeekDay;
+import ru.bank.branchatmservice.exception.NotFoundException;
+import ru.bank.branchatmservice.mapper.WorkScheduleMapper;
+import ru.bank.branchatmservice.model.Branch;
+import ru.bank.branchatmservice.model.WorkSchedule;
+import ru.bank.branchatmservice.repository.BranchRepository;
+import ru.bank.branchatmservice.repository.WorkScheduleRepository;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BranchUpdateServiceTest {
+    private static final UUID BRANCH_ID = UUID.randomUUID();
+
+    @Mock
+    private WorkScheduleRepository workScheduleRepository;
+
+    @Mock
+    private CityService cityService;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    private BranchUpdateService branchUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        branchUpdateService = new BranchUpdateService(
+                workScheduleRepository,
+                cityService,
+                Mappers.getMapper(WorkScheduleMapper.class),
+                branchRepository,
+                new ObjectMapper()
+        );
+    }
+
+    @Test
+    void updateBranchInfo_ShouldCheckAllUniqueFieldsInOneQuery() {
+        Branch branch = Branch.builder().id(BRANCH_ID).name("ДО «ГУМ»").bankNumber("101").build();
+        BranchInfoUpdateDto info = BranchInfoUpdateDto.builder().name("ДО «ЦУМ»").bankNumber("102").build();
+        when(branchRepository.findConflicting(BRANCH_ID, "ДО «ЦУМ»", "102", null)).thenReturn(List.of());
+
+        branchUpdateService.updateBranchInfo(branch, info);
+
+        assertEquals("ДО «ЦУМ»", branch.getName());
+        assertEquals("102", branch.getBankNumber());
+    }
+
+    @Test
+    void updateBranchInfo_WhenValuesTaken_ShouldReportEveryConflict() {
+        Branch branch = Branch.builder().id(BRANCH_ID).name("ДО «ГУМ»").bankNumber("101").build();
+        BranchInfoUpdateDto info = BranchInfoUpdateDto.builder()
+                .name("ДО «ЦУМ»").bankNumber("102").phoneNumber("+79990000001").build();
+        BranchUniqueKeysProjection existing = mock(BranchUniqueKeysProjection.class);
+        when(existing.getName()).thenReturn("ДО «ЦУМ»");
+        when(existing.getBankNumber()).thenReturn("102");
+        when(existing.getPhoneNumber()).thenReturn("+79990000002");
+        when(branchRepository.findConflicting(BRANCH_ID, "ДО «ЦУМ»", "102", "+79990000001"))
+                .thenReturn(List.of(existing));
+
+        EntityExistsException exception = assertThrows(EntityExistsException.class,
+                () -> branchUpdateService.updateBranchInfo(branch, info));
+
+        assertEquals("Отделение с таким номером 102 уже существует; Отделение с таким именем ДО «ЦУМ» уже существует",
+                exception.getMessage());
+        assertEquals("ДО «ГУМ»", branch.getName());
+    }
+
+    @Test
+    void updateWorkSchedule_ShouldApplyOperationsInOrderAndMergeOnce() {
+        WorkSchedule monday = schedule(WeekDay.MONDAY, "09:00", "18:00");
+        WorkSchedule tuesday = schedule(WeekDay.TUESDAY, "09:00", "18:00");
+        when(workScheduleRepository.findAllByEntityIdAndEntityType(BRANCH_ID, EntityType.BRANCH))
+                .thenReturn(List.of(monday, tuesday));
+
+        branchUpdateService.updateWorkSchedule(BRANCH_ID, List.of(
+                update(2, SchedualOptional.DELETE, null, null),
+                update(2, SchedualOptional.ADD, "10:00", "19:00"),
+                update(1, SchedualOptional.CHANGE, null, "17:00"),
+                update(3, SchedualOptional.ADD, "09:00", "15:00")));
+
+        verify(workScheduleRepository).mergeDays("BRANCH", BRANCH_ID,
+                "[{\"weekDay\":1,\"openingTime\":\"09:00\",\"closingTime\":\"17:00\"},"
+                        + "{\"weekDay\":2,\"openingTime\":\"10:00\",\"closingTime\":\"19:00\"},"
+                        + "{\"weekDay\":3,\"openingTime\":\"09:00\",\"closingTime\":\"15:00\"}]");
+        assertEquals(LocalTime.parse("18:00"), monday.getClosingTime());
+    }
+
+    @Test
+    void updateWorkSchedule_WhenDayMissing_ShouldThrowNotFoundException() {
+        when(workScheduleRepository.findAllByEntityIdAndEntityType(BRANCH_ID, EntityType.BRANCH))
+                .thenReturn(List.of(schedule(WeekDay.MONDAY, "09:00", "18:00")));
+        List<WorkScheduleUpdateDto> updates = List.of(
+                update(1, SchedualOptional.DELETE, null, null),
+                update(1, SchedualOptional.CHANGE, "10:00", null));
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> branchUpdateService.updateWorkSchedule(BRANCH_ID, updates));
+
+        assertEquals("День 1 в графике работы отделения не найден", exception.getMessage());
+        verify(workScheduleRepository, never()).mergeDays(anyString(), any(), anyString());
+    }
+
+    @Test
+    void updateWorkSchedule_WhenDayAlreadyExists_ShouldThrowEntityExistsException() {
+        when(workScheduleRepository.findAllByEntityIdAndEntityType(BRANCH_ID, EntityType.BRANCH))
+                .thenReturn(List.of(schedule(WeekDay.MONDAY, "09:00", "18:00")));
+        List<WorkScheduleUpdateDto> updates = List.of(update(1, SchedualOptional.ADD, "10:00", "19:00"));
+
+        assertThrows(EntityExistsException.class,
+                () -> branchUpdateService.updateWorkSchedule(BRANCH_ID, updates));
+        verify(workScheduleRepository, never()).mergeDays(anyString(), any(), anyString());
+    }
+
+    @Test
+    void updateWorkSchedule_WhenNoOperations_ShouldNotTouchRepository() {
+        branchUpdateService.updateWorkSchedule(BRANCH_ID, List.of());
+
+        verifyNoInteractions(workScheduleRepository);
+    }
+
+    private static WorkSchedule schedule(WeekDay day, String openingTime, String closingTime) {
+        return WorkSchedule.builder()
+                .id(UUID.randomUUID())
+                .entityType(EntityType.BRANCH)
+                .entityId(BRANCH_ID)
+                .weekDay(day)
+                .openingTime(LocalTime.parse(openingTime))
+                .closingTime(LocalTime.parse(closingTime))
+                .build();
+    }
+
+    private static WorkScheduleUpdateDto update(int day, SchedualOptional optional,
+                                                String openingTime, String closingTime) {
+        WorkScheduleUpdateDto dto = new WorkScheduleUpdateDto();
+        dto.setWeekDay(day);
+        dto.setOptional(optional);
+        dto.setOpeningTime(openingTime);
+        dto.setClosingTime(closingTime);
+        return dto;
+    }
+}
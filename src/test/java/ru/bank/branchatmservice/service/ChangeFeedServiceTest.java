@@ -0,0 +1,221 @@
+package ru.bank.branchatmservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.bank.branchatmservice.dto.AddressShortDto;
+import ru.bank.branchatmservice.dto.BranchDto;
+import ru.bank.branchatmservice.dto.ChangedIdProjection;
+import ru.bank.branchatmservice.dto.response.AtmFilterResponseDto;
+import ru.bank.branchatmservice.dto.response.ChangeFeedResponse;
+import ru.bank.branchatmservice.mapper.ATMMapper;
+import ru.bank.branchatmservice.mapper.AddressMapper;
+import ru.bank.branchatmservice.mapper.BranchMapper;
+import ru.bank.branchatmservice.model.ATM;
+import ru.bank.branchatmservice.model.Address;
+import ru.bank.branchatmservice.model.Branch;
+import ru.bank.branchatmservice.repository.ATMRepository;
+import ru.bank.branchatmservice.repository.BranchRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+    private static final long HORIZON = 1_000L;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private ATMRepository atmRepository;
+
+    @Mock
+    private WorkScheduleService workScheduleService;
+
+    @Mock
+    private BranchMapper branchMapper;
+
+    @Mock
+    private AddressMapper addressMapper;
+
+    @Mock
+    private ATMMapper atmMapper;
+
+    @InjectMocks
+    private ChangeFeedService changeFeedService;
+
+    @Test
+    void getChanges_ShouldSplitChangedAndArchivedEntities() {
+        when(branchRepository.findChangeVersionHorizon()).thenReturn(HORIZON);
+        Branch openBranch = branch(12L, false);
+        Branch closedBranch = branch(15L, true);
+        ATM atm = atm(20L, false);
+        BranchDto branchDto = new BranchDto(openBranch.getId(), "Центральный офис", "123456789",
+                false, false, false, "+78478579955", false);
+        AtmFilterResponseDto atmDto = new AtmFilterResponseDto(null, null, List.of());
+
+        when(branchRepository.findIdsChangedSince(10L, HORIZON, Limit.of(51)))
+                .thenReturn(List.of(changed(openBranch), changed(closedBranch)));
+        when(branchRepository.findAllWithAddressByIds(List.of(openBranch.getId(), closedBranch.getId())))
+                .thenReturn(List.of(closedBranch, openBranch));
+        when(atmRepository.findIdsChangedSince(10L, HORIZON, Limit.of(51))).thenReturn(List.of(changed(atm)));
+        when(atmRepository.findAllByIdIn(List.of(atm.getId()))).thenReturn(List.of(atm));
+        when(branchMapper.toBranchDto(openBranch)).thenReturn(branchDto);
+        when(addressMapper.toAddressShortDto(openBranch.getAddress())).thenReturn(new AddressShortDto());
+        when(atmMapper.toAtmFilterResponseDto(atm)).thenReturn(atmDto);
+
+        ChangeFeedResponse result = changeFeedService.getChanges(10L, null);
+
+        assertEquals(20L, result.version());
+        assertFalse(result.hasMore());
+        assertEquals(1, result.branches().size());
+        assertEquals(12L, result.branches().get(0).version());
+        assertEquals(openBranch.getId(), result.branches().get(0).branch().branchInfo().id());
+        assertEquals(List.of(closedBranch.getId()), result.archivedBranchIds());
+        assertEquals(1, result.atms().size());
+        assertEquals(atm.getId(), result.atms().get(0).id());
+        assertEquals(atmDto, result.atms().get(0).atm());
+        assertTrue(result.archivedAtmIds().isEmpty());
+    }
+
+    @Test
+    void getChanges_WhenAtmsTruncated_ShouldNotSkipRemainingAtms() {
+        when(branchRepository.findChangeVersionHorizon()).thenReturn(HORIZON);
+        ATM first = atm(30L, false);
+        ATM second = atm(31L, true);
+        ChangedIdProjection remaining = changed(UUID.randomUUID(), 32L);
+        Branch branch = branch(40L, true);
+
+        when(branchRepository.findIdsChangedSince(0L, HORIZON, Limit.of(3))).thenReturn(List.of(changed(branch)));
+        when(branchRepository.findAllWithAddressByIds(List.of(branch.getId()))).thenReturn(List.of(branch));
+        when(atmRepository.findIdsChangedSince(0L, HORIZON, Limit.of(3)))
+                .thenReturn(List.of(changed(first), changed(second), remaining));
+        when(atmRepository.findAllByIdIn(List.of(first.getId(), second.getId()))).thenReturn(List.of(second, first));
+        when(atmMapper.toAtmFilterResponseDto(first)).thenReturn(new AtmFilterResponseDto(null, null, List.of()));
+
+        ChangeFeedResponse result = changeFeedService.getChanges(null, 2);
+
+        // версия отделения (40) больше, но банкоматы после 31 еще не выгружены
+        assertEquals(31L, result.version());
+        assertTrue(result.hasMore());
+        assertEquals(List.of(second.getId()), result.archivedAtmIds());
+        assertEquals(List.of(branch.getId()), result.archivedBranchIds());
+    }
+
+    @Test
+    void getChanges_WhenEntityChangedAfterIdQuery_ShouldUseVersionFromIdQuery() {
+        when(branchRepository.findChangeVersionHorizon()).thenReturn(HORIZON);
+        ATM atm = atm(50L, false);
+        AtmFilterResponseDto atmDto = new AtmFilterResponseDto(null, null, List.of());
+        when(branchRepository.findIdsChangedSince(10L, HORIZON, Limit.of(51))).thenReturn(List.of());
+        when(atmRepository.findIdsChangedSince(10L, HORIZON, Limit.of(51))).thenReturn(List.of(changed(atm.getId(), 20L)));
+        // между выборкой идентификаторов и чтением сущности банкомат успел измениться еще раз
+        when(atmRepository.findAllByIdIn(List.of(atm.getId()))).thenReturn(List.of(atm));
+        when(atmMapper.toAtmFilterResponseDto(atm)).thenReturn(atmDto);
+
+        ChangeFeedResponse result = changeFeedService.getChanges(10L, null);
+
+        // версия 50 не выдается: строки с версиями 21..49 выборка идентификаторов не видела
+        assertEquals(20L, result.version());
+        assertEquals(20L, result.atms().get(0).version());
+    }
+
+    @Test
+    void getChanges_WhenTruncatedInsideVersion_ShouldReturnWholeVersion() {
+        ATM first = atm(60L, true);
+        ATM second = atm(61L, true);
+        UUID sameTransaction = UUID.randomUUID();
+        when(branchRepository.findChangeVersionHorizon()).thenReturn(HORIZON);
+        when(branchRepository.findIdsChangedSince(0L, HORIZON, Limit.of(3))).thenReturn(List.of());
+        when(atmRepository.findIdsChangedSince(0L, HORIZON, Limit.of(3)))
+                .thenReturn(List.of(changed(first), changed(second), changed(sameTransaction, 61L)));
+        // банкоматы, записанные одной транзакцией, не разрываются между страницами
+        when(atmRepository.findIdsWithChangeVersion(61L)).thenReturn(List.of(second.getId(), sameTransaction));
+        ATM third = ATM.builder().id(sameTransaction).isClosed(true).workSchedule(List.of()).changeVersion(61L).build();
+        when(atmRepository.findAllByIdIn(List.of(first.getId(), second.getId(), sameTransaction)))
+                .thenReturn(List.of(first, second, third));
+
+        ChangeFeedResponse result = changeFeedService.getChanges(null, 2);
+
+        assertEquals(61L, result.version());
+        assertTrue(result.hasMore());
+        assertEquals(List.of(first.getId(), second.getId(), sameTransaction), result.archivedAtmIds());
+    }
+
+    @Test
+    void getChanges_NoChanges_ShouldReturnSameVersion() {
+        when(branchRepository.findChangeVersionHorizon()).thenReturn(HORIZON);
+        when(branchRepository.findIdsChangedSince(100L, HORIZON, Limit.of(51))).thenReturn(List.of());
+        when(atmRepository.findIdsChangedSince(100L, HORIZON, Limit.of(51))).thenReturn(List.of());
+
+        ChangeFeedResponse result = changeFeedService.getChanges(100L, null);
+
+        assertEquals(100L, result.version());
+        assertFalse(result.hasMore());
+        assertTrue(result.branches().isEmpty());
+        assertTrue(result.atms().isEmpty());
+        verify(branchRepository, never()).findAllWithAddressByIds(anyList());
+        verify(atmRepository, never()).findAllByIdIn(anyList());
+    }
+
+    @Test
+    void getChanges_NegativeVersion_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(-1L, null));
+        verifyNoInteractions(branchRepository, atmRepository);
+    }
+
+    private static ChangedIdProjection changed(Branch branch) {
+        return changed(branch.getId(), branch.getChangeVersion());
+    }
+
+    private static ChangedIdProjection changed(ATM atm) {
+        return changed(atm.getId(), atm.getChangeVersion());
+    }
+
+    private static ChangedIdProjection changed(UUID id, long changeVersion) {
+        return new ChangedIdProjection() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public long getChangeVersion() {
+                return changeVersion;
+            }
+        };
+    }
+
+    private static Branch branch(long changeVersion, boolean closed) {
+        return Branch.builder()
+                .id(UUID.randomUUID())
+                .address(new Address())
+                .isClosed(closed)
+                .workSchedule(List.of())
+                .changeVersion(changeVersion)
+                .build();
+    }
+
+    private static ATM atm(long changeVersion, boolean closed) {
+        return ATM.builder()
+                .id(UUID.randomUUID())
+                .isClosed(closed)
+                .workSchedule(List.of())
+                .changeVersion(changeVersion)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package ru.bank.branchatmservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.bank.branchatmservice.dto.AtmExportProjection;
+import ru.bank.branchatmservice.dto.BranchExportProjection;
+import ru.bank.branchatmservice.enums.ExportFormat;
+import ru.bank.branchatmservice.repository.ATMRepository;
+import ru.bank.branchatmservice.repository.BranchRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private ATMRepository atmRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService(branchRepository, atmRepository, objectMapper);
+    }
+
+    @Test
+    void exportAtms_Ndjson_ShouldWriteOneObjectPerLineAndCloseStream() throws Exception {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<AtmExportProjection> rows = Stream.of(atm(firstId, "1 00:00-00:00;2 09:00-18:00"), atm(secondId, null))
+                .onClose(() -> closed.set(true));
+        when(atmRepository.streamAllForExport()).thenReturn(rows);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportAtms(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(firstId.toString(), first.get("id").asText());
+        assertEquals("Москва", first.get("city").asText());
+        assertEquals(55.7558, first.get("latitude").asDouble(), 1e-9);
+        assertEquals(2, first.get("workSchedule").size());
+        assertEquals("09:00", first.get("workSchedule").get(1).get("openingTime").asText());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("workSchedule").size());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportBranches_Csv_ShouldWriteHeaderAndEscapeValues() throws Exception {
+        BranchExportProjection branch = mock(BranchExportProjection.class);
+        UUID id = UUID.randomUUID();
+        when(branch.getId()).thenReturn(id);
+        when(branch.getName()).thenReturn("ДО \"Арбат\", Москва");
+        when(branch.getIsClosed()).thenReturn(false);
+        when(branch.getWorkSchedule()).thenReturn("1 09:00-18:00");
+        when(branchRepository.streamAllForExport()).thenReturn(Stream.of(branch));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportBranches(ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(1, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,name,bankNumber,"));
+        assertTrue(lines[0].endsWith(",workSchedule"));
+        assertTrue(lines[1].startsWith(id + ",\"ДО \"\"Арбат\"\", Москва\",,,,,,false,"));
+        assertTrue(lines[1].endsWith(",1 09:00-18:00"));
+    }
+
+    @Test
+    void exportBranches_Empty_ShouldWriteOnlyHeaderForCsv() throws Exception {
+        when(branchRepository.streamAllForExport()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportBranches(ExportFormat.CSV, out);
+
+        assertEquals(0, count);
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\r\n").length);
+    }
+
+    @Test
+    void exportFormat_Unknown_ShouldThrowIllegalArgumentException() {
+        assertEquals(ExportFormat.CSV, ExportFormat.from("csv"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.from(null));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.from("xml"));
+    }
+
+    private static AtmExportProjection atm(UUID id, String workSchedule) {
+        AtmExportProjection atm = mock(AtmExportProjection.class);
+        when(atm.getId()).thenReturn(id);
+        when(atm.getCity()).thenReturn("Москва");
+        when(atm.getLatitude()).thenReturn(new BigDecimal("55.755800"));
+        when(atm.getWorkSchedule()).thenReturn(workSchedule);
+        return atm;
+    }
+}
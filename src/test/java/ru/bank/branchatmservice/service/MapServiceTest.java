@@ -0,0 +1,183 @@
+package ru.bank.branchatmservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.bank.branchatmservice.catalog.AtmCatalog;
+import ru.bank.branchatmservice.catalog.AtmCatalogEntry;
+import ru.bank.branchatmservice.catalog.AtmCatalogSnapshot;
+import ru.bank.branchatmservice.catalog.BranchCatalog;
+import ru.bank.branchatmservice.catalog.BranchCatalogEntry;
+import ru.bank.branchatmservice.catalog.BranchCatalogSnapshot;
+import ru.bank.branchatmservice.catalog.GeoPoint;
+import ru.bank.branchatmservice.dto.BranchDto;
+import ru.bank.branchatmservice.dto.request.MapViewportRequest;
+import ru.bank.branchatmservice.dto.response.MapClusterDto;
+import ru.bank.branchatmservice.dto.response.MapViewportResponse;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.util.WeekSchedule;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MapServiceTest {
+    @Mock
+    private AtmCatalog atmCatalog;
+
+    @Mock
+    private BranchCatalog branchCatalog;
+
+    @InjectMocks
+    private MapService mapService;
+
+    private AtmCatalogSnapshot atmSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        Map<UUID, AtmCatalogEntry> entries = new LinkedHashMap<>();
+        addAtm(entries, 55.7558, 37.6173, false);
+        addAtm(entries, 55.7560, 37.6180, false);
+        addAtm(entries, 55.7562, 37.6175, true);
+        addAtm(entries, 59.9386, 30.3141, false);
+        atmSnapshot = AtmCatalogSnapshot.empty().withEntries(entries);
+    }
+
+    @Test
+    void getMapClusters_LowZoom_ShouldGroupNearbyAtmsIntoCluster() {
+        when(atmCatalog.getSnapshot()).thenReturn(atmSnapshot);
+        when(branchCatalog.getSnapshot()).thenReturn(BranchCatalogSnapshot.empty());
+
+        MapViewportResponse result = mapService.getMapClusters(
+                new MapViewportRequest(55.0, 37.0, 56.0, 38.0, 10, null));
+
+        assertEquals(1, result.items().size());
+        assertFalse(result.truncated());
+        MapClusterDto cluster = result.items().get(0);
+        // архивный банкомат на карту не попадает
+        assertEquals(2, cluster.count());
+        assertEquals(2, cluster.atmCount());
+        assertEquals(0, cluster.branchCount());
+        assertNull(cluster.id());
+        assertEquals(55.7559, cluster.latitude(), 1e-9);
+    }
+
+    @Test
+    void getMapClusters_HighZoom_ShouldReturnSinglePoints() {
+        when(atmCatalog.getSnapshot()).thenReturn(atmSnapshot);
+
+        MapViewportResponse result = mapService.getMapClusters(
+                new MapViewportRequest(55.75, 37.61, 55.76, 37.62, 17, EntityType.ATM));
+
+        assertEquals(2, result.items().size());
+        assertFalse(result.truncated());
+        assertTrue(result.items().stream().allMatch(point -> point.count() == 1 && point.id() != null));
+        assertTrue(result.items().stream().allMatch(point -> point.entityType() == EntityType.ATM));
+        verifyNoInteractions(branchCatalog);
+    }
+
+    @Test
+    void getMapClusters_WhenBoundsInverted_ShouldThrowIllegalArgumentException() {
+        MapViewportRequest request = new MapViewportRequest(56.0, 37.0, 55.0, 38.0, 10, null);
+
+        assertThrows(IllegalArgumentException.class, () -> mapService.getMapClusters(request));
+        verifyNoInteractions(atmCatalog, branchCatalog);
+    }
+
+    @Test
+    void getMapClusters_WhenZoomOutOfRange_ShouldThrowIllegalArgumentException() {
+        MapViewportRequest request = new MapViewportRequest(55.0, 37.0, 56.0, 38.0, 30, null);
+
+        assertThrows(IllegalArgumentException.class, () -> mapService.getMapClusters(request));
+    }
+
+    @Test
+    void getMapClusters_WhenCoordinatesOutOfRange_ShouldThrowIllegalArgumentException() {
+        MapViewportRequest huge = new MapViewportRequest(-1e12, 37.0, 1e12, 38.0, 17, null);
+        MapViewportRequest nan = new MapViewportRequest(55.0, Double.NaN, 56.0, 38.0, 10, null);
+
+        assertThrows(IllegalArgumentException.class, () -> mapService.getMapClusters(huge));
+        assertThrows(IllegalArgumentException.class, () -> mapService.getMapClusters(nan));
+        verifyNoInteractions(atmCatalog, branchCatalog);
+    }
+
+    @Test
+    void getMapClusters_HighZoom_ShouldCapNumberOfPoints() {
+        Map<UUID, AtmCatalogEntry> entries = new LinkedHashMap<>();
+        for (int i = 0; i < MapService.MAX_POINTS + 10; i++) {
+            addAtm(entries, 55.7500 + i * 1e-6, 37.6100, false);
+        }
+        when(atmCatalog.getSnapshot()).thenReturn(AtmCatalogSnapshot.empty().withEntries(entries));
+
+        MapViewportResponse result = mapService.getMapClusters(
+                new MapViewportRequest(55.74, 37.60, 55.77, 37.62, 20, EntityType.ATM));
+
+        assertEquals(MapService.MAX_POINTS, result.items().size());
+        assertTrue(result.truncated());
+    }
+
+    @Test
+    void getMapClusters_HighZoom_ShouldSplitCapBetweenAtmsAndBranches() {
+        Map<UUID, AtmCatalogEntry> atms = new LinkedHashMap<>();
+        Map<UUID, BranchCatalogEntry> branches = new LinkedHashMap<>();
+        for (int i = 0; i < MapService.MAX_POINTS; i++) {
+            addAtm(atms, 55.7500 + i * 1e-6, 37.6100, false);
+            addBranch(branches, 55.7500 + i * 1e-6, 37.6110);
+        }
+        when(atmCatalog.getSnapshot()).thenReturn(AtmCatalogSnapshot.empty().withEntries(atms));
+        when(branchCatalog.getSnapshot()).thenReturn(BranchCatalogSnapshot.empty().withEntries(branches));
+
+        MapViewportResponse result = mapService.getMapClusters(
+                new MapViewportRequest(55.74, 37.60, 55.77, 37.62, 20, null));
+
+        assertEquals(MapService.MAX_POINTS, result.items().size());
+        assertTrue(result.truncated());
+        assertEquals(MapService.MAX_POINTS / 2,
+                result.items().stream().filter(point -> point.entityType() == EntityType.BRANCH).count());
+    }
+
+    @Test
+    void getMapClusters_HighZoom_WhenBranchesFew_ShouldGiveRestOfCapToAtms() {
+        Map<UUID, AtmCatalogEntry> atms = new LinkedHashMap<>();
+        for (int i = 0; i < MapService.MAX_POINTS; i++) {
+            addAtm(atms, 55.7500 + i * 1e-6, 37.6100, false);
+        }
+        Map<UUID, BranchCatalogEntry> branches = new LinkedHashMap<>();
+        addBranch(branches, 55.7550, 37.6110);
+        when(atmCatalog.getSnapshot()).thenReturn(AtmCatalogSnapshot.empty().withEntries(atms));
+        when(branchCatalog.getSnapshot()).thenReturn(BranchCatalogSnapshot.empty().withEntries(branches));
+
+        MapViewportResponse result = mapService.getMapClusters(
+                new MapViewportRequest(55.74, 37.60, 55.77, 37.62, 20, null));
+
+        assertEquals(MapService.MAX_POINTS, result.items().size());
+        assertTrue(result.truncated());
+        assertEquals(1, result.items().stream().filter(point -> point.entityType() == EntityType.BRANCH).count());
+    }
+
+    private void addBranch(Map<UUID, BranchCatalogEntry> entries, double latitude, double longitude) {
+        UUID id = UUID.randomUUID();
+        BranchDto branch = new BranchDto(id, "ДО " + id, "101", false, false, false, "+78478579955", false);
+        entries.put(id, new BranchCatalogEntry(branch, null,
+                new GeoPoint(id, EntityType.BRANCH, latitude, longitude), WeekSchedule.closed()));
+    }
+
+    private void addAtm(Map<UUID, AtmCatalogEntry> entries, double latitude, double longitude, boolean closed) {
+        UUID id = UUID.randomUUID();
+        entries.put(id, new AtmCatalogEntry(id, closed, false, false, null,
+                new GeoPoint(id, EntityType.ATM, latitude, longitude), WeekSchedule.closed()));
+    }
+}
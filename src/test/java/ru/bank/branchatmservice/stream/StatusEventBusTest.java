@@ -0,0 +1,196 @@
+package ru.bank.branchatmservice.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.bank.branchatmservice.dto.response.StatusEventDto;
+import ru.bank.branchatmservice.enums.ChangeType;
+import ru.bank.branchatmservice.enums.EntityType;
+import ru.bank.branchatmservice.exception.ServiceUnavailableException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StatusEventBusTest {
+
+    @Test
+    void publish_WhenSubscriberBufferOverflows_ShouldDisconnectOnlyThatSubscriber() {
+        // отправка не выполняется: подписчик ничего не вычитывает
+        ExecutorService stalledSender = mock(ExecutorService.class);
+        StatusEventBus bus = new StatusEventBus(2, Duration.ofMinutes(1), stalledSender);
+        bus.subscribe(EntityType.ATM);
+        bus.subscribe(EntityType.BRANCH);
+
+        for (int i = 0; i < 3; i++) {
+            bus.publish(event(EntityType.ATM));
+        }
+
+        assertEquals(1, bus.subscriberCount());
+        // одна отправка (повторная не планируется, пока предыдущая не завершилась) и одно закрытие соединения
+        verify(stalledSender, times(2)).execute(any());
+    }
+
+    @Test
+    void publish_WhenOverflowingSubscriberIsBlockedInSend_ShouldNotWaitForIt() throws Exception {
+        CountDownLatch sendStarted = new CountDownLatch(1);
+        CountDownLatch socketReleased = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicReference<Thread> completedOn = new AtomicReference<>();
+        ExecutorService sender = Executors.newCachedThreadPool();
+        StatusEventBus bus = new StatusEventBus(1, Duration.ofMinutes(1), sender,
+                timeout -> new BlockingEmitter(sendStarted, socketReleased, completed, completedOn));
+        bus.subscribe(null);
+        try {
+            bus.publish(event(EntityType.ATM));
+            assertTrue(sendStarted.await(5, TimeUnit.SECONDS));
+
+            // второе событие ложится в буфер, третье его переполняет
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                bus.publish(event(EntityType.ATM));
+                bus.publish(event(EntityType.ATM));
+            });
+            assertEquals(0, bus.subscriberCount());
+            assertEquals(1, completed.getCount());
+
+            socketReleased.countDown();
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            assertNotSame(Thread.currentThread(), completedOn.get());
+        } finally {
+            socketReleased.countDown();
+            sender.shutdownNow();
+        }
+    }
+
+    @Test
+    void publish_WhenSubscriberKeepsUp_ShouldKeepSubscription() {
+        ExecutorService directSender = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(directSender).execute(any());
+        StatusEventBus bus = new StatusEventBus(2, Duration.ofMinutes(1), directSender);
+        bus.subscribe(null);
+
+        for (int i = 0; i < 10; i++) {
+            bus.publish(event(i % 2 == 0 ? EntityType.ATM : EntityType.BRANCH));
+        }
+
+        assertEquals(1, bus.subscriberCount());
+        verify(directSender, times(10)).execute(any());
+    }
+
+    @Test
+    void subscribe_WhenSubscriberLimitReached_ShouldThrowServiceUnavailableException() {
+        StatusEventBus bus = new StatusEventBus(2, 1, Duration.ofMinutes(1), mock(ExecutorService.class), SseEmitter::new);
+        bus.subscribe(null);
+
+        assertThrows(ServiceUnavailableException.class, () -> bus.subscribe(EntityType.ATM));
+        assertEquals(1, bus.subscriberCount());
+    }
+
+    @Test
+    void heartbeat_ShouldSendCommentAndDisconnectBrokenSubscriber() throws Exception {
+        ExecutorService directSender = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(directSender).execute(any());
+        SseEmitter alive = mock(SseEmitter.class);
+        SseEmitter broken = mock(SseEmitter.class);
+        doThrow(new IOException("Broken pipe")).when(broken).send(any(SseEmitter.SseEventBuilder.class));
+        Queue<SseEmitter> emitters = new ArrayDeque<>(List.of(alive, broken));
+        StatusEventBus bus = new StatusEventBus(2, Duration.ofMinutes(1), directSender, timeout -> emitters.poll());
+        bus.subscribe(null);
+        bus.subscribe(null);
+
+        bus.heartbeat();
+
+        verify(alive).send(any(SseEmitter.SseEventBuilder.class));
+        verify(broken).complete();
+        assertEquals(1, bus.subscriberCount());
+    }
+
+    @Test
+    void shutdown_ShouldDisconnectAllSubscribers() {
+        ExecutorService sender = mock(ExecutorService.class);
+        StatusEventBus bus = new StatusEventBus(2, Duration.ofMinutes(1), sender);
+        bus.subscribe(null);
+        bus.subscribe(EntityType.ATM);
+
+        bus.shutdown();
+
+        assertFalse(bus.hasSubscribers());
+        verify(sender).shutdownNow();
+    }
+
+    @Test
+    void constructor_NonPositiveBuffer_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StatusEventBus(0, Duration.ofMinutes(1), mock(ExecutorService.class)));
+    }
+
+    /**
+     * Эмиттер медленного клиента: send висит в записи в сокет, complete ждет ту же блокировку.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sendStarted;
+        private final CountDownLatch socketReleased;
+        private final CountDownLatch completed;
+        private final AtomicReference<Thread> completedOn;
+
+        BlockingEmitter(CountDownLatch sendStarted, CountDownLatch socketReleased,
+                        CountDownLatch completed, AtomicReference<Thread> completedOn) {
+            this.sendStarted = sendStarted;
+            this.socketReleased = socketReleased;
+            this.completed = completed;
+            this.completedOn = completedOn;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sendStarted.countDown();
+            awaitSocket();
+        }
+
+        @Override
+        public void complete() {
+            awaitSocket();
+            completedOn.set(Thread.currentThread());
+            completed.countDown();
+        }
+
+        private void awaitSocket() {
+            try {
+                socketReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static StatusEventDto event(EntityType entityType) {
+        return new StatusEventDto(entityType, UUID.randomUUID(), ChangeType.UPDATED, LocalDateTime.now());
+    }
+}
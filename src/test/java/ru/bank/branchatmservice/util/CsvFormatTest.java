@@ -0,0 +1,53 @@
+package ru.bank.branchatmservice.util;
+
+import org.junit.jupiter.api.Test;
+import ru.bank.branchatmservice.dto.ScheduleDto;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvFormatTest {
+
+    @Test
+    void escape_ShouldQuoteOnlyWhenNeeded() {
+        assertEquals("Москва", CsvFormat.escape("Москва"));
+        assertEquals("\"ДО \"\"Арбат\"\", Москва\"", CsvFormat.escape("ДО \"Арбат\", Москва"));
+    }
+
+    @Test
+    void recordReader_ShouldReadQuotedMultilineValuesAndTrackLines() throws Exception {
+        String csv = "number,location\r\n"
+                + "1111,\"Второй этаж,\nлевое крыло\"\r\n"
+                + "2222,\"Вход \"\"А\"\"\"\n"
+                + "3333,";
+        CsvFormat.RecordReader reader = new CsvFormat.RecordReader(new BufferedReader(new StringReader(csv)));
+
+        assertEquals(List.of("number", "location"), reader.next());
+        assertEquals(List.of("1111", "Второй этаж,\nлевое крыло"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("2222", "Вход \"А\""), reader.next());
+        assertEquals(4, reader.recordLine());
+        assertEquals(List.of("3333", ""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void recordReader_UnclosedQuote_ShouldThrowIllegalArgumentException() {
+        CsvFormat.RecordReader reader = new CsvFormat.RecordReader(new StringReader("1111,\"open"));
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+
+    @Test
+    void scheduleText_ShouldParseCompactSchedule() {
+        assertEquals(List.of(new ScheduleDto(1, "09:00", "18:00"), new ScheduleDto(7, "00:00", "00:00")),
+                ScheduleText.parse("1 09:00-18:00;7 00:00-00:00"));
+        assertEquals(List.of(), ScheduleText.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> ScheduleText.parse("пн 09:00-18:00"));
+    }
+}
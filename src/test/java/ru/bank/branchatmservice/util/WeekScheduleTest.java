@@ -0,0 +1,100 @@
+package ru.bank.branchatmservice.util;
+
+import org.junit.jupiter.api.Test;
+import ru.bank.branchatmservice.enums.WeekDay;
+import ru.bank.branchatmservice.model.WorkSchedule;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeekScheduleTest {
+
+    @Test
+    void compile_WhenSchedulesEmpty_ShouldBeClosed() {
+        WeekSchedule schedule = WeekSchedule.compile(List.of());
+
+        assertTrue(schedule.isEmpty());
+        assertFalse(schedule.isOpenAt(0));
+    }
+
+    @Test
+    void isOpenAt_ShouldIncludeOpeningAndClosingTime() {
+        WeekSchedule schedule = WeekSchedule.compile(List.of(
+                schedule(WeekDay.TUESDAY, LocalTime.of(9, 0), LocalTime.of(18, 0))
+        ));
+        int tuesday = WeekSchedule.SECONDS_PER_DAY;
+
+        assertFalse(schedule.isOpenAt(tuesday + 9 * 3600 - 1));
+        assertTrue(schedule.isOpenAt(tuesday + 9 * 3600));
+        assertTrue(schedule.isOpenAt(tuesday + 18 * 3600));
+        assertFalse(schedule.isOpenAt(tuesday + 18 * 3600 + 1));
+        assertFalse(schedule.isOpenAt(10 * 3600));
+    }
+
+    @Test
+    void isOpenAt_WhenMidnightToMidnight_ShouldBeOpenAllDay() {
+        WeekSchedule schedule = WeekSchedule.compile(List.of(
+                schedule(WeekDay.MONDAY, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT)
+        ));
+
+        assertTrue(schedule.isOpenAt(0));
+        assertTrue(schedule.isOpenAt(WeekSchedule.SECONDS_PER_DAY - 1));
+        assertFalse(schedule.isOpenAt(WeekSchedule.SECONDS_PER_DAY));
+    }
+
+    @Test
+    void isOpenAt_WhenSundayNightShift_ShouldWrapToMonday() {
+        WeekSchedule schedule = WeekSchedule.compile(List.of(
+                schedule(WeekDay.SUNDAY, LocalTime.of(22, 0), LocalTime.of(2, 0)),
+                schedule(WeekDay.MONDAY, LocalTime.of(9, 0), LocalTime.of(18, 0))
+        ));
+
+        assertTrue(schedule.isOpenAt(WeekSchedule.SECONDS_PER_WEEK - 3600));
+        assertTrue(schedule.isOpenAt(3600));
+        assertFalse(schedule.isOpenAt(3 * 3600));
+        assertTrue(schedule.isOpenAt(12 * 3600));
+    }
+
+    @Test
+    void isAlwaysOpen_ShouldRequireRoundTheClockEveryDay() {
+        List<WorkSchedule> allWeek = Arrays.stream(WeekDay.values())
+                .map(day -> schedule(day, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT))
+                .toList();
+
+        assertTrue(WeekSchedule.compile(allWeek).isAlwaysOpen());
+        assertFalse(WeekSchedule.compile(allWeek.subList(0, 6)).isAlwaysOpen());
+    }
+
+    @Test
+    void openDaysMask_ShouldSetBitPerScheduledDay() {
+        short mask = WeekSchedule.openDaysMask(List.of(
+                schedule(WeekDay.MONDAY, LocalTime.of(9, 0), LocalTime.of(18, 0)),
+                schedule(WeekDay.SUNDAY, LocalTime.of(10, 0), LocalTime.of(16, 0))
+        ));
+
+        assertEquals(0b1000001, mask);
+        assertEquals(0, WeekSchedule.openDaysMask(List.of()));
+    }
+
+    @Test
+    void weekSecondOf_ShouldCountFromMondayMidnight() {
+        // 2025-09-03 — среда
+        int weekSecond = WeekSchedule.weekSecondOf(LocalDateTime.of(2025, 9, 3, 1, 2, 3));
+
+        assertEquals(2 * WeekSchedule.SECONDS_PER_DAY + 3723, weekSecond);
+    }
+
+    private WorkSchedule schedule(WeekDay day, LocalTime opening, LocalTime closing) {
+        return WorkSchedule.builder()
+                .weekDay(day)
+                .openingTime(opening)
+                .closingTime(closing)
+                .build();
+    }
+}